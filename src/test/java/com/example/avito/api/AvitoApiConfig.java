@@ -1,13 +1,28 @@
 package com.example.avito.api;
 
+import com.example.avito.api.stub.AvitoStubServer;
+
 public class AvitoApiConfig {
     public static final String BASE_URL = "https://qa-internship.avito.com";
     public static final String ITEM_ENDPOINT = "/api/1/item";
+    public static final String ITEM_BY_ID_ENDPOINT = ITEM_ENDPOINT + "/{id}";
     public static final String STATISTIC_ENDPOINT = "/api/1/statistic/{id}";
     public static final String SELLER_ITEM_ENDPOINT = "/api/1/{sellerId}/item";
 
+    // -Davito.baseUrl=http://host:port - явный адрес стенда вместо BASE_URL
+    public static final String BASE_URL_PROPERTY = "avito.baseUrl";
+    // -Davito.stub=true - поднять локальную заглушку API внутри процесса и ходить в неё
+    public static final String STUB_PROPERTY = "avito.stub";
+
 
     public static String getBaseUrl() {
+        String baseUrl = System.getProperty(BASE_URL_PROPERTY);
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            return baseUrl;
+        }
+        if (Boolean.getBoolean(STUB_PROPERTY)) {
+            return AvitoStubServer.shared().getBaseUrl();
+        }
         return BASE_URL;
     }
 
@@ -22,4 +37,37 @@ public class AvitoApiConfig {
     public static String getSellerItemEndpoint() {
         return SELLER_ITEM_ENDPOINT;
     }
-}
\ No newline at end of file
+
+    /**
+     * Шаблон ручки по фактическому пути запроса: "/api/1/item/5f3c..." -> "/api/1/item/{id}".
+     * Метрики и записи трафика группируются по ручке, а не по каждому ID. Неизвестные пути возвращаются как есть.
+     */
+    public static String resolveEndpointTemplate(String path) {
+        String prefix = "/api/1/";
+        int queryStart = path.indexOf('?');
+        String cleanPath = queryStart >= 0 ? path.substring(0, queryStart) : path;
+        if (!cleanPath.startsWith(prefix)) {
+            return cleanPath;
+        }
+        String rest = cleanPath.substring(prefix.length());
+        int slash = rest.indexOf('/');
+        if (slash < 0) {
+            return rest.equals("item") ? ITEM_ENDPOINT : cleanPath;
+        }
+        if (rest.indexOf('/', slash + 1) >= 0) {
+            return cleanPath;
+        }
+        String first = rest.substring(0, slash);
+        String second = rest.substring(slash + 1);
+        if (first.equals("item")) {
+            return ITEM_BY_ID_ENDPOINT;
+        }
+        if (first.equals("statistic")) {
+            return STATISTIC_ENDPOINT;
+        }
+        if (second.equals("item")) {
+            return SELLER_ITEM_ENDPOINT;
+        }
+        return cleanPath;
+    }
+}
@@ -1,42 +1,38 @@
 package com.example.avito.api;
 
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.metrics.ApiMetricsFilter;
 import com.example.avito.api.models.Item;
+import com.example.avito.api.replay.TrafficCaptureFilter;
 import com.github.javafaker.Faker;
-import io.restassured.RestAssured;
 
 import java.util.UUID;
 
-import org.junit.jupiter.api.TestMethodOrder;
-import org.junit.jupiter.api.MethodOrderer;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
 
-import java.util.Locale;
-
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.hasSize;
 
-@TestInstance(TestInstance.Lifecycle.PER_CLASS)
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+// Тесты независимы друг от друга и выполняются параллельно (см. junit-platform.properties)
 public class AvitoApiNegativeTests {
-    private final Faker faker = new Faker(new Locale("en")); // Faker для генерации данных
+    private final Faker faker = ItemFixtures.faker(); // Faker для генерации данных (свой на каждый поток)
     private RequestSpecification requestSpec;
     private Integer sellerId; // ID продавца
 
-    @BeforeAll
+    @BeforeEach
     void setup() {
-        RestAssured.baseURI = AvitoApiConfig.getBaseUrl();
-        requestSpec = new RequestSpecBuilder()
+        RequestSpecBuilder specBuilder = new RequestSpecBuilder()
+                .setBaseUri(AvitoApiConfig.getBaseUrl())
                 .setContentType(ContentType.JSON)
-                .addFilter(new RequestLoggingFilter()) // Логирование запросов
-                .addFilter(new ResponseLoggingFilter()) // Логирование ответов
-                .build();
+                .setConfig(ApiMetricsFilter.loggingIfValidationFails()) // Тела запроса и ответа - в лог только при упавшей проверке
+                .addFilter(ApiMetricsFilter.INSTANCE); // Время, коды ответов и размеры тел по ручкам (см. target/api-metrics.prom)
+        TrafficCaptureFilter.configured().ifPresent(specBuilder::addFilter); // Запись трафика при -Davito.capture.file
+        requestSpec = specBuilder.build();
 
-        sellerId = (int) faker.number().numberBetween(111111, 999999);
+        sellerId = ItemFixtures.uniqueSellerId();
     }
 
     @Test
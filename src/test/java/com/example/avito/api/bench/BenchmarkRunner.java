@@ -0,0 +1,30 @@
+package com.example.avito.api.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск всех JMH-бенчмарков пакета с профилировщиком аллокаций (gc.alloc.rate.norm - байт на операцию).
+ * Фильтр бенчмарков можно сузить через -Davito.bench.include=UuidExtraction.
+ * <p>
+ * Запуск: {@code mvn -Pjmh test-compile exec:exec}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackageName() + "\\..*" + System.getProperty("avito.bench.include", "") + ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("avito.bench.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.avito.api.bench;
+
+import com.example.avito.api.models.Item;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.internal.mapping.Jackson2Mapper;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+import io.restassured.path.json.mapper.factory.DefaultJackson2ObjectMapperFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация {@link Item} в тело запроса: путь RestAssured (Jackson2Mapper создаёт ObjectMapper на каждый вызов)
+ * против переиспользуемых ObjectMapper/ObjectWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ItemSerializationBenchmark {
+
+    private final Item item = new Item(666933, "Practical Granite Chair", 4999);
+    private final Jackson2Mapper restAssuredMapper = new Jackson2Mapper(new DefaultJackson2ObjectMapperFactory());
+    private final ObjectMapperSerializationContext context = new ItemSerializationContext(item);
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+    private final ObjectWriter itemWriter = sharedMapper.writerFor(Item.class);
+
+    @Benchmark
+    public String restAssuredJackson2Mapper() {
+        return restAssuredMapper.serialize(context);
+    }
+
+    @Benchmark
+    public String sharedObjectMapper() throws Exception {
+        return sharedMapper.writeValueAsString(item);
+    }
+
+    @Benchmark
+    public byte[] sharedObjectWriterBytes() throws Exception {
+        return itemWriter.writeValueAsBytes(item);
+    }
+
+    private record ItemSerializationContext(Item item) implements ObjectMapperSerializationContext {
+
+        @Override
+        public Object getObjectToSerialize() {
+            return item;
+        }
+
+        @Override
+        public <T> T getObjectToSerializeAs(Class<T> type) {
+            return type.cast(item);
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/json";
+        }
+
+        @Override
+        public String getCharset() {
+            return "UTF-8";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.avito.api.bench;
+
+import com.example.avito.api.fixtures.ItemPayloadGenerator;
+import com.example.avito.api.fixtures.PayloadBuffer;
+import com.example.avito.api.models.Item;
+import com.github.javafaker.Faker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генерация тела запроса {@link Item}: вызовы Faker из тестов против {@link ItemPayloadGenerator}
+ * (объект и запись JSON в буфер) и простого генератора на ThreadLocalRandom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PayloadGenerationBenchmark {
+
+    private static final String[] WORDS = {"chair", "table", "lamp", "phone", "bike", "sofa", "guitar", "camera"};
+
+    private final Faker faker = new Faker(new Locale("en"));
+    private final ItemPayloadGenerator generator = new ItemPayloadGenerator(42);
+    private final PayloadBuffer buffer = new PayloadBuffer();
+
+    @Benchmark
+    public Item fakerLoremWord() {
+        return new Item(faker.number().numberBetween(111111, 999999), faker.lorem().word(),
+                faker.number().randomDigitNotZero());
+    }
+
+    @Benchmark
+    public Item fakerProductName() {
+        return new Item(faker.number().numberBetween(111111, 999999), faker.commerce().productName(),
+                faker.number().randomDigitNotZero());
+    }
+
+    @Benchmark
+    public Item payloadGenerator() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public int payloadGeneratorIntoBuffer() {
+        buffer.clear();
+        generator.writeNext(buffer);
+        return buffer.length();
+    }
+
+    @Benchmark
+    public Item threadLocalRandom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Item(random.nextInt(111111, 1000000), WORDS[random.nextInt(WORDS.length)], random.nextInt(1, 10));
+    }
+}
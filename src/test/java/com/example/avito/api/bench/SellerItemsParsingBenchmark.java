@@ -0,0 +1,69 @@
+package com.example.avito.api.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор ответа GET /api/1/{sellerId}/item: GPath-выражения RestAssured (как в .body("sellerId", everyItem(...)))
+ * против дерева Jackson. Размер списка задаётся параметром.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SellerItemsParsingBenchmark {
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private String body;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"createdAt\":\"2025-02-15 17:26:52.640575 +0300 +0300\",\"id\":\"")
+                    .append(UUID.randomUUID())
+                    .append("\",\"name\":\"item-").append(i)
+                    .append("\",\"price\":").append(i)
+                    .append(",\"sellerId\":666933,\"statistics\":{\"contacts\":3,\"likes\":12,\"viewCount\":40}}");
+        }
+        body = json.append(']').toString();
+    }
+
+    @Benchmark
+    public int gpathEveryItem() {
+        JsonPath path = JsonPath.from(body);
+        List<Integer> sellerIds = path.getList("sellerId");
+        List<String> ids = path.getList("id");
+        List<Integer> prices = path.getList("price");
+        return sellerIds.size() + ids.size() + prices.size();
+    }
+
+    @Benchmark
+    public int gpathSize() {
+        return JsonPath.from(body).getInt("size()");
+    }
+
+    @Benchmark
+    public int jacksonTree() throws Exception {
+        int valid = 0;
+        for (JsonNode item : mapper.readTree(body)) {
+            if (item.path("sellerId").asInt() == 666933 && item.hasNonNull("id") && item.hasNonNull("price")) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.avito.api.bench;
+
+import com.example.avito.api.ids.UuidCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Извлечение UUID из сообщения о статусе создания объявления:
+ * компиляция Pattern на каждый вызов (как в AvitoApiPositiveTests.extractItemIdFromStatus),
+ * заранее скомпилированный Pattern, ручной поиск без регулярных выражений и разбор в два long
+ * через {@link UuidCodec} без создания строки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UuidExtractionBenchmark {
+
+    private static final String UUID_REGEX = "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})";
+    private static final Pattern UUID_PATTERN = Pattern.compile(UUID_REGEX);
+    private static final int UUID_LENGTH = 36;
+
+    private final String statusMessage = "Сохранили объявление - b50a7d79-25bd-462b-9630-a2ad0b1b1e91";
+
+    @Benchmark
+    public String compilePatternPerCall() {
+        Matcher matcher = Pattern.compile(UUID_REGEX).matcher(statusMessage);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Benchmark
+    public String precompiledPattern() {
+        Matcher matcher = UUID_PATTERN.matcher(statusMessage);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Benchmark
+    public String manualScan() {
+        for (int start = 0; start + UUID_LENGTH <= statusMessage.length(); start++) {
+            if (isUuidAt(statusMessage, start)) {
+                return statusMessage.substring(start, start + UUID_LENGTH);
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public long codecTwoLongs() {
+        int start = UuidCodec.indexOf(statusMessage);
+        return start < 0 ? 0 : UuidCodec.high(statusMessage, start) ^ UuidCodec.low(statusMessage, start);
+    }
+
+    private static boolean isUuidAt(String value, int start) {
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = value.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.avito.api.cache;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша чтений в {@link com.example.avito.api.client.AvitoApiClient}.
+ * TTL = 0 - ответы ручки не кэшируются.
+ *
+ * @param maximumSize      максимум записей
+ * @param maximumWeight    максимум веса: объявление весит 1, список продавца - число объявлений в нём + 1
+ * @param itemTtl          GET /api/1/item/{id} - поля объявления неизменны, TTL длинный
+ * @param sellerItemsTtl   GET /api/1/{sellerId}/item - список пополняется, при создании объявления клиентом
+ *                         запись продавца сбрасывается сразу
+ * @param statisticTtl     GET /api/1/statistic/{id} - счётчики меняются, TTL короткий
+ */
+public record ClientCacheConfig(long maximumSize, long maximumWeight, Duration itemTtl, Duration sellerItemsTtl,
+                                Duration statisticTtl) {
+
+    // -Davito.cache.enabled=true - включить кэш там, где конфигурация берётся из fromSystemProperties()
+    public static final String ENABLED_PROPERTY = "avito.cache.enabled";
+
+    public static ClientCacheConfig defaults() {
+        return new ClientCacheConfig(10_000, 100_000, Duration.ofMinutes(10), Duration.ofSeconds(5), Duration.ofSeconds(1));
+    }
+
+    /**
+     * Конфигурация из -Davito.cache.* или null, если кэш не включён.
+     */
+    public static ClientCacheConfig fromSystemProperties() {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return null;
+        }
+        ClientCacheConfig defaults = defaults();
+        return new ClientCacheConfig(
+                Long.getLong("avito.cache.maxSize", defaults.maximumSize()),
+                Long.getLong("avito.cache.maxWeight", defaults.maximumWeight()),
+                Duration.ofMillis(Long.getLong("avito.cache.itemTtlMs", defaults.itemTtl().toMillis())),
+                Duration.ofMillis(Long.getLong("avito.cache.sellerItemsTtlMs", defaults.sellerItemsTtl().toMillis())),
+                Duration.ofMillis(Long.getLong("avito.cache.statisticTtlMs", defaults.statisticTtl().toMillis())));
+    }
+}
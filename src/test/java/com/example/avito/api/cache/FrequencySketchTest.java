@@ -0,0 +1,61 @@
+package com.example.avito.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrequencySketchTest {
+
+    @Test
+    @DisplayName("Частота растёт с обращениями и ограничена 15")
+    void testIncrementAndSaturation() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        int key = "item/1".hashCode();
+        assertEquals(0, sketch.frequency(key));
+        for (int i = 1; i <= 15; i++) {
+            sketch.increment(key);
+            assertEquals(i, sketch.frequency(key));
+        }
+        sketch.increment(key);
+        assertEquals(15, sketch.frequency(key));
+    }
+
+    @Test
+    @DisplayName("Оценка не занижается и почти не завышается для редких ключей")
+    void testNeverUnderestimates() {
+        FrequencySketch sketch = new FrequencySketch(4096);
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j <= i % 5; j++) {
+                sketch.increment(("key-" + i).hashCode());
+            }
+        }
+        int overestimated = 0;
+        for (int i = 0; i < 1000; i++) {
+            int frequency = sketch.frequency(("key-" + i).hashCode());
+            assertTrue(frequency >= i % 5 + 1, "ключ " + i);
+            if (frequency > i % 5 + 1) {
+                overestimated++;
+            }
+        }
+        assertTrue(overestimated < 50, "завышено: " + overestimated);
+    }
+
+    @Test
+    @DisplayName("После sampleSize добавлений счётчики делятся пополам - старая популярность забывается")
+    void testAging() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        int hot = "hot".hashCode();
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(hot);
+        }
+        assertEquals(15, sketch.frequency(hot));
+        // Таблица на 16 слов - сброс после 160 добавлений; разные ключи, чтобы добавления засчитывались
+        for (int i = 0; i < 200; i++) {
+            sketch.increment(("cold-" + i).hashCode());
+        }
+        int aged = sketch.frequency(hot);
+        assertTrue(aged < 15 && aged >= 7, "частота после старения: " + aged);
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.avito.api.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Кэш с вытеснением по схеме W-TinyLFU, ограниченный числом записей и суммарным весом.
+ * <p>
+ * Новые записи попадают в небольшое LRU-окно (1% веса). Вытесненная из окна запись - кандидат на вход
+ * в основную часть (SLRU: probation и protected 80%) и вытесняет LRU-запись probation, только если
+ * по {@link FrequencySketch} к ней обращались чаще. Так разовые чтения (обход тысяч ID один раз)
+ * не вымывают из кэша часто читаемые объявления. TTL задаётся на каждую запись, истёкшие записи
+ * удаляются при чтении.
+ * <p>
+ * Операции выполняются под одной блокировкой: критическая секция - несколько перестановок указателей,
+ * что несопоставимо с временем HTTP-запроса, которое кэш экономит.
+ */
+public class WTinyLfuCache<K, V> {
+
+    private enum Region {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long windowMaxWeight;
+    private final long protectedMaxWeight;
+    private final ToIntFunction<? super V> weigher;
+    private final FrequencySketch sketch;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long weightedSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maximumSize   максимум записей
+     * @param maximumWeight максимум суммарного веса
+     * @param weigher       вес значения (например, число объявлений в списке продавца), не меньше 1
+     */
+    public WTinyLfuCache(long maximumSize, long maximumWeight, ToIntFunction<? super V> weigher) {
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("Размер и вес кэша должны быть положительными");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.windowMaxWeight = Math.max(1, maximumWeight / 100);
+        this.protectedMaxWeight = (maximumWeight - windowMaxWeight) * 8 / 10;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Значение или null, если записи нет или её TTL истёк.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            sketch.increment(key.hashCode());
+            Node<K, V> node = nodes.get(key);
+            if (node == null) {
+                misses++;
+                return null;
+            }
+            if (node.expiresAtNanos - System.nanoTime() <= 0) {
+                remove(node);
+                expirations++;
+                misses++;
+                return null;
+            }
+            hits++;
+            onAccess(node);
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        int weight = Math.max(1, weigher.applyAsInt(value));
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        lock.lock();
+        try {
+            sketch.increment(key.hashCode());
+            Node<K, V> node = nodes.get(key);
+            if (node != null) {
+                regionOf(node).weight += weight - node.weight;
+                weightedSize += weight - node.weight;
+                node.value = value;
+                node.weight = weight;
+                node.expiresAtNanos = expiresAt;
+                onAccess(node);
+            } else {
+                node = new Node<>(key, value, weight, expiresAt);
+                nodes.put(key, node);
+                window.addFirst(node);
+                weightedSize += weight;
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Node<K, V> node = nodes.get(key);
+            if (node != null) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            nodes.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            weightedSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long weightedSize() {
+        lock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, expirations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.region) {
+            case WINDOW -> window.moveToFront(node);
+            case PROTECTED -> protectedSegment.moveToFront(node);
+            case PROBATION -> {
+                // Повторное обращение в probation - повышение в protected, лишнее из protected - обратно в probation
+                probation.remove(node);
+                node.region = Region.PROTECTED;
+                protectedSegment.addFirst(node);
+                while (protectedSegment.weight > protectedMaxWeight && protectedSegment.last() != node) {
+                    Node<K, V> demoted = protectedSegment.last();
+                    protectedSegment.remove(demoted);
+                    demoted.region = Region.PROBATION;
+                    probation.addFirst(demoted);
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        while (window.weight > windowMaxWeight && window.last() != null) {
+            Node<K, V> candidate = window.last();
+            window.remove(candidate);
+            admit(candidate);
+        }
+        // Превышение из-за роста веса уже лежащих в кэше значений - вытесняем по LRU
+        while (overBounds()) {
+            Node<K, V> victim = lruOfMain();
+            if (victim == null) {
+                victim = window.last();
+            }
+            evictNode(victim);
+        }
+    }
+
+    /**
+     * TinyLFU-допуск: кандидат из окна входит в основную часть, только если он популярнее вытесняемых.
+     */
+    private void admit(Node<K, V> candidate) {
+        // Кандидат уже учтён в weightedSize и в nodes
+        int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+        while (overBounds()) {
+            Node<K, V> victim = lruOfMain();
+            if (victim == null || candidateFrequency <= sketch.frequency(victim.key.hashCode())) {
+                nodes.remove(candidate.key);
+                weightedSize -= candidate.weight;
+                evictions++;
+                return;
+            }
+            evictNode(victim);
+        }
+        candidate.region = Region.PROBATION;
+        probation.addFirst(candidate);
+    }
+
+    private Node<K, V> lruOfMain() {
+        Node<K, V> victim = probation.last();
+        return victim != null ? victim : protectedSegment.last();
+    }
+
+    private boolean overBounds() {
+        return weightedSize > maximumWeight || nodes.size() > maximumSize;
+    }
+
+    private void evictNode(Node<K, V> node) {
+        remove(node);
+        evictions++;
+    }
+
+    private void remove(Node<K, V> node) {
+        regionOf(node).remove(node);
+        nodes.remove(node.key);
+        weightedSize -= node.weight;
+    }
+
+    private AccessOrder<K, V> regionOf(Node<K, V> node) {
+        return switch (node.region) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedSegment;
+        };
+    }
+
+    /**
+     * @param evictions   вытеснено по размеру/весу (включая кандидатов, не прошедших допуск)
+     * @param expirations удалено по истечении TTL
+     */
+    public record CacheStats(long hits, long misses, long evictions, long expirations) {
+
+        public long requests() {
+            return hits + misses;
+        }
+
+        public double hitRate() {
+            long requests = requests();
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private int weight;
+        private long expiresAtNanos;
+        private Region region = Region.WINDOW;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, int weight, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Двусвязный список в порядке обращений (голова - самое свежее) с суммарным весом.
+     */
+    private static final class AccessOrder<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private long weight;
+
+        void addFirst(Node<K, V> node) {
+            node.prev = null;
+            node.next = head;
+            if (head != null) {
+                head.prev = node;
+            } else {
+                tail = node;
+            }
+            head = node;
+            weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                tail = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToFront(Node<K, V> node) {
+            if (head != node) {
+                remove(node);
+                addFirst(node);
+            }
+        }
+
+        Node<K, V> last() {
+            return tail;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+    }
+}
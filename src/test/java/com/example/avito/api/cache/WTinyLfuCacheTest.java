@@ -0,0 +1,103 @@
+package com.example.avito.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WTinyLfuCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Test
+    @DisplayName("Допуск TinyLFU: разовый обход тысяч ключей не вымывает часто читаемые")
+    void testAdmissionKeepsFrequentKeys() {
+        WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(100, 100, value -> 1);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                String key = "hot-" + i;
+                if (cache.get(key) == null) {
+                    cache.put(key, key, TTL);
+                }
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            String key = "scan-" + i;
+            cache.put(key, key, TTL);
+        }
+
+        int hotPresent = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("hot-" + i) != null) {
+                hotPresent++;
+            }
+        }
+        assertTrue(hotPresent >= 45, "осталось частых ключей: " + hotPresent);
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.stats().evictions() >= 10_000 + 50 - 100);
+    }
+
+    @Test
+    @DisplayName("TTL: истёкшая запись не возвращается и удаляется, нулевой TTL не кэширует")
+    void testExpiry() throws InterruptedException {
+        WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(10, 10, value -> 1);
+        cache.put("short", "v", Duration.ofMillis(1));
+        cache.put("long", "v", TTL);
+        cache.put("zero", "v", Duration.ZERO);
+        assertEquals(2, cache.size());
+
+        Thread.sleep(5);
+        assertNull(cache.get("short"));
+        assertEquals("v", cache.get("long"));
+        assertNull(cache.get("zero"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.stats().expirations());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Суммарный вес не превышает предел, в том числе при росте веса уже лежащего значения")
+    void testWeightBound() {
+        WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(1_000, 100, String::length);
+        for (int i = 0; i < 200; i++) {
+            String key = "k" + (i % 40);
+            cache.get(key);
+            cache.put(key, "x".repeat(1 + i % 13), TTL);
+            assertTrue(cache.weightedSize() <= 100, "вес " + cache.weightedSize());
+        }
+        cache.put("k1", "x".repeat(90), TTL);
+        assertTrue(cache.weightedSize() <= 100, "вес " + cache.weightedSize());
+
+        // Значение тяжелее всего кэша не удерживается
+        cache.put("huge", "x".repeat(150), TTL);
+        assertNull(cache.get("huge"));
+        assertTrue(cache.weightedSize() <= 100);
+    }
+
+    @Test
+    @DisplayName("Сброс записи и всего кэша")
+    void testInvalidation() {
+        WTinyLfuCache<String, String> cache = new WTinyLfuCache<>(100, 1_000, String::length);
+        for (int i = 0; i < 20; i++) {
+            cache.put("k" + i, "value", TTL);
+            cache.get("k" + i);
+        }
+        cache.invalidate("k3");
+        cache.invalidate("missing");
+        assertNull(cache.get("k3"));
+        assertEquals("value", cache.get("k4"));
+        assertEquals(19, cache.size());
+        assertEquals(19 * 5, cache.weightedSize());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weightedSize());
+        cache.put("k3", "again", TTL);
+        assertEquals("again", cache.get("k3"));
+    }
+}
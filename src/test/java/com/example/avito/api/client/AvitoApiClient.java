@@ -0,0 +1,470 @@
+package com.example.avito.api.client;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.cache.ClientCacheConfig;
+import com.example.avito.api.cache.WTinyLfuCache;
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.metrics.ApiMetrics;
+import com.example.avito.api.metrics.RequestTimer;
+import com.example.avito.api.models.Item;
+import com.example.avito.api.models.ItemResponse;
+import com.example.avito.api.models.Statistics;
+import com.example.avito.api.resilience.ResilienceConfig;
+import com.example.avito.api.resilience.ResilienceLayer;
+import com.example.avito.api.resilience.ResilienceLayer.RetryMode;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Типизированный клиент API Avito поверх {@link AvitoApiConfig}.
+ * <p>
+ * Каждая операция есть в блокирующем виде и в виде {@link CompletableFuture}. Запросы идут через один
+ * {@link HttpClient} с пулом keep-alive соединений (для https - HTTP/2 с мультиплексированием в одном соединении),
+ * число одновременных запросов ограничено {@code maxConcurrency}. Пакетные операции ({@link #createItems(List)},
+ * {@link #getItems(List)}) отправляют все запросы сразу и укладываются примерно в одно время ответа,
+ * а не в N последовательных.
+ * <p>
+ * Чтения объявлений, списков продавца и статистики могут кэшироваться ({@link ClientCacheConfig}); кэш включается
+ * только явной конфигурацией в конструкторе, например {@link ClientCacheConfig#fromSystemProperties()}. Значения из кэша - общие экземпляры, их нельзя изменять;
+ * statistics внутри закэшированного объявления может отставать на TTL объявления.
+ * <p>
+ * Вызовы проходят через {@link ResilienceLayer} (адаптивный лимит, повторы в пределах бюджета, автомат защиты
+ * на ручку); -Davito.resilience.enabled=false - прямые вызовы с таймаутом 30 с.
+ */
+public class AvitoApiClient implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SELLER_GENERATION_STRIPES = 1024;
+
+    private final String baseUrl;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SellerItemsParser sellerItemsParser = new SellerItemsParser(mapper);
+    private final Semaphore permits;
+    private final HttpClient httpClient;
+    private final ClientCacheConfig cacheConfig;
+    private final WTinyLfuCache<String, Object> cache;
+    // Поколения списков продавцов по полосам ключей: совпадение полосы у разных продавцов лишь пропускает запись в кэш
+    private final AtomicLongArray sellerGenerations = new AtomicLongArray(SELLER_GENERATION_STRIPES);
+    private final ResilienceLayer resilience;
+    private final Duration requestTimeout;
+
+    public AvitoApiClient() {
+        this(AvitoApiConfig.getBaseUrl());
+    }
+
+    public AvitoApiClient(String baseUrl) {
+        this(baseUrl, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Клиент без кэша: им пользуются инструменты замеров, которым нужны ответы стенда, а не кэша.
+     */
+    public AvitoApiClient(String baseUrl, int maxConcurrency) {
+        this(baseUrl, maxConcurrency, null);
+    }
+
+    public AvitoApiClient(String baseUrl, int maxConcurrency, ClientCacheConfig cacheConfig) {
+        this(baseUrl, maxConcurrency, cacheConfig, ResilienceConfig.fromSystemProperties(maxConcurrency));
+    }
+
+    /**
+     * @param cacheConfig      настройки кэша чтений или null - без кэша
+     * @param resilienceConfig настройки защиты вызовов или null - без лимита, повторов и автоматов защиты
+     */
+    public AvitoApiClient(String baseUrl, int maxConcurrency, ClientCacheConfig cacheConfig,
+                          ResilienceConfig resilienceConfig) {
+        this.baseUrl = baseUrl;
+        this.resilience = resilienceConfig == null ? null : new ResilienceLayer(resilienceConfig);
+        this.requestTimeout = resilienceConfig == null ? REQUEST_TIMEOUT : resilienceConfig.attemptTimeout();
+        this.cacheConfig = cacheConfig;
+        this.cache = cacheConfig == null ? null : new WTinyLfuCache<>(cacheConfig.maximumSize(),
+                cacheConfig.maximumWeight(), value -> value instanceof List<?> list ? list.size() + 1 : 1);
+        this.permits = new Semaphore(maxConcurrency);
+        this.httpClient = HttpClient.newBuilder()
+                // Для plain http не пытаемся делать h2c upgrade - заглушка и большинство стендов его не поддерживают
+                .version(baseUrl.startsWith("https") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Попадания и промахи кэша или null, если кэш выключен.
+     */
+    public WTinyLfuCache.CacheStats getCacheStats() {
+        return cache == null ? null : cache.stats();
+    }
+
+    /**
+     * Слой защиты вызовов или null, если он выключен.
+     */
+    public ResilienceLayer getResilience() {
+        return resilience;
+    }
+
+    // POST /api/1/item
+
+    public String createItem(Item item) {
+        return await(createItemAsync(item));
+    }
+
+    /**
+     * Создаёт объявление и возвращает его ID, извлечённый из сообщения о статусе.
+     */
+    public CompletableFuture<String> createItemAsync(Item item) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(item);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new AvitoApiException("Не удалось сериализовать объявление", e));
+        }
+        HttpRequest request = newRequest(AvitoApiConfig.getItemEndpoint())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        String sellerKey = sellerItemsKey(item.getSellerId());
+        return send(request).whenComplete((response, error) -> sellerItemsChanged(sellerKey)).thenApply(response -> {
+            String status = readTree(response).path("status").asText();
+            String id = UuidCodec.extract(status);
+            if (id == null) {
+                throw new AvitoApiException("Не удалось извлечь ID объявления из сообщения о статусе",
+                        response.statusCode(), status);
+            }
+            return id;
+        });
+    }
+
+    public List<String> createItems(List<Item> items) {
+        return await(createItemsAsync(items));
+    }
+
+    /**
+     * Создаёт объявления параллельно (в пределах maxConcurrency); ID возвращаются в порядке входного списка.
+     */
+    public CompletableFuture<List<String>> createItemsAsync(List<Item> items) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(items.size());
+        for (Item item : items) {
+            futures.add(createItemAsync(item));
+        }
+        return allOf(futures);
+    }
+
+    // GET /api/1/item/{id}
+
+    public ItemResponse getItem(String id) {
+        return await(getItemAsync(id));
+    }
+
+    public CompletableFuture<ItemResponse> getItemAsync(String id) {
+        String cacheKey = "item/" + id;
+        ItemResponse cached = cached(cacheKey, AvitoApiConfig.ITEM_BY_ID_ENDPOINT);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        HttpRequest request = newRequest(AvitoApiConfig.getItemEndpoint() + "/" + encode(id)).GET().build();
+        return send(request).thenApply(response -> cache(cacheKey,
+                first(readList(response, new TypeReference<List<ItemResponse>>() {
+                }), response), cacheConfig == null ? null : cacheConfig.itemTtl()));
+    }
+
+    public List<ItemResponse> getItems(List<String> ids) {
+        return await(getItemsAsync(ids));
+    }
+
+    public CompletableFuture<List<ItemResponse>> getItemsAsync(List<String> ids) {
+        List<CompletableFuture<ItemResponse>> futures = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            futures.add(getItemAsync(id));
+        }
+        return allOf(futures);
+    }
+
+    // GET /api/1/{sellerId}/item
+
+    public List<ItemResponse> getSellerItems(int sellerId) {
+        return await(getSellerItemsAsync(sellerId));
+    }
+
+    public CompletableFuture<List<ItemResponse>> getSellerItemsAsync(int sellerId) {
+        String cacheKey = sellerItemsKey(sellerId);
+        List<ItemResponse> cached = cached(cacheKey, AvitoApiConfig.SELLER_ITEM_ENDPOINT);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        int stripe = sellerStripe(cacheKey);
+        long generation = sellerGenerations.get(stripe);
+        HttpRequest request = newRequest(AvitoApiConfig.getSellerItemEndpoint()
+                .replace("{sellerId}", String.valueOf(sellerId))).GET().build();
+        return send(request).thenApply(response -> {
+            List<ItemResponse> items = readList(response, new TypeReference<List<ItemResponse>>() {
+            });
+            return cache == null ? items
+                    : cacheSellerItems(cacheKey, List.copyOf(items), stripe, generation);
+        });
+    }
+
+    /**
+     * Потоковое чтение списка объявлений продавца: каждое объявление передаётся в consumer по мере разбора,
+     * параллельно считаются агрегаты {@link SellerItemsSummary}. Подходит для продавцов со 100k+ объявлений,
+     * где дерево GPath/Jackson целиком не помещается в разумный heap. Кэш не используется.
+     */
+    public SellerItemsSummary streamSellerItems(int sellerId, Consumer<? super ItemResponse> consumer) {
+        HttpRequest request = newRequest(AvitoApiConfig.getSellerItemEndpoint()
+                .replace("{sellerId}", String.valueOf(sellerId))).GET().build();
+        if (resilience == null) {
+            return streamSellerItemsOnce(request, sellerId, consumer);
+        }
+        // Часть объявлений уже передана consumer, поэтому без повторов
+        return resilience.call(request.method(), AvitoApiConfig.SELLER_ITEM_ENDPOINT, RetryMode.NEVER,
+                () -> streamSellerItemsOnce(request, sellerId, consumer));
+    }
+
+    private SellerItemsSummary streamSellerItemsOnce(HttpRequest request, int sellerId,
+                                                     Consumer<? super ItemResponse> consumer) {
+        SellerItemsSummary summary = new SellerItemsSummary(sellerId);
+        acquirePermit(request);
+        RequestTimer timer = RequestTimer.start();
+        int status = -1;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new AvitoApiException(request.method() + " " + request.uri().getPath(),
+                            response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                sellerItemsParser.parse(body, item -> {
+                    summary.accept(item);
+                    consumer.accept(item);
+                });
+            }
+            return summary;
+        } catch (IOException e) {
+            throw new AvitoApiException("Ошибка запроса " + request.method() + " " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AvitoApiException("Запрос прерван: " + request.uri(), e);
+        } finally {
+            // Размер потокового ответа заранее неизвестен, время включает разбор всего тела
+            timer.stop(request.method(), AvitoApiConfig.SELLER_ITEM_ENDPOINT, status, 0, 0);
+            permits.release();
+        }
+    }
+
+    // GET /api/1/statistic/{id}
+
+    public Statistics getStatistic(String id) {
+        return await(getStatisticAsync(id));
+    }
+
+    public CompletableFuture<Statistics> getStatisticAsync(String id) {
+        String cacheKey = "statistic/" + id;
+        Statistics cached = cached(cacheKey, AvitoApiConfig.STATISTIC_ENDPOINT);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        HttpRequest request = newRequest(AvitoApiConfig.getStatisticEndpoint().replace("{id}", encode(id))).GET().build();
+        return send(request).thenApply(response -> cache(cacheKey,
+                first(readList(response, new TypeReference<List<Statistics>>() {
+                }), response), cacheConfig == null ? null : cacheConfig.statisticTtl()));
+    }
+
+    @Override
+    public void close() {
+        if (resilience != null) {
+            resilience.close();
+        }
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, String endpoint) {
+        if (cache == null) {
+            return null;
+        }
+        T value = (T) cache.get(key);
+        ApiMetrics.global().recordCacheLookup("GET", endpoint, value != null);
+        return value;
+    }
+
+    private <T> T cache(String key, T value, Duration ttl) {
+        if (cache != null) {
+            cache.put(key, value, ttl);
+        }
+        return value;
+    }
+
+    /**
+     * Кладёт список продавца в кэш, только если с начала чтения продавцу не создавали объявлений. Проверка
+     * повторяется после записи: создание, завершившееся между проверкой и записью, увеличивает поколение
+     * до сброса ключа, поэтому устаревший список удаляет либо оно само, либо эта повторная проверка.
+     */
+    private List<ItemResponse> cacheSellerItems(String key, List<ItemResponse> items, int stripe, long generation) {
+        if (sellerGenerations.get(stripe) != generation) {
+            return items;
+        }
+        cache.put(key, items, cacheConfig.sellerItemsTtl());
+        if (sellerGenerations.get(stripe) != generation) {
+            cache.invalidate(key);
+        }
+        return items;
+    }
+
+    /**
+     * Создание объявления (успешное или с неизвестным исходом): новое поколение списков продавца и сброс записи.
+     */
+    private void sellerItemsChanged(String key) {
+        if (cache != null) {
+            sellerGenerations.incrementAndGet(sellerStripe(key));
+            cache.invalidate(key);
+        }
+    }
+
+    private static int sellerStripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (SELLER_GENERATION_STRIPES - 1);
+    }
+
+    private static String sellerItemsKey(Integer sellerId) {
+        return "seller/" + sellerId;
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .timeout(requestTimeout);
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (resilience == null) {
+                return sendOnce(request);
+            }
+            // POST создаёт объявление: повтор только если стенд заведомо не обработал запрос
+            RetryMode retryMode = request.method().equals("POST") ? RetryMode.NOT_PROCESSED : RetryMode.ANY_FAILURE;
+            return resilience.call(request.method(), AvitoApiConfig.resolveEndpointTemplate(request.uri().getPath()),
+                    retryMode, () -> sendOnce(request));
+        }, executor);
+    }
+
+    /**
+     * Одна попытка с ограничением числа одновременных запросов: ожидание разрешения занимает только виртуальный поток.
+     */
+    private HttpResponse<byte[]> sendOnce(HttpRequest request) {
+        acquirePermit(request);
+        String endpoint = AvitoApiConfig.resolveEndpointTemplate(request.uri().getPath());
+        long requestBytes = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+        RequestTimer timer = RequestTimer.start();
+        try {
+            HttpResponse<byte[]> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException | RuntimeException e) {
+                timer.stop(request.method(), endpoint, -1, requestBytes, 0);
+                throw e;
+            }
+            timer.stop(request.method(), endpoint, response.statusCode(), requestBytes, response.body().length);
+            if (response.statusCode() / 100 != 2) {
+                throw new AvitoApiException(request.method() + " " + request.uri().getPath(),
+                        response.statusCode(), new String(response.body(), StandardCharsets.UTF_8));
+            }
+            return response;
+        } catch (IOException e) {
+            throw new AvitoApiException("Ошибка запроса " + request.method() + " " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AvitoApiException("Запрос прерван: " + request.uri(), e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit(HttpRequest request) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AvitoApiException("Запрос прерван: " + request.uri(), e);
+        }
+    }
+
+    private JsonNode readTree(HttpResponse<byte[]> response) {
+        try {
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new AvitoApiException("Некорректный JSON в ответе " + response.uri().getPath(), e);
+        }
+    }
+
+    private <T> List<T> readList(HttpResponse<byte[]> response, TypeReference<List<T>> type) {
+        try {
+            return mapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new AvitoApiException("Некорректный JSON в ответе " + response.uri().getPath(), e);
+        }
+    }
+
+    private static <T> T first(List<T> values, HttpResponse<byte[]> response) {
+        if (values == null || values.isEmpty()) {
+            throw new AvitoApiException("Пустой массив в ответе " + response.uri().getPath(),
+                    response.statusCode(), new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return values.get(0);
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    private static String encode(String pathSegment) {
+        return URLEncoder.encode(pathSegment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
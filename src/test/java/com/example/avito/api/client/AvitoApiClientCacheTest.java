@@ -0,0 +1,43 @@
+package com.example.avito.api.client;
+
+import com.example.avito.api.cache.ClientCacheConfig;
+import com.example.avito.api.models.Item;
+import com.example.avito.api.models.ItemResponse;
+import com.example.avito.api.stub.AvitoStubServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AvitoApiClientCacheTest {
+
+    @Test
+    @DisplayName("Клиент без явной конфигурации кэша не кэширует")
+    void testCacheIsOptIn() {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             AvitoApiClient client = new AvitoApiClient(stub.getBaseUrl(), 4)) {
+            assertNull(client.getCacheStats());
+        }
+    }
+
+    @Test
+    @DisplayName("Список продавца из кэша сбрасывается созданием объявления этим клиентом")
+    void testCreateInvalidatesSellerItems() {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             AvitoApiClient client = new AvitoApiClient(stub.getBaseUrl(), 4, ClientCacheConfig.defaults())) {
+            int sellerId = 345_678;
+            client.createItem(new Item(sellerId, "first", 10));
+            List<ItemResponse> first = client.getSellerItems(sellerId);
+            assertEquals(1, first.size());
+            assertSame(first, client.getSellerItems(sellerId));
+
+            client.createItem(new Item(sellerId, "second", 20));
+            assertEquals(2, client.getSellerItems(sellerId).size());
+            assertEquals(1, client.getCacheStats().hits());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.avito.api.client;
+
+/**
+ * Ответ API с неуспешным кодом или неожиданным телом.
+ */
+public class AvitoApiException extends RuntimeException {
+
+    private final int statusCode;
+    private final String responseBody;
+
+    public AvitoApiException(String message, int statusCode, String responseBody) {
+        super(message + " (HTTP " + statusCode + "): " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * Запрос не отправлен (например, отклонён автоматом защиты).
+     */
+    public AvitoApiException(String message) {
+        super(message);
+        this.statusCode = -1;
+        this.responseBody = null;
+    }
+
+    public AvitoApiException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = -1;
+        this.responseBody = null;
+    }
+
+    /**
+     * HTTP-код ответа или -1, если ответа не было (транспортная ошибка).
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
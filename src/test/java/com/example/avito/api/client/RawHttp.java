@@ -0,0 +1,44 @@
+package com.example.avito.api.client;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Сырые HTTP-запросы к стенду в обход {@link AvitoApiClient} - для инструментов, которым нужен ответ как есть
+ * (сравнение стендов, фаззер, воспроизведение трафика): без разбора тела, кэша и повторов.
+ */
+public final class RawHttp {
+
+    public static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private RawHttp() {
+    }
+
+    /**
+     * HttpClient для стенда: HTTP/2 по https, HTTP/1.1 по plain http.
+     */
+    public static HttpClient newClient(String baseUrl) {
+        return HttpClient.newBuilder()
+                .version(baseUrl.startsWith("https") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Запрос с JSON-телом или без тела, если body null. Пустое тело отправляется с Content-Type, как любое другое.
+     */
+    public static HttpRequest request(String baseUrl, String method, String path, byte[] body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .timeout(REQUEST_TIMEOUT);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return request.build();
+    }
+}
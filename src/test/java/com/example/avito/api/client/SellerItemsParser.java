@@ -0,0 +1,44 @@
+package com.example.avito.api.client;
+
+import com.example.avito.api.models.ItemResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Потоковый разбор ответа GET /api/1/{sellerId}/item: объявления читаются из массива по одному через
+ * {@link JsonParser}, и в памяти одновременно находится только текущее, а не всё дерево ответа.
+ */
+public class SellerItemsParser {
+
+    private final ObjectReader itemReader;
+
+    public SellerItemsParser(ObjectMapper mapper) {
+        this.itemReader = mapper.readerFor(ItemResponse.class);
+    }
+
+    /**
+     * Передаёт каждое объявление из массива в consumer и возвращает их количество.
+     */
+    public long parse(InputStream body, Consumer<? super ItemResponse> consumer) throws IOException {
+        try (JsonParser parser = itemReader.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Ожидался JSON-массив объявлений, получено: " + parser.currentToken());
+            }
+            long count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(itemReader.readValue(parser));
+                count++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Неожиданный элемент массива объявлений: " + parser.currentToken());
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.avito.api.client;
+
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.ids.UuidSet;
+import com.example.avito.api.models.ItemResponse;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Инкрементальные агрегаты по списку объявлений продавца: количество, min/max цены, число объявлений
+ * без обязательных полей, с чужим sellerId и с повторяющимся ID. Заполняется по одному объявлению
+ * из {@link SellerItemsParser}, поэтому не требует материализации всего ответа.
+ */
+public class SellerItemsSummary implements Consumer<ItemResponse> {
+
+    private final int expectedSellerId;
+    // ID API - UUID, поэтому повторы ищутся по двум long без хранения строк; прочие ID - в обычном HashSet
+    private final UuidSet seenIds = new UuidSet(64);
+    private Set<String> seenOtherIds;
+    private long count;
+    private long minPrice = Long.MAX_VALUE;
+    private long maxPrice = Long.MIN_VALUE;
+    private long missingFields;
+    private long foreignSellerItems;
+    private long duplicateIds;
+
+    public SellerItemsSummary(int expectedSellerId) {
+        this.expectedSellerId = expectedSellerId;
+    }
+
+    @Override
+    public void accept(ItemResponse item) {
+        count++;
+        if (item.getId() == null || item.getName() == null || item.getPrice() == null || item.getSellerId() == null) {
+            missingFields++;
+        }
+        if (item.getSellerId() == null || item.getSellerId() != expectedSellerId) {
+            foreignSellerItems++;
+        }
+        if (item.getPrice() != null) {
+            minPrice = Math.min(minPrice, item.getPrice());
+            maxPrice = Math.max(maxPrice, item.getPrice());
+        }
+        if (item.getId() != null && !markSeen(item.getId())) {
+            duplicateIds++;
+        }
+    }
+
+    private boolean markSeen(String id) {
+        if (UuidCodec.isUuid(id)) {
+            return seenIds.add(UuidCodec.high(id, 0), UuidCodec.low(id, 0));
+        }
+        if (seenOtherIds == null) {
+            seenOtherIds = new HashSet<>();
+        }
+        return seenOtherIds.add(id);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMinPrice() {
+        return count == 0 ? 0 : minPrice;
+    }
+
+    public long getMaxPrice() {
+        return count == 0 ? 0 : maxPrice;
+    }
+
+    public long getMissingFields() {
+        return missingFields;
+    }
+
+    public long getForeignSellerItems() {
+        return foreignSellerItems;
+    }
+
+    public long getDuplicateIds() {
+        return duplicateIds;
+    }
+
+    @Override
+    public String toString() {
+        return "SellerItemsSummary{sellerId=" + expectedSellerId + ", count=" + count
+                + ", minPrice=" + getMinPrice() + ", maxPrice=" + getMaxPrice()
+                + ", missingFields=" + missingFields + ", foreignSellerItems=" + foreignSellerItems
+                + ", duplicateIds=" + duplicateIds + '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.avito.api.consistency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пауза между опросами одной ручки. Первая пауза подстраивается под уже наблюдённую задержку видимости
+ * (EWMA): если данные обычно появляются через 2 мс, опрашиваем часто; если через секунду - не долбим сервер.
+ * Дальше пауза растёт экспоненциально с джиттером до maxDelay.
+ */
+class AdaptiveBackoff {
+
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final double MULTIPLIER = 1.5;
+    private static final long MIN_DELAY_NANOS = 1_000_000;
+
+    private final long maxDelayNanos;
+    // Сглаженная задержка видимости в наносекундах, хранится битами double
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    AdaptiveBackoff(long maxDelayNanos) {
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    long firstDelayNanos() {
+        long expected = (long) (Double.longBitsToDouble(ewmaBits.get()) / 8);
+        return jitter(Math.min(maxDelayNanos, Math.max(MIN_DELAY_NANOS, expected)));
+    }
+
+    long nextDelayNanos(long previousDelayNanos) {
+        return jitter(Math.min(maxDelayNanos, (long) (previousDelayNanos * MULTIPLIER)));
+    }
+
+    void observe(long lagNanos) {
+        long current;
+        long updated;
+        do {
+            current = ewmaBits.get();
+            double ewma = Double.longBitsToDouble(current);
+            double next = ewma == 0 ? lagNanos : ewma + EWMA_WEIGHT * (lagNanos - ewma);
+            updated = Double.doubleToLongBits(next);
+        } while (!ewmaBits.compareAndSet(current, updated));
+    }
+
+    private static long jitter(long delayNanos) {
+        // +-25%, чтобы опросы разных объявлений не шли синхронными волнами
+        return delayNanos + ThreadLocalRandom.current().nextLong(-delayNanos / 4, delayNanos / 4 + 1);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.avito.api.consistency;
+
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.client.AvitoApiException;
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.models.Item;
+import com.example.avito.api.models.ItemResponse;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Замер read-after-write видимости: объявления создаются параллельно, после ответа на POST каждое
+ * опрашивается через GET /api/1/item/{id}, список продавца и GET /api/1/statistic/{id} с адаптивной паузой.
+ * Для каждой ручки строится распределение времени от ответа на создание до первого успешного опроса
+ * (точность - пауза между опросами).
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.consistency.ConsistencyProbe -Davito.probe.items=500}
+ */
+public class ConsistencyProbe {
+
+    public enum Target {
+        ITEM,
+        SELLER_ITEMS,
+        STATISTIC
+    }
+
+    private final AvitoApiClient client;
+    private final int items;
+    private final int concurrency;
+    private final Duration timeout;
+    private final Map<Target, TargetStats> stats = new EnumMap<>(Target.class);
+    private final LongAdder failedCreates = new LongAdder();
+
+    public ConsistencyProbe(AvitoApiClient client, int items, int concurrency, Duration timeout, Duration maxBackoff) {
+        this.client = client;
+        this.items = items;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        for (Target target : Target.values()) {
+            stats.put(target, new TargetStats(new AdaptiveBackoff(maxBackoff.toNanos())));
+        }
+    }
+
+    public void run() throws InterruptedException {
+        Semaphore inProgress = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < items; i++) {
+                inProgress.acquire();
+                executor.execute(() -> {
+                    try {
+                        probeItem(executor);
+                    } finally {
+                        inProgress.release();
+                    }
+                });
+            }
+            // Опросчики запускаются из задач объявлений, поэтому executor закрываем только после всех объявлений
+            inProgress.acquire(concurrency);
+        }
+    }
+
+    private void probeItem(ExecutorService executor) {
+        int sellerId = ItemFixtures.uniqueSellerId();
+        Item item = new Item(sellerId, "consistency-probe", ThreadLocalRandom.current().nextInt(1, 100_000));
+        String id;
+        try {
+            id = client.createItem(item);
+        } catch (AvitoApiException e) {
+            failedCreates.increment();
+            return;
+        }
+        long createdAt = System.nanoTime();
+
+        Map<Target, Future<?>> pollers = new EnumMap<>(Target.class);
+        for (Target target : Target.values()) {
+            pollers.put(target, executor.submit(() -> poll(target, id, sellerId, createdAt)));
+        }
+        for (Future<?> poller : pollers.values()) {
+            try {
+                poller.get();
+            } catch (Exception e) {
+                // Ошибки опроса уже учтены в статистике ручки
+            }
+        }
+    }
+
+    private void poll(Target target, String id, int sellerId, long createdAt) {
+        TargetStats targetStats = stats.get(target);
+        long deadline = createdAt + timeout.toNanos();
+        long delay = targetStats.backoff.firstDelayNanos();
+        while (true) {
+            long pollStart = System.nanoTime();
+            targetStats.polls.increment();
+            if (isVisible(target, id, sellerId, targetStats)) {
+                long lag = pollStart - createdAt;
+                targetStats.lag.record(lag);
+                targetStats.backoff.observe(lag);
+                return;
+            }
+            if (pollStart + delay > deadline) {
+                targetStats.timeouts.increment();
+                return;
+            }
+            LockSupport.parkNanos(delay);
+            delay = targetStats.backoff.nextDelayNanos(delay);
+        }
+    }
+
+    private boolean isVisible(Target target, String id, int sellerId, TargetStats targetStats) {
+        try {
+            return switch (target) {
+                case ITEM -> id.equals(client.getItem(id).getId());
+                case STATISTIC -> client.getStatistic(id) != null;
+                case SELLER_ITEMS -> {
+                    for (ItemResponse sellerItem : client.getSellerItems(sellerId)) {
+                        if (id.equals(sellerItem.getId())) {
+                            yield true;
+                        }
+                    }
+                    yield false;
+                }
+            };
+        } catch (AvitoApiException e) {
+            if (e.getStatusCode() != 404) {
+                targetStats.errors.increment();
+            }
+            return false;
+        }
+    }
+
+    public LatencyHistogram getLag(Target target) {
+        return stats.get(target).lag;
+    }
+
+    public long getTimeouts(Target target) {
+        return stats.get(target).timeouts.sum();
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Объявлений: %d, не удалось создать: %d%n", items, failedCreates.sum()));
+        for (Target target : Target.values()) {
+            TargetStats targetStats = stats.get(target);
+            long visible = targetStats.lag.getTotalCount();
+            report.append(String.format("%-12s видимо: %d, не дождались: %d, ошибок: %d, опросов на объявление: %.1f%n",
+                    target, visible, targetStats.timeouts.sum(), targetStats.errors.sum(),
+                    items == 0 ? 0 : (double) targetStats.polls.sum() / items));
+            report.append("             время до видимости: ").append(targetStats.lag.formatSummary())
+                    .append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        try (AvitoApiClient client = new AvitoApiClient()) {
+            ConsistencyProbe probe = new ConsistencyProbe(client,
+                    Integer.getInteger("avito.probe.items", 200),
+                    Integer.getInteger("avito.probe.concurrency", 32),
+                    Duration.ofSeconds(Long.getLong("avito.probe.timeout", 30)),
+                    Duration.ofMillis(Long.getLong("avito.probe.maxBackoffMs", 500)));
+            System.out.println("Замер видимости записи на " + client.getBaseUrl());
+            long start = System.nanoTime();
+            probe.run();
+            System.out.printf("Завершено за %.1fs%n", (System.nanoTime() - start) / 1e9);
+            System.out.println(probe.format());
+        }
+        System.exit(0);
+    }
+
+    private static final class TargetStats {
+        private final LatencyHistogram lag = new LatencyHistogram();
+        private final LongAdder polls = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AdaptiveBackoff backoff;
+
+        private TargetStats(AdaptiveBackoff backoff) {
+            this.backoff = backoff;
+        }
+    }
+}
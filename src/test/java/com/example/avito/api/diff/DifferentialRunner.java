@@ -0,0 +1,299 @@
+package com.example.avito.api.diff;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.RawHttp;
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.replay.ResponseNormalizer;
+import com.example.avito.api.stub.AvitoStubServer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Дифференциальный прогон двух стендов: одна и та же сгенерированная нагрузка (создание объявления, чтение его,
+ * списка продавца, статистики и изредка несуществующего объявления) отправляется на оба стенда одновременно,
+ * ответы сравниваются по коду и по телу после {@link ResponseNormalizer}. Каждое расхождение сразу пишется
+ * строкой JSON в {@code avito.diff.output}, в конце - сводка по ручкам с временем ответа обоих стендов рядом.
+ * <p>
+ * Левый стенд - {@code avito.diff.left} (по умолчанию {@link AvitoApiConfig#getBaseUrl()}), правый -
+ * {@code avito.diff.right}; с {@code -Davito.stub=true} без правого адреса поднимается вторая заглушка.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.diff.DifferentialRunner -Davito.diff.right=http://host:port}
+ */
+public class DifferentialRunner implements AutoCloseable {
+
+    private static final int MAX_DIFFERENCES = 10;
+    private static final int MAX_PRINTED_DIFFS = 20;
+    // Каждая MISSING_ITEM_PERIOD-я итерация дополнительно читает несуществующее объявление - сравнение ответов 404
+    private static final int MISSING_ITEM_PERIOD = 10;
+
+    private final Side left;
+    private final Side right;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final BufferedWriter output;
+    private final AtomicInteger diffCount = new AtomicInteger();
+
+    public DifferentialRunner(String leftBaseUrl, String rightBaseUrl, Path outputFile) {
+        this.left = new Side(leftBaseUrl);
+        this.right = new Side(rightBaseUrl);
+        try {
+            Files.createDirectories(outputFile.toAbsolutePath().getParent());
+            this.output = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть " + outputFile, e);
+        }
+    }
+
+    public void run(int iterations, int concurrency) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < iterations; i++) {
+                inFlight.acquire();
+                boolean readMissing = i % MISSING_ITEM_PERIOD == 0;
+                executor.execute(() -> {
+                    try {
+                        iteration(readMissing);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void iteration(boolean readMissing) {
+        int sellerId = ItemFixtures.uniqueSellerId();
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(ItemFixtures.newItem(sellerId));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        Pair created = sendBoth("POST", AvitoApiConfig.ITEM_ENDPOINT,
+                AvitoApiConfig.ITEM_ENDPOINT, AvitoApiConfig.ITEM_ENDPOINT, body);
+        String leftId = created.left.id();
+        String rightId = created.right.id();
+        if (leftId != null && rightId != null) {
+            sendBoth("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT,
+                    "/api/1/item/" + leftId, "/api/1/item/" + rightId, null);
+            sendBoth("GET", AvitoApiConfig.STATISTIC_ENDPOINT,
+                    "/api/1/statistic/" + leftId, "/api/1/statistic/" + rightId, null);
+        }
+        String sellerPath = "/api/1/" + sellerId + "/item";
+        sendBoth("GET", AvitoApiConfig.SELLER_ITEM_ENDPOINT, sellerPath, sellerPath, null);
+        if (readMissing) {
+            String missingPath = "/api/1/item/" + UUID.randomUUID();
+            sendBoth("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT, missingPath, missingPath, null);
+        }
+    }
+
+    /**
+     * Отправляет запрос на оба стенда одновременно, учитывает время ответа и сравнивает ответы.
+     */
+    private Pair sendBoth(String method, String endpoint, String leftPath, String rightPath, byte[] body) {
+        CompletableFuture<Outcome> leftOutcome = left.send(method, leftPath, body);
+        CompletableFuture<Outcome> rightOutcome = right.send(method, rightPath, body);
+        Pair pair = new Pair(leftOutcome.join(), rightOutcome.join());
+        EndpointStats endpointStats = stats.computeIfAbsent(method + " " + endpoint, key -> new EndpointStats());
+        endpointStats.compared.increment();
+        pair.left.recordLatency(endpointStats.leftLatency);
+        pair.right.recordLatency(endpointStats.rightLatency);
+        compare(method, leftPath, rightPath, pair, endpointStats);
+        return pair;
+    }
+
+    private void compare(String method, String leftPath, String rightPath, Pair pair, EndpointStats endpointStats) {
+        Outcome l = pair.left;
+        Outcome r = pair.right;
+        if (l.error() != null || r.error() != null) {
+            endpointStats.transportErrors.increment();
+            report(method, leftPath, rightPath, "transport", l, r,
+                    List.of(String.valueOf(l.error()) + " -> " + r.error()));
+            return;
+        }
+        if (l.status() != r.status()) {
+            endpointStats.statusMismatches.increment();
+            report(method, leftPath, rightPath, "status", l, r, List.of("код " + l.status() + " -> " + r.status()));
+            return;
+        }
+        JsonNode leftBody = ResponseNormalizer.normalize(l.body());
+        JsonNode rightBody = ResponseNormalizer.normalize(r.body());
+        List<String> differences;
+        if (leftBody != null && rightBody != null) {
+            differences = JsonDiff.diff(leftBody, rightBody, MAX_DIFFERENCES);
+        } else if (!Arrays.equals(l.body(), r.body())) {
+            differences = List.of(text(l.body()) + " -> " + text(r.body()));
+        } else {
+            differences = List.of();
+        }
+        if (!differences.isEmpty()) {
+            endpointStats.bodyMismatches.increment();
+            report(method, leftPath, rightPath, "body", l, r, differences);
+        }
+    }
+
+    private void report(String method, String leftPath, String rightPath, String kind, Outcome l, Outcome r,
+                        List<String> differences) {
+        ObjectNode line = mapper.createObjectNode()
+                .put("method", method)
+                .put("leftPath", leftPath)
+                .put("rightPath", rightPath)
+                .put("kind", kind)
+                .put("leftStatus", l.status())
+                .put("rightStatus", r.status());
+        differences.forEach(line.putArray("differences")::add);
+        try {
+            String json = mapper.writeValueAsString(line);
+            synchronized (output) {
+                output.write(json);
+                output.newLine();
+                output.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (diffCount.incrementAndGet() <= MAX_PRINTED_DIFFS) {
+            System.out.println("  " + method + " " + leftPath + " | " + rightPath + ": " + String.join("; ", differences));
+        }
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Слева: %s, справа: %s, расхождений: %d%n", left.baseUrl, right.baseUrl,
+                diffCount.get()));
+        stats.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            EndpointStats endpointStats = entry.getValue();
+            report.append(String.format("%s%n  сравнено: %d, другой код: %d, другое тело: %d, ошибок транспорта: %d%n",
+                    entry.getKey(), endpointStats.compared.sum(), endpointStats.statusMismatches.sum(),
+                    endpointStats.bodyMismatches.sum(), endpointStats.transportErrors.sum()));
+            report.append(String.format("  %-6s %10s %10s %8s%n", "", "слева", "справа", "справа/слева"));
+            for (double percentile : new double[]{50, 90, 99, 99.9}) {
+                long l = endpointStats.leftLatency.getValueAtPercentile(percentile);
+                long r = endpointStats.rightLatency.getValueAtPercentile(percentile);
+                report.append(String.format("  p%-5s %8.1fms %8.1fms %8.2f%n", formatPercentile(percentile),
+                        l / 1e6, r / 1e6, l == 0 ? 0 : (double) r / l));
+            }
+        });
+        return report.toString();
+    }
+
+    public int getDiffCount() {
+        return diffCount.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static String text(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String leftUrl = System.getProperty("avito.diff.left", AvitoApiConfig.getBaseUrl());
+        String rightUrl = System.getProperty("avito.diff.right");
+        AvitoStubServer secondStub = null;
+        if (rightUrl == null || rightUrl.isBlank()) {
+            if (!Boolean.getBoolean(AvitoApiConfig.STUB_PROPERTY)) {
+                throw new IllegalArgumentException("Не задан второй стенд: -Davito.diff.right=http://host:port");
+            }
+            secondStub = AvitoStubServer.start(0);
+            rightUrl = secondStub.getBaseUrl();
+        }
+        int iterations = Integer.getInteger("avito.diff.iterations", 500);
+        Path outputFile = Path.of(System.getProperty("avito.diff.output", "target/diff.jsonl"));
+        try (DifferentialRunner runner = new DifferentialRunner(leftUrl, rightUrl, outputFile)) {
+            System.out.println("Сравнение " + leftUrl + " и " + rightUrl + ", расхождения - в " + outputFile);
+            long start = System.nanoTime();
+            runner.run(iterations, Integer.getInteger("avito.diff.concurrency", 16));
+            System.out.printf("Завершено за %.1fs%n", (System.nanoTime() - start) / 1e9);
+            System.out.println(runner.format());
+        } finally {
+            if (secondStub != null) {
+                secondStub.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private record Pair(Outcome left, Outcome right) {
+    }
+
+    /**
+     * Ответ одного стенда: код и тело либо ошибка транспорта (status = -1).
+     */
+    private record Outcome(int status, byte[] body, long latencyNanos, String error) {
+
+        String id() {
+            return status == 200 ? UuidCodec.extract(text(body)) : null;
+        }
+
+        void recordLatency(LatencyHistogram histogram) {
+            if (error == null) {
+                histogram.record(latencyNanos);
+            }
+        }
+    }
+
+    private static final class Side {
+        private final String baseUrl;
+        private final HttpClient httpClient;
+
+        private Side(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.httpClient = RawHttp.newClient(baseUrl);
+        }
+
+        private CompletableFuture<Outcome> send(String method, String path, byte[] body) {
+            long start = System.nanoTime();
+            return httpClient.sendAsync(RawHttp.request(baseUrl, method, path, body),
+                            HttpResponse.BodyHandlers.ofByteArray())
+                    .handle((response, error) -> error == null
+                            ? new Outcome(response.statusCode(), response.body(), System.nanoTime() - start, null)
+                            : new Outcome(-1, new byte[0], System.nanoTime() - start, error.toString()));
+        }
+    }
+
+    private static final class EndpointStats {
+        private final LatencyHistogram leftLatency = new LatencyHistogram();
+        private final LatencyHistogram rightLatency = new LatencyHistogram();
+        private final LongAdder compared = new LongAdder();
+        private final LongAdder statusMismatches = new LongAdder();
+        private final LongAdder bodyMismatches = new LongAdder();
+        private final LongAdder transportErrors = new LongAdder();
+    }
+}
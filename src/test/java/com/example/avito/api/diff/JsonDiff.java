@@ -0,0 +1,69 @@
+package com.example.avito.api.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поэлементное сравнение двух JSON-деревьев: список путей, где они расходятся, вида
+ * {@code $.result.message: "a" -> "b"}. Ожидает деревья после
+ * {@link com.example.avito.api.replay.ResponseNormalizer}, поэтому массивы сравниваются по индексу.
+ */
+public final class JsonDiff {
+
+    private JsonDiff() {
+    }
+
+    /**
+     * Не больше limit расхождений; пустой список - деревья совпадают.
+     */
+    public static List<String> diff(JsonNode left, JsonNode right, int limit) {
+        List<String> differences = new ArrayList<>();
+        diff("$", left, right, differences, limit);
+        return differences;
+    }
+
+    private static void diff(String path, JsonNode left, JsonNode right, List<String> out, int limit) {
+        if (out.size() >= limit || left.equals(right)) {
+            return;
+        }
+        if (left.isObject() && right.isObject()) {
+            Set<String> names = new LinkedHashSet<>();
+            left.fieldNames().forEachRemaining(names::add);
+            right.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                JsonNode leftValue = left.get(name);
+                JsonNode rightValue = right.get(name);
+                String fieldPath = path + "." + name;
+                if (leftValue == null) {
+                    add(out, limit, fieldPath + ": нет -> " + rightValue);
+                } else if (rightValue == null) {
+                    add(out, limit, fieldPath + ": " + leftValue + " -> нет");
+                } else {
+                    diff(fieldPath, leftValue, rightValue, out, limit);
+                }
+            }
+        } else if (left.isArray() && right.isArray()) {
+            if (left.size() != right.size()) {
+                add(out, limit, path + ": элементов " + left.size() + " -> " + right.size());
+            }
+            Iterator<JsonNode> leftElements = left.elements();
+            Iterator<JsonNode> rightElements = right.elements();
+            for (int i = 0; leftElements.hasNext() && rightElements.hasNext(); i++) {
+                diff(path + "[" + i + "]", leftElements.next(), rightElements.next(), out, limit);
+            }
+        } else {
+            add(out, limit, path + ": " + left + " -> " + right);
+        }
+    }
+
+    private static void add(List<String> out, int limit, String difference) {
+        if (out.size() < limit) {
+            out.add(difference);
+        }
+    }
+}
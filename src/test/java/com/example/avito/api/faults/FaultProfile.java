@@ -0,0 +1,29 @@
+package com.example.avito.api.faults;
+
+import java.util.List;
+
+/**
+ * Набор правил {@link FaultRule}: для запроса применяется первое подходящее, без совпадений запрос
+ * проксируется без изменений.
+ */
+public record FaultProfile(String name, List<FaultRule> rules) {
+
+    public static final FaultProfile NONE = new FaultProfile("none", List.of());
+
+    public FaultProfile {
+        rules = List.copyOf(rules);
+    }
+
+    public static FaultProfile of(String name, FaultRule... rules) {
+        return new FaultProfile(name, List.of(rules));
+    }
+
+    FaultRule match(String method, String endpoint) {
+        for (FaultRule rule : rules) {
+            if (rule.matches(method, endpoint)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
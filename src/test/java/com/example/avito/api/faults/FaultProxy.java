@@ -0,0 +1,752 @@
+package com.example.avito.api.faults;
+
+import com.example.avito.api.AvitoApiConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Встраиваемый HTTP/1.1-прокси с внесением неисправностей между клиентом (RestAssured, AvitoApiClient)
+ * и стендом по plain http (обычно {@link com.example.avito.api.stub.AvitoStubServer}).
+ * <p>
+ * Все соединения обслуживает один поток на {@link Selector}: задержки и ограничение полосы - таймеры цикла,
+ * а не спящие потоки, поэтому тысячи задержанных запросов не занимают тысячи потоков. Каждому клиентскому
+ * соединению соответствует своё keep-alive соединение со стендом. Профиль неисправностей {@link FaultProfile}
+ * можно менять на ходу из теста:
+ * <pre>{@code
+ * try (FaultProxy proxy = FaultProxy.start(AvitoStubServer.shared().getBaseUrl())) {
+ *     proxy.setProfile(FaultProfile.of("flaky", FaultRule.on("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT).withError(503, 0.2)));
+ *     RequestSpecification spec = new RequestSpecBuilder().setBaseUri(proxy.getBaseUrl())...
+ * }
+ * }</pre>
+ * Запросы с chunked-телом не поддерживаются (клиенты проекта всегда шлют Content-Length).
+ * <p>
+ * Ошибка разбора или таймера одного соединения не останавливает цикл: если стенду уже отправлен запрос,
+ * клиент получает 502, иначе соединение закрывается; такие случаи считает {@link #getInternalErrors()}.
+ */
+public class FaultProxy implements AutoCloseable {
+
+    private static final int READ_CHUNK = 16 * 1024;
+    private static final long PACING_INTERVAL_NANOS = 10_000_000;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final String PASS_THROUGH = "passthrough";
+
+    private final InetSocketAddress upstream;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread loop;
+    private final Map<String, Counters> stats = new ConcurrentHashMap<>();
+    private final LongAdder internalErrors = new LongAdder();
+    private volatile FaultProfile profile = FaultProfile.NONE;
+    private volatile boolean running = true;
+
+    // Состояние ниже используется только потоком цикла
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_CHUNK);
+    private final PriorityQueue<Timer> timers =
+            new PriorityQueue<>(Comparator.comparingLong(Timer::dueNanos).thenComparingLong(Timer::sequence));
+    private final SplittableRandom random;
+    private long timerSequence;
+
+    private FaultProxy(InetSocketAddress upstream, long seed) throws IOException {
+        this.upstream = upstream;
+        this.random = new SplittableRandom(seed);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        loop = new Thread(this::run, "fault-proxy");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    /**
+     * Запускает прокси на свободном порту loopback перед стендом upstreamBaseUrl (только http).
+     */
+    public static FaultProxy start(String upstreamBaseUrl) {
+        return start(upstreamBaseUrl, Long.getLong("avito.seed", System.nanoTime()));
+    }
+
+    /**
+     * Запуск с фиксированным seed: последовательность внесённых неисправностей воспроизводима.
+     */
+    public static FaultProxy start(String upstreamBaseUrl, long seed) {
+        URI uri = URI.create(upstreamBaseUrl);
+        if (!"http".equals(uri.getScheme())) {
+            throw new IllegalArgumentException("Прокси работает только с plain http стендом: " + upstreamBaseUrl);
+        }
+        try {
+            return new FaultProxy(new InetSocketAddress(uri.getHost(), uri.getPort() < 0 ? 80 : uri.getPort()), seed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить прокси", e);
+        }
+    }
+
+    public String getBaseUrl() {
+        try {
+            return "http://127.0.0.1:" + ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public FaultProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Новый профиль действует для запросов, прочитанных после вызова.
+     */
+    public void setProfile(FaultProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Счётчики по правилам (имя правила или "passthrough" для запросов без правила).
+     */
+    public Map<String, RuleStats> getStats() {
+        Map<String, RuleStats> snapshot = new TreeMap<>();
+        stats.forEach((name, counters) -> snapshot.put(name, counters.snapshot()));
+        return snapshot;
+    }
+
+    public void resetStats() {
+        stats.clear();
+    }
+
+    /**
+     * Сколько раз соединение было закрыто или получило 502 из-за ошибки в самом прокси (неразбираемый
+     * запрос или ответ стенда, исключение таймера, ошибка селектора).
+     */
+    public long getInternalErrors() {
+        return internalErrors.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(5000);
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param requests       запросов, подпавших под правило
+     * @param forwarded      передано стенду
+     * @param injectedErrors ответов-ошибок от прокси
+     * @param drops          оборванных соединений
+     * @param delayMillis    суммарная внесённая задержка
+     */
+    public record RuleStats(long requests, long forwarded, long injectedErrors, long drops, long delayMillis) {
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                long untilNextTimer = runDueTimers();
+                if (untilNextTimer < 0) {
+                    selector.select();
+                } else if (untilNextTimer < 1_000_000) {
+                    selector.selectNow();
+                } else {
+                    selector.select(untilNextTimer / 1_000_000);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    // Цикл продолжает работать, пауза - чтобы повторяющаяся ошибка не раскрутила его вхолостую
+                    internalErrors.increment();
+                    LockSupport.parkNanos(1_000_000);
+                }
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.channel() == connection.client) {
+                if (key.isReadable()) {
+                    connection.onClientReadable();
+                } else if (key.isWritable()) {
+                    connection.onClientWritable();
+                }
+            } else if (key.isConnectable()) {
+                connection.onUpstreamConnectable();
+            } else if (key.isWritable()) {
+                connection.onUpstreamWritable();
+            } else if (key.isReadable()) {
+                connection.onUpstreamReadable();
+            }
+        } catch (IOException | CancelledKeyException e) {
+            connection.close();
+        } catch (RuntimeException e) {
+            // Например, NumberFormatException из Content-Length или строки статуса
+            internalErrors.increment();
+            connection.fail();
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel client = server.accept();
+            if (client == null) {
+                return;
+            }
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(client);
+            connection.clientKey = client.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            // Клиент ушёл до accept - ничего не делаем
+        }
+    }
+
+    private void schedule(Connection connection, long delayNanos, Runnable task) {
+        if (delayNanos <= 0) {
+            task.run();
+        } else {
+            timers.add(new Timer(System.nanoTime() + delayNanos, timerSequence++, connection, task));
+        }
+    }
+
+    /**
+     * Выполняет наступившие таймеры и возвращает время до следующего (нс) или -1, если таймеров нет.
+     */
+    private long runDueTimers() {
+        while (!timers.isEmpty()) {
+            long untilDue = timers.peek().dueNanos() - System.nanoTime();
+            if (untilDue > 0) {
+                return untilDue;
+            }
+            Timer timer = timers.poll();
+            try {
+                timer.task().run();
+            } catch (CancelledKeyException e) {
+                timer.connection().close();
+            } catch (RuntimeException e) {
+                internalErrors.increment();
+                timer.connection().fail();
+            }
+        }
+        return -1;
+    }
+
+    private Counters counters(FaultRule rule) {
+        return stats.computeIfAbsent(rule == null ? PASS_THROUGH : rule.getName(), name -> new Counters());
+    }
+
+    private record Timer(long dueNanos, long sequence, Connection connection, Runnable task) {
+    }
+
+    private static final class Counters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder forwarded = new LongAdder();
+        private final LongAdder injectedErrors = new LongAdder();
+        private final LongAdder drops = new LongAdder();
+        private final LongAdder delayNanos = new LongAdder();
+
+        private RuleStats snapshot() {
+            return new RuleStats(requests.sum(), forwarded.sum(), injectedErrors.sum(), drops.sum(),
+                    delayNanos.sum() / 1_000_000);
+        }
+    }
+
+    /**
+     * Клиентское соединение и парное соединение со стендом. Методы вызываются только потоком цикла.
+     */
+    private final class Connection {
+        private final SocketChannel client;
+        private SelectionKey clientKey;
+        private SocketChannel upstreamChannel;
+        private SelectionKey upstreamKey;
+        private boolean closed;
+
+        private final Buffer request = new Buffer();
+        private final Buffer response = new Buffer();
+        private byte[] requestBytes;
+        private String method;
+        private boolean clientWantsClose;
+        // Запрос прочитан и ждёт ответа (от стенда или внесённого прокси)
+        private boolean awaitingResponse;
+        private FaultRule rule;
+        private boolean retriedOnFreshConnection;
+
+        private ByteBuffer upstreamOut;
+        private ByteBuffer clientOut;
+        private boolean closeAfterResponse;
+
+        // Разбор ответа стенда
+        private int responseBodyStart = -1;
+        private long responseContentLength;
+        private boolean responseChunked;
+        private boolean responseUntilClose;
+        private boolean upstreamWantsClose;
+        private int chunkPosition;
+
+        private Connection(SocketChannel client) {
+            this.client = client;
+        }
+
+        void onClientReadable() throws IOException {
+            if (!readInto(client, request)) {
+                close();
+                return;
+            }
+            if (parseRequest()) {
+                clientKey.interestOps(0);
+                dispatch();
+            }
+        }
+
+        private boolean parseRequest() {
+            int headerEnd = request.indexOf(HEADER_END, 0);
+            if (headerEnd < 0) {
+                return false;
+            }
+            String head = new String(request.data, 0, headerEnd, StandardCharsets.ISO_8859_1);
+            String[] lines = head.split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            long contentLength = 0;
+            clientWantsClose = false;
+            for (int i = 1; i < lines.length; i++) {
+                String line = lines[i].toLowerCase(Locale.ROOT);
+                if (line.startsWith("content-length:")) {
+                    contentLength = Long.parseLong(line.substring(15).trim());
+                } else if (line.startsWith("connection:") && line.contains("close")) {
+                    clientWantsClose = true;
+                }
+            }
+            int total = (int) (headerEnd + HEADER_END.length + contentLength);
+            if (request.length < total) {
+                return false;
+            }
+            method = requestLine[0];
+            String path = requestLine.length > 1 ? requestLine[1] : "/";
+            requestBytes = Arrays.copyOf(request.data, total);
+            request.consume(total);
+            rule = profile.match(method, AvitoApiConfig.resolveEndpointTemplate(path));
+            return true;
+        }
+
+        private void dispatch() {
+            awaitingResponse = true;
+            Counters counters = counters(rule);
+            counters.requests.increment();
+            if (rule == null) {
+                counters.forwarded.increment();
+                forward();
+                return;
+            }
+            if (rule.getDropRate() > 0 && random.nextDouble() < rule.getDropRate()) {
+                counters.drops.increment();
+                abort();
+                return;
+            }
+            long delay = rule.getLatency().sampleNanos(random);
+            counters.delayNanos.add(delay);
+            if (rule.getErrorRate() > 0 && random.nextDouble() < rule.getErrorRate()) {
+                counters.injectedErrors.increment();
+                schedule(this, delay, () -> respond(errorResponse(rule.getErrorStatus()), false));
+            } else {
+                counters.forwarded.increment();
+                schedule(this, delay, this::forward);
+            }
+        }
+
+        private void forward() {
+            if (closed) {
+                return;
+            }
+            response.clear();
+            responseBodyStart = -1;
+            responseUntilClose = false;
+            upstreamWantsClose = false;
+            upstreamOut = ByteBuffer.wrap(requestBytes);
+            try {
+                if (upstreamChannel == null || !upstreamChannel.isOpen()) {
+                    upstreamChannel = SocketChannel.open();
+                    upstreamChannel.configureBlocking(false);
+                    upstreamChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    boolean connected = upstreamChannel.connect(upstream);
+                    upstreamKey = upstreamChannel.register(selector,
+                            connected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT, this);
+                } else {
+                    upstreamKey.interestOps(SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                closeUpstream();
+                respond(errorResponse(502), false);
+            }
+        }
+
+        void onUpstreamConnectable() {
+            try {
+                upstreamChannel.finishConnect();
+                upstreamKey.interestOps(SelectionKey.OP_WRITE);
+            } catch (IOException e) {
+                closeUpstream();
+                respond(errorResponse(502), false);
+            }
+        }
+
+        void onUpstreamWritable() {
+            try {
+                upstreamChannel.write(upstreamOut);
+                if (!upstreamOut.hasRemaining()) {
+                    upstreamKey.interestOps(SelectionKey.OP_READ);
+                }
+            } catch (IOException e) {
+                upstreamFailed();
+            }
+        }
+
+        void onUpstreamReadable() {
+            boolean open;
+            try {
+                open = readInto(upstreamChannel, response);
+            } catch (IOException e) {
+                upstreamFailed();
+                return;
+            }
+            if (!open) {
+                // Стенд мог отдать ответ целиком и сразу закрыть соединение (Connection: close) - тогда
+                // данные и конец потока приходят за одно чтение
+                if (isResponseComplete() || responseUntilClose) {
+                    boolean untilClose = responseUntilClose;
+                    closeUpstream();
+                    retriedOnFreshConnection = false;
+                    respond(response.toByteArray(), untilClose);
+                } else {
+                    upstreamFailed();
+                }
+                return;
+            }
+            if (isResponseComplete()) {
+                byte[] bytes = Arrays.copyOf(response.data, response.length);
+                if (upstreamWantsClose) {
+                    closeUpstream();
+                } else {
+                    upstreamKey.interestOps(0);
+                }
+                retriedOnFreshConnection = false;
+                respond(bytes, false);
+            }
+        }
+
+        /**
+         * Стенд закрыл keep-alive соединение до ответа: один повтор на новом соединении, затем 502.
+         */
+        private void upstreamFailed() {
+            closeUpstream();
+            if (response.length == 0 && !retriedOnFreshConnection) {
+                retriedOnFreshConnection = true;
+                forward();
+            } else {
+                retriedOnFreshConnection = false;
+                respond(errorResponse(502), false);
+            }
+        }
+
+        private boolean isResponseComplete() {
+            if (responseBodyStart < 0) {
+                int headerEnd = response.indexOf(HEADER_END, 0);
+                if (headerEnd < 0) {
+                    return false;
+                }
+                responseBodyStart = headerEnd + HEADER_END.length;
+                chunkPosition = responseBodyStart;
+                String head = new String(response.data, 0, headerEnd, StandardCharsets.ISO_8859_1);
+                String[] lines = head.split("\r\n");
+                int status = Integer.parseInt(lines[0].split(" ")[1]);
+                responseContentLength = -1;
+                responseChunked = false;
+                for (int i = 1; i < lines.length; i++) {
+                    String line = lines[i].toLowerCase(Locale.ROOT);
+                    if (line.startsWith("content-length:")) {
+                        responseContentLength = Long.parseLong(line.substring(15).trim());
+                    } else if (line.startsWith("transfer-encoding:") && line.contains("chunked")) {
+                        responseChunked = true;
+                    } else if (line.startsWith("connection:") && line.contains("close")) {
+                        upstreamWantsClose = true;
+                    }
+                }
+                // Ответ на HEAD несёт Content-Length тела, которое не передаётся
+                if (status / 100 == 1 || status == 204 || status == 304 || "HEAD".equals(method)) {
+                    responseContentLength = 0;
+                } else if (responseContentLength < 0 && !responseChunked) {
+                    responseUntilClose = true;
+                }
+            }
+            if (responseContentLength >= 0) {
+                return response.length >= responseBodyStart + responseContentLength;
+            }
+            if (responseChunked) {
+                return isChunkedBodyComplete();
+            }
+            return false;
+        }
+
+        private boolean isChunkedBodyComplete() {
+            while (true) {
+                int lineEnd = response.indexOf(CRLF, chunkPosition);
+                if (lineEnd < 0) {
+                    return false;
+                }
+                String sizeLine = new String(response.data, chunkPosition, lineEnd - chunkPosition,
+                        StandardCharsets.ISO_8859_1);
+                int extension = sizeLine.indexOf(';');
+                int size = Integer.parseInt((extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim(), 16);
+                if (size == 0) {
+                    // Последний чанк: сразу пустая строка или trailer-заголовки и пустая строка
+                    if (response.length >= lineEnd + 4 && response.data[lineEnd + 2] == '\r'
+                            && response.data[lineEnd + 3] == '\n') {
+                        return true;
+                    }
+                    return response.indexOf(HEADER_END, lineEnd) >= 0;
+                }
+                int next = lineEnd + CRLF.length + size + CRLF.length;
+                if (response.length < next) {
+                    return false;
+                }
+                chunkPosition = next;
+            }
+        }
+
+        private void respond(byte[] bytes, boolean closeAfter) {
+            if (closed) {
+                return;
+            }
+            awaitingResponse = false;
+            clientOut = ByteBuffer.wrap(bytes);
+            closeAfterResponse = closeAfter || clientWantsClose;
+            try {
+                clientKey.interestOps(SelectionKey.OP_WRITE);
+            } catch (CancelledKeyException e) {
+                close();
+            }
+        }
+
+        void onClientWritable() throws IOException {
+            long bytesPerSecond = rule == null ? 0 : rule.getBytesPerSecond();
+            if (bytesPerSecond > 0) {
+                // Ограничение полосы: не больше bytesPerSecond * 10 мс за такт, следующий такт - по таймеру
+                int chunk = (int) Math.max(1, bytesPerSecond * PACING_INTERVAL_NANOS / 1_000_000_000L);
+                int limit = clientOut.limit();
+                clientOut.limit(Math.min(limit, clientOut.position() + chunk));
+                client.write(clientOut);
+                clientOut.limit(limit);
+                if (clientOut.hasRemaining()) {
+                    clientKey.interestOps(0);
+                    schedule(this, PACING_INTERVAL_NANOS, () -> {
+                        if (!closed) {
+                            clientKey.interestOps(SelectionKey.OP_WRITE);
+                        }
+                    });
+                    return;
+                }
+            } else {
+                client.write(clientOut);
+                if (clientOut.hasRemaining()) {
+                    return;
+                }
+            }
+            if (closeAfterResponse) {
+                close();
+                return;
+            }
+            clientOut = null;
+            rule = null;
+            clientKey.interestOps(SelectionKey.OP_READ);
+            if (parseRequest()) {
+                clientKey.interestOps(0);
+                dispatch();
+            }
+        }
+
+        /**
+         * Обрыв соединения с RST вместо FIN - клиент видит "connection reset".
+         */
+        private void abort() {
+            try {
+                client.setOption(StandardSocketOptions.SO_LINGER, 0);
+            } catch (IOException e) {
+                // Соединение уже закрыто
+            }
+            close();
+        }
+
+        /**
+         * Ошибка в самом прокси: клиент, ждущий ответа, получает 502, остальные соединения просто закрываются.
+         * Соединение в обоих случаях не переиспользуется - разбор его буферов мог остановиться на середине.
+         */
+        void fail() {
+            closeUpstream();
+            if (awaitingResponse && clientOut == null) {
+                respond(errorResponse(502), true);
+            } else {
+                close();
+            }
+        }
+
+        private void closeUpstream() {
+            if (upstreamChannel != null) {
+                if (upstreamKey != null) {
+                    upstreamKey.cancel();
+                }
+                try {
+                    upstreamChannel.close();
+                } catch (IOException e) {
+                    // Закрываем в любом случае
+                }
+                upstreamChannel = null;
+                upstreamKey = null;
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeUpstream();
+            if (clientKey != null) {
+                clientKey.cancel();
+            }
+            try {
+                client.close();
+            } catch (IOException e) {
+                // Закрываем в любом случае
+            }
+        }
+
+        /**
+         * Читает доступные байты в buffer; false - соединение закрыто другой стороной.
+         */
+        private boolean readInto(SocketChannel channel, Buffer buffer) throws IOException {
+            while (true) {
+                readBuffer.clear();
+                int read = channel.read(readBuffer);
+                if (read < 0) {
+                    return false;
+                }
+                if (read == 0) {
+                    return true;
+                }
+                readBuffer.flip();
+                buffer.append(readBuffer);
+            }
+        }
+
+        private byte[] errorResponse(int status) {
+            byte[] body = ("{\"result\":{\"message\":\"injected fault\",\"messages\":{}},\"status\":\"" + status + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + (status == 429 || status == 503 ? "Retry-After: 1\r\n" : "")
+                    + "Content-Length: " + body.length + "\r\n\r\n";
+            byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] bytes = Arrays.copyOf(headBytes, headBytes.length + body.length);
+            System.arraycopy(body, 0, bytes, headBytes.length, body.length);
+            return bytes;
+        }
+    }
+
+    private static String reason(int status) {
+        return switch (status) {
+            case 429 -> "Too Many Requests";
+            case 500 -> "Internal Server Error";
+            case 502 -> "Bad Gateway";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            default -> "Error";
+        };
+    }
+
+    /**
+     * Растущий байтовый буфер для накопления запроса или ответа.
+     */
+    private static final class Buffer {
+        private byte[] data = new byte[4096];
+        private int length;
+
+        void append(ByteBuffer source) {
+            int count = source.remaining();
+            if (length + count > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + count));
+            }
+            source.get(data, length, count);
+            length += count;
+        }
+
+        int indexOf(byte[] pattern, int from) {
+            outer:
+            for (int i = from; i <= length - pattern.length; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (data[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        void consume(int count) {
+            System.arraycopy(data, count, data, 0, length - count);
+            length -= count;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(data, length);
+        }
+
+        void clear() {
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.avito.api.faults;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.stub.AvitoStubServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FaultProxyTest {
+
+    private static final String GET_ITEM = "GET /api/1/item/00000000-0000-0000-0000-000000000000 HTTP/1.1\r\n"
+            + "Host: localhost\r\n\r\n";
+    private static final String ITEM_RULE = "GET " + AvitoApiConfig.ITEM_BY_ID_ENDPOINT;
+
+    @Test
+    @DisplayName("Фиксированная задержка добавляется к проксированному ответу")
+    void testFixedLatency() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            proxy.setProfile(FaultProfile.of("slow", itemRule()
+                    .withLatency(LatencyDistribution.fixed(Duration.ofMillis(200)))));
+            long start = System.nanoTime();
+            String response = exchange(proxy, GET_ITEM);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(response.startsWith("HTTP/1.1 404 "), response);
+            assertTrue(elapsedMillis >= 200, "время ответа " + elapsedMillis + " мс");
+            FaultProxy.RuleStats stats = proxy.getStats().get(ITEM_RULE);
+            assertEquals(1, stats.requests());
+            assertEquals(1, stats.forwarded());
+            assertEquals(200, stats.delayMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Логнормальная задержка: медиана и хвост в пределах заданных")
+    void testLognormalLatency() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 7)) {
+            proxy.setProfile(FaultProfile.of("lognormal", itemRule()
+                    .withLatency(LatencyDistribution.lognormal(Duration.ofMillis(5), Duration.ofMillis(50)))));
+            int requests = 40;
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                assertTrue(exchange(proxy, GET_ITEM).startsWith("HTTP/1.1 404 "));
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            FaultProxy.RuleStats stats = proxy.getStats().get(ITEM_RULE);
+            assertEquals(requests, stats.requests());
+            // Среднее логнормального распределения с медианой 5 мс и p99 50 мс - около 7 мс
+            assertTrue(stats.delayMillis() > requests * 2 && stats.delayMillis() < requests * 25,
+                    "суммарная задержка " + stats.delayMillis() + " мс");
+            assertTrue(elapsedMillis >= stats.delayMillis() - requests, "время прогона " + elapsedMillis + " мс");
+        }
+    }
+
+    @Test
+    @DisplayName("Ответы-ошибки 503 и 429 с Retry-After, стенд не вызывается")
+    void testInjectedErrors() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            for (int status : new int[]{503, 429}) {
+                proxy.setProfile(FaultProfile.of("error-" + status, itemRule().withError(status, 1.0)));
+                String response = exchange(proxy, GET_ITEM);
+                assertTrue(response.startsWith("HTTP/1.1 " + status + " "), response);
+                assertTrue(response.contains("\r\nRetry-After: 1\r\n"), response);
+                assertTrue(response.contains("injected fault"), response);
+            }
+            FaultProxy.RuleStats stats = proxy.getStats().get(ITEM_RULE);
+            assertEquals(2, stats.injectedErrors());
+            assertEquals(0, stats.forwarded());
+        }
+    }
+
+    @Test
+    @DisplayName("Обрыв соединения: клиент не получает ни байта")
+    void testDrop() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            proxy.setProfile(FaultProfile.of("drop", itemRule().withDropRate(1.0)));
+            assertEquals("", exchange(proxy, GET_ITEM));
+            assertEquals(1, proxy.getStats().get(ITEM_RULE).drops());
+        }
+    }
+
+    @Test
+    @DisplayName("Ограничение полосы растягивает отправку ответа")
+    void testBandwidth() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            String direct = exchange(proxy, GET_ITEM);
+            proxy.setProfile(FaultProfile.of("narrow", itemRule().withBandwidth(200)));
+            long start = System.nanoTime();
+            String throttled = exchange(proxy, GET_ITEM);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(direct.length(), throttled.length(), direct + "\n---\n" + throttled);
+            // 200 байт/с - по 2 байта каждые 10 мс
+            long expectedMillis = (throttled.length() / 2 - 1) * 10L;
+            assertTrue(elapsedMillis >= expectedMillis, "ответ " + throttled.length() + " байт за " + elapsedMillis + " мс");
+        }
+    }
+
+    @Test
+    @DisplayName("Смена профиля на ходу действует на следующие запросы")
+    void testProfileSwitch() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            assertTrue(exchange(proxy, GET_ITEM).startsWith("HTTP/1.1 404 "));
+            proxy.setProfile(FaultProfile.of("broken", itemRule().withError(503, 1.0)));
+            assertTrue(exchange(proxy, GET_ITEM).startsWith("HTTP/1.1 503 "));
+            proxy.setProfile(FaultProfile.NONE);
+            assertTrue(exchange(proxy, GET_ITEM).startsWith("HTTP/1.1 404 "));
+
+            assertEquals(2, proxy.getStats().get("passthrough").requests());
+            assertEquals(1, proxy.getStats().get(ITEM_RULE).injectedErrors());
+            proxy.resetStats();
+            assertTrue(proxy.getStats().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("HEAD: ответ без тела несмотря на Content-Length, соединение остаётся рабочим")
+    void testHead() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            URI uri = URI.create(proxy.getBaseUrl());
+            try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+                socket.setSoTimeout(5000);
+                String head = GET_ITEM.replace("GET ", "HEAD ");
+                // Два запроса подряд по одному keep-alive соединению
+                for (int i = 0; i < 2; i++) {
+                    write(socket, head);
+                    assertTrue(readResponse(socket.getInputStream(), false).startsWith("HTTP/1.1 404 "));
+                }
+                write(socket, GET_ITEM);
+                assertTrue(readResponse(socket.getInputStream(), true).startsWith("HTTP/1.1 404 "));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Неразбираемый запрос закрывает только своё соединение, цикл прокси продолжает работать")
+    void testMalformedRequest() throws IOException {
+        try (AvitoStubServer stub = AvitoStubServer.start(0);
+             FaultProxy proxy = FaultProxy.start(stub.getBaseUrl(), 1)) {
+            String response = exchange(proxy, "POST /api/1/item HTTP/1.1\r\nContent-Length: abc\r\n\r\n");
+            assertEquals("", response);
+            assertEquals(1, proxy.getInternalErrors());
+
+            assertTrue(exchange(proxy, GET_ITEM).startsWith("HTTP/1.1 "), "прокси отвечает после ошибки");
+        }
+    }
+
+    @Test
+    @DisplayName("Неразбираемый ответ стенда - 502 клиенту")
+    void testMalformedUpstreamResponse() throws Exception {
+        try (ServerSocket upstream = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread server = Thread.ofVirtual().start(() -> {
+                while (!upstream.isClosed()) {
+                    try (Socket socket = upstream.accept()) {
+                        socket.getInputStream().read(new byte[4096]);
+                        socket.getOutputStream().write("HTTP/1.1 abc OK\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                        socket.getOutputStream().flush();
+                        socket.getInputStream().read();
+                    } catch (IOException e) {
+                        // Следующее соединение или закрытие сокета теста
+                    }
+                }
+            });
+            try (FaultProxy proxy = FaultProxy.start("http://127.0.0.1:" + upstream.getLocalPort(), 1)) {
+                for (int i = 0; i < 2; i++) {
+                    assertTrue(exchange(proxy, GET_ITEM).startsWith("HTTP/1.1 502 "));
+                }
+                assertEquals(2, proxy.getInternalErrors());
+            }
+            upstream.close();
+            server.join(5000);
+        }
+    }
+
+    private static FaultRule itemRule() {
+        return FaultRule.on("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT);
+    }
+
+    /**
+     * Отправляет запрос с Connection: close и читает всё до закрытия соединения прокси.
+     */
+    private static String exchange(FaultProxy proxy, String request) throws IOException {
+        URI uri = URI.create(proxy.getBaseUrl());
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            socket.setSoTimeout(5000);
+            write(socket, request.replace("\r\n\r\n", "\r\nConnection: close\r\n\r\n"));
+            InputStream in = socket.getInputStream();
+            try {
+                return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+            } catch (IOException e) {
+                return "";
+            }
+        }
+    }
+
+    private static void write(Socket socket, String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    /**
+     * Читает ответ из keep-alive соединения: заголовки и, если withBody, тело длиной Content-Length.
+     */
+    private static String readResponse(InputStream in, boolean withBody) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        while (!head.toString(StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Соединение закрыто до конца заголовков: " + head);
+            }
+            head.write(b);
+        }
+        String text = head.toString(StandardCharsets.ISO_8859_1);
+        if (withBody) {
+            for (String line : text.split("\r\n")) {
+                if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                    in.readNBytes(Integer.parseInt(line.substring(15).trim()));
+                }
+            }
+        }
+        return text;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.avito.api.faults;
+
+import java.util.Objects;
+
+/**
+ * Неисправности для запросов к одной ручке. Неизменяемое правило, настраивается цепочкой with*:
+ * <pre>{@code
+ * FaultRule.on("GET", AvitoApiConfig.STATISTIC_ENDPOINT)
+ *         .withLatency(LatencyDistribution.lognormal(Duration.ofMillis(20), Duration.ofMillis(300)))
+ *         .withError(503, 0.1)
+ *         .withDropRate(0.01);
+ * }</pre>
+ * Порядок применения: обрыв соединения, затем ответ-ошибка без обращения к стенду, иначе проксирование;
+ * задержка добавляется и к ошибкам, и к проксированным ответам, ограничение полосы - к отправке ответа клиенту.
+ */
+public final class FaultRule {
+
+    private final String method;
+    private final String endpoint;
+    private final LatencyDistribution latency;
+    private final int errorStatus;
+    private final double errorRate;
+    private final double dropRate;
+    private final long bytesPerSecond;
+
+    private FaultRule(String method, String endpoint, LatencyDistribution latency, int errorStatus, double errorRate,
+                      double dropRate, long bytesPerSecond) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.latency = latency;
+        this.errorStatus = errorStatus;
+        this.errorRate = errorRate;
+        this.dropRate = dropRate;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Правило для ручки: method = null - любой метод, endpoint - шаблон из AvitoApiConfig или "*" - любая ручка.
+     */
+    public static FaultRule on(String method, String endpoint) {
+        return new FaultRule(method, Objects.requireNonNull(endpoint), LatencyDistribution.NONE, 0, 0, 0, 0);
+    }
+
+    public static FaultRule any() {
+        return on(null, "*");
+    }
+
+    public FaultRule withLatency(LatencyDistribution latency) {
+        return new FaultRule(method, endpoint, latency, errorStatus, errorRate, dropRate, bytesPerSecond);
+    }
+
+    /**
+     * Доля запросов, на которые прокси сам отвечает кодом status (500, 503, 429...), не обращаясь к стенду.
+     */
+    public FaultRule withError(int status, double rate) {
+        return new FaultRule(method, endpoint, latency, status, rate, dropRate, bytesPerSecond);
+    }
+
+    /**
+     * Доля запросов, после чтения которых соединение обрывается (RST) без ответа.
+     */
+    public FaultRule withDropRate(double rate) {
+        return new FaultRule(method, endpoint, latency, errorStatus, errorRate, rate, bytesPerSecond);
+    }
+
+    /**
+     * Скорость отправки ответа клиенту, байт в секунду; 0 - без ограничения.
+     */
+    public FaultRule withBandwidth(long bytesPerSecond) {
+        return new FaultRule(method, endpoint, latency, errorStatus, errorRate, dropRate, bytesPerSecond);
+    }
+
+    boolean matches(String requestMethod, String requestEndpoint) {
+        return (method == null || method.equalsIgnoreCase(requestMethod))
+                && (endpoint.equals("*") || endpoint.equals(requestEndpoint));
+    }
+
+    public String getName() {
+        return (method == null ? "*" : method) + " " + endpoint;
+    }
+
+    LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    int getErrorStatus() {
+        return errorStatus;
+    }
+
+    double getErrorRate() {
+        return errorRate;
+    }
+
+    double getDropRate() {
+        return dropRate;
+    }
+
+    long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.avito.api.faults;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.client.AvitoApiException;
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.resilience.ResilienceConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Прогон смешанной нагрузки через {@link FaultProxy} с набором профилей неисправностей: как клиент
+ * ({@link com.example.avito.api.resilience.ResilienceLayer}) переносит медленный стенд, 503, обрывы соединений,
+ * ограничение частоты и узкий канал. Каждый пользователь в цикле создаёт объявление и читает его,
+ * список продавца и статистику; на каждый профиль - новый клиент, чтобы лимиты и автоматы защиты стартовали с нуля.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.faults.FaultScenarios -Davito.stub=true -Davito.faults.duration=10}
+ */
+public class FaultScenarios {
+
+    private static final List<FaultProfile> PROFILES = List.of(
+            FaultProfile.NONE,
+            FaultProfile.of("slow",
+                    FaultRule.any().withLatency(LatencyDistribution.withSpikes(
+                            LatencyDistribution.lognormal(Duration.ofMillis(20), Duration.ofMillis(200)),
+                            0.001, Duration.ofSeconds(2)))),
+            FaultProfile.of("flaky",
+                    FaultRule.on("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT).withError(503, 0.2),
+                    FaultRule.on("GET", AvitoApiConfig.STATISTIC_ENDPOINT).withError(500, 0.05)),
+            FaultProfile.of("rate-limited",
+                    FaultRule.on("POST", AvitoApiConfig.ITEM_ENDPOINT).withError(429, 0.3)),
+            FaultProfile.of("dropping",
+                    FaultRule.on("GET", AvitoApiConfig.STATISTIC_ENDPOINT).withDropRate(0.1),
+                    FaultRule.on("POST", AvitoApiConfig.ITEM_ENDPOINT).withDropRate(0.02)),
+            FaultProfile.of("throttled",
+                    FaultRule.any().withBandwidth(4_000)));
+
+    private final FaultProxy proxy;
+    private final int users;
+    private final Duration duration;
+
+    public FaultScenarios(FaultProxy proxy, int users, Duration duration) {
+        this.proxy = proxy;
+        this.users = users;
+        this.duration = duration;
+    }
+
+    public Result run(FaultProfile profile) throws InterruptedException {
+        proxy.setProfile(profile);
+        proxy.resetStats();
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder iterations = new LongAdder();
+        LongAdder failures = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long retries;
+        try (AvitoApiClient client = new AvitoApiClient(proxy.getBaseUrl(), AvitoApiClient.DEFAULT_MAX_CONCURRENCY,
+                null, ResilienceConfig.fromSystemProperties(AvitoApiClient.DEFAULT_MAX_CONCURRENCY))) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int user = 0; user < users; user++) {
+                    executor.execute(() -> {
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            try {
+                                iteration(client);
+                                latency.record(System.nanoTime() - start);
+                                iterations.increment();
+                            } catch (AvitoApiException e) {
+                                failures.increment();
+                            }
+                        }
+                    });
+                }
+            }
+            retries = client.getResilience() == null ? 0 : client.getResilience().getRetries();
+        }
+        return new Result(profile.name(), iterations.sum(), failures.sum(), retries, latency, proxy.getStats());
+    }
+
+    private static void iteration(AvitoApiClient client) {
+        int sellerId = ItemFixtures.uniqueSellerId();
+        String id = client.createItem(ItemFixtures.newItem(sellerId));
+        client.getItem(id);
+        client.getSellerItems(sellerId);
+        client.getStatistic(id);
+    }
+
+    /**
+     * @param iterations успешные итерации (четыре запроса каждая)
+     * @param failures   итерации, прерванные ошибкой после всех повторов
+     */
+    public record Result(String profile, long iterations, long failures, long retries, LatencyHistogram latency,
+                         Map<String, FaultProxy.RuleStats> proxyStats) {
+
+        public String format(Duration duration) {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%-13s итераций/с: %8.1f, ошибок: %d, повторов: %d, p50: %.1fms, p99: %.1fms%n",
+                    profile, iterations / (duration.toNanos() / 1e9), failures, retries,
+                    latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6));
+            proxyStats.forEach((rule, stats) -> report.append(String.format(
+                    "              %s: запросов %d, передано %d, ошибок %d, обрывов %d, задержка %d ms%n",
+                    rule, stats.requests(), stats.forwarded(), stats.injectedErrors(), stats.drops(),
+                    stats.delayMillis())));
+            return report.toString();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int users = Integer.getInteger("avito.faults.users", 16);
+        Duration duration = Duration.ofSeconds(Long.getLong("avito.faults.duration", 10));
+        String only = System.getProperty("avito.faults.scenarios", "");
+        List<String> selected = only.isBlank() ? List.of() : Arrays.asList(only.split(","));
+
+        try (FaultProxy proxy = FaultProxy.start(AvitoApiConfig.getBaseUrl())) {
+            FaultScenarios scenarios = new FaultScenarios(proxy, users, duration);
+            System.out.printf("Прокси %s -> %s, пользователей: %d, %ds на профиль%n",
+                    proxy.getBaseUrl(), AvitoApiConfig.getBaseUrl(), users, duration.toSeconds());
+            // Прогрев JIT и соединений без неисправностей, иначе первый профиль выглядит медленнее остальных
+            new FaultScenarios(proxy, users, Duration.ofSeconds(Long.getLong("avito.faults.warmup", 3)))
+                    .run(FaultProfile.NONE);
+            List<Result> results = new ArrayList<>();
+            for (FaultProfile profile : PROFILES) {
+                if (selected.isEmpty() || selected.contains(profile.name())) {
+                    Result result = scenarios.run(profile);
+                    results.add(result);
+                    System.out.print(result.format(duration));
+                }
+            }
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.avito.api.faults;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Распределение добавочной задержки, которую {@link FaultProxy} вносит перед ответом.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0;
+
+    long sampleNanos(SplittableRandom random);
+
+    static LatencyDistribution fixed(Duration delay) {
+        long nanos = delay.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long from = min.toNanos();
+        long to = max.toNanos();
+        return random -> from + random.nextLong(to - from + 1);
+    }
+
+    static LatencyDistribution exponential(Duration mean) {
+        double meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Логнормальное распределение по медиане и p99 - типичная форма задержек сетевого сервиса с длинным хвостом.
+     */
+    static LatencyDistribution lognormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        // 2.326 - квантиль 0.99 стандартного нормального распределения
+        double sigma = (Math.log(p99.toNanos()) - mu) / 2.326;
+        return random -> (long) Math.exp(mu + sigma * gaussian(random));
+    }
+
+    /**
+     * С вероятностью probability - задержка spike, иначе base: редкие, но очень долгие паузы (GC, ретрансмиты).
+     */
+    static LatencyDistribution withSpikes(LatencyDistribution base, double probability, Duration spike) {
+        long spikeNanos = spike.toNanos();
+        return random -> random.nextDouble() < probability ? spikeNanos : base.sampleNanos(random);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Преобразование Бокса-Мюллера
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.avito.api.fixtures;
+
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.fixtures.ItemFixtures.CreatedItem;
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.ids.UuidMap;
+import com.example.avito.api.models.Item;
+import com.example.avito.api.models.ItemResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Реестр долгоживущих тестовых данных: объявления, которые тесты только читают, создаются один раз
+ * и переиспользуются между прогонами.
+ * <p>
+ * Созданные фикстуры (продавец, ID объявлений и отправленные данные) сохраняются в компактный бинарный файл
+ * {@code avito.fixtures.file} при завершении JVM. При следующем прогоне все сохранённые фикстуры проверяются
+ * одним параллельным проходом (список объявлений продавца должен содержать каждое объявление с теми же
+ * sellerId, name и price); подтверждённые переиспользуются, пропавшие, изменённые и старше
+ * {@code avito.fixtures.maxAgeHours} - создаются заново при первом обращении. Файл привязан к адресу стенда:
+ * фикстуры другого стенда (в том числе заглушки прошлого прогона) не проверяются и не переиспользуются.
+ * <p>
+ * {@code -Davito.fixtures.reuse=false} - каждая фикстура создаётся заново, файл не читается и не пишется.
+ */
+public final class FixtureRegistry {
+
+    // -Davito.fixtures.file=target/fixtures.bin - файл реестра
+    public static final String FILE_PROPERTY = "avito.fixtures.file";
+    public static final String REUSE_PROPERTY = "avito.fixtures.reuse";
+
+    private static final int MAGIC = 0x41564658; // "AVFX"
+    private static final short VERSION = 1;
+
+    private final AvitoApiClient client;
+    private final String baseUrl;
+    private final Path file;
+    private final boolean reuse;
+    private final Duration maxAge;
+    private final Map<String, SellerFixture> validated = new HashMap<>();
+    private final Map<String, CompletableFuture<SellerFixture>> fixtures = new ConcurrentHashMap<>();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private int stale;
+
+    public FixtureRegistry(AvitoApiClient client, Path file, boolean reuse, Duration maxAge) {
+        this.client = client;
+        this.baseUrl = client.getBaseUrl();
+        this.file = file;
+        this.reuse = reuse;
+        this.maxAge = maxAge;
+        if (reuse) {
+            validate(load());
+        }
+    }
+
+    /**
+     * Общий на прогон реестр поверх {@link ItemFixtures#client()}; сохраняется при завершении JVM.
+     */
+    public static FixtureRegistry shared() {
+        return Holder.REGISTRY;
+    }
+
+    /**
+     * Объявление фикстуры key у собственного продавца.
+     */
+    public CreatedItem item(String key) {
+        return seller(key, 1).items().get(0);
+    }
+
+    /**
+     * Продавец фикстуры key ровно с itemCount объявлениями, созданными реестром.
+     */
+    public SellerFixture seller(String key, int itemCount) {
+        CompletableFuture<SellerFixture> future = new CompletableFuture<>();
+        CompletableFuture<SellerFixture> existing = fixtures.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            SellerFixture fixture = validated.get(key);
+            if (fixture != null && fixture.items().size() == itemCount) {
+                reused.increment();
+            } else {
+                fixture = create(itemCount);
+                created.increment();
+            }
+            future.complete(fixture);
+            return fixture;
+        } catch (RuntimeException e) {
+            // Следующий тест с тем же ключом попробует создать фикстуру снова
+            fixtures.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private SellerFixture create(int itemCount) {
+        int sellerId = ItemFixtures.uniqueSellerId();
+        List<Item> payloads = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            payloads.add(ItemFixtures.newItem(sellerId));
+        }
+        List<String> ids = client.createItems(payloads);
+        List<CreatedItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new CreatedItem(ids.get(i), payloads.get(i)));
+        }
+        return new SellerFixture(sellerId, System.currentTimeMillis(), List.copyOf(items));
+    }
+
+    public String formatSummary() {
+        return String.format("фикстур переиспользовано: %d, создано: %d, устаревших при проверке: %d",
+                reused.sum(), created.sum(), stale);
+    }
+
+    /**
+     * Проверка всех сохранённых фикстур одним параллельным проходом: по запросу списка продавца на фикстуру.
+     */
+    private void validate(Map<String, SellerFixture> persisted) {
+        long oldest = System.currentTimeMillis() - maxAge.toMillis();
+        Map<String, CompletableFuture<Boolean>> checks = new HashMap<>();
+        persisted.forEach((key, fixture) -> checks.put(key, fixture.createdAtMillis() < oldest
+                ? CompletableFuture.completedFuture(false)
+                : client.getSellerItemsAsync(fixture.sellerId())
+                        .handle((sellerItems, error) -> error == null && containsAll(sellerItems, fixture))));
+        checks.forEach((key, check) -> {
+            if (check.join()) {
+                validated.put(key, persisted.get(key));
+            } else {
+                stale++;
+            }
+        });
+    }
+
+    private static boolean containsAll(List<ItemResponse> sellerItems, SellerFixture fixture) {
+        // У продавца фикстуры могут быть тысячи объявлений - индекс по UUID в двух long, без строковых ключей
+        UuidMap<ItemResponse> byId = new UuidMap<>(sellerItems.size());
+        for (ItemResponse sellerItem : sellerItems) {
+            if (UuidCodec.isUuid(sellerItem.getId())) {
+                byId.put(sellerItem.getId(), sellerItem);
+            }
+        }
+        for (CreatedItem item : fixture.items()) {
+            ItemResponse actual = byId.get(item.id());
+            if (actual == null
+                    || !Objects.equals(actual.getSellerId(), item.payload().getSellerId())
+                    || !Objects.equals(actual.getName(), item.payload().getName())
+                    || !Objects.equals(actual.getPrice(), item.payload().getPrice())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Формат: MAGIC, VERSION, адрес стенда, число фикстур; фикстура - ключ, sellerId, время создания,
+     * число объявлений и для каждого ID двумя long, name и price.
+     */
+    private Map<String, SellerFixture> load() {
+        Map<String, SellerFixture> persisted = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION || !in.readUTF().equals(baseUrl)) {
+                return persisted;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                int sellerId = in.readInt();
+                long createdAtMillis = in.readLong();
+                int itemCount = in.readInt();
+                List<CreatedItem> items = new ArrayList<>(itemCount);
+                for (int j = 0; j < itemCount; j++) {
+                    String id = UuidCodec.toString(in.readLong(), in.readLong());
+                    items.add(new CreatedItem(id, new Item(sellerId, in.readUTF(), in.readInt())));
+                }
+                persisted.put(key, new SellerFixture(sellerId, createdAtMillis, List.copyOf(items)));
+            }
+        } catch (NoSuchFileException e) {
+            // Первый прогон - реестр пуст
+        } catch (IOException e) {
+            // Повреждённый файл не должен ронять прогон: все фикстуры будут созданы заново
+            System.err.println("Реестр фикстур " + file + " не прочитан: " + e);
+            persisted.clear();
+        }
+        return persisted;
+    }
+
+    /**
+     * Сохраняет подтверждённые и созданные в этом прогоне фикстуры (запись во временный файл и замена).
+     */
+    public void save() {
+        if (!reuse) {
+            return;
+        }
+        Map<String, SellerFixture> all = new HashMap<>(validated);
+        fixtures.forEach((key, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                all.put(key, future.join());
+            }
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeUTF(baseUrl);
+                out.writeInt(all.size());
+                for (Map.Entry<String, SellerFixture> entry : all.entrySet()) {
+                    SellerFixture fixture = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(fixture.sellerId());
+                    out.writeLong(fixture.createdAtMillis());
+                    out.writeInt(fixture.items().size());
+                    for (CreatedItem item : fixture.items()) {
+                        out.writeLong(UuidCodec.high(item.id(), 0));
+                        out.writeLong(UuidCodec.low(item.id(), 0));
+                        out.writeUTF(item.payload().getName());
+                        out.writeInt(item.payload().getPrice());
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить реестр фикстур " + file, e);
+        }
+    }
+
+    /**
+     * Продавец и его объявления; у фикстуры {@link #item(String)} объявление одно.
+     */
+    public record SellerFixture(int sellerId, long createdAtMillis, List<CreatedItem> items) {
+    }
+
+    private static final class Holder {
+        private static final FixtureRegistry REGISTRY = create();
+
+        private static FixtureRegistry create() {
+            FixtureRegistry registry = new FixtureRegistry(ItemFixtures.client(),
+                    Path.of(System.getProperty(FILE_PROPERTY, "target/fixtures.bin")),
+                    Boolean.parseBoolean(System.getProperty(REUSE_PROPERTY, "true")),
+                    Duration.ofHours(Long.getLong("avito.fixtures.maxAgeHours", 24)));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                registry.save();
+                System.out.println("Реестр фикстур (" + registry.baseUrl + "): " + registry.formatSummary());
+            }, "fixture-registry-save"));
+            return registry;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.avito.api.fixtures;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.models.Item;
+import com.github.javafaker.Faker;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Потокобезопасный поставщик тестовых данных для параллельного прогона.
+ * Каждый тест получает собственного продавца ({@link #uniqueSellerId()}) и создаёт свои объявления,
+ * поэтому тесты не зависят от порядка выполнения и друг от друга.
+ */
+public final class ItemFixtures {
+
+    // Faker не рассчитан на конкурентный доступ, поэтому у каждого потока свой экземпляр
+    private static final ThreadLocal<Faker> FAKER = ThreadLocal.withInitial(() -> new Faker(new Locale("en")));
+
+    // Seed генератора данных. -Davito.seed=42 повторяет последовательность объявлений каждого генератора,
+    // но в параллельном пуле индексы генераторов достаются потокам в порядке первого обращения, а тесты
+    // потокам - как решит планировщик, так что одно и то же объявление тест получит только при
+    // -Djunit.jupiter.execution.parallel.enabled=false
+    private static final long SEED = Long.getLong("avito.seed", System.nanoTime());
+    private static final AtomicInteger NEXT_GENERATOR_INDEX = new AtomicInteger();
+    private static final ThreadLocal<ItemPayloadGenerator> GENERATOR = ThreadLocal.withInitial(() ->
+            ItemPayloadGenerator.forThread(SEED, NEXT_GENERATOR_INDEX.getAndIncrement(), PriceDistribution.DIGIT));
+
+    // Случайная стартовая точка разводит продавцов разных прогонов, инкремент - тестов внутри прогона
+    private static final AtomicInteger NEXT_SELLER_ID =
+            new AtomicInteger(ThreadLocalRandom.current().nextInt(111111, 900000));
+
+    private ItemFixtures() {
+    }
+
+    /**
+     * Общий на прогон клиент API - для пакетного создания объявлений при подготовке данных.
+     */
+    public static AvitoApiClient client() {
+        return ClientHolder.CLIENT;
+    }
+
+    public static Faker faker() {
+        return FAKER.get();
+    }
+
+    public static int uniqueSellerId() {
+        return NEXT_SELLER_ID.getAndIncrement();
+    }
+
+    /**
+     * Валидное объявление продавца: имя вида "Sleek Steel Chair", цена 1..9.
+     */
+    public static Item newItem(int sellerId) {
+        Item item = GENERATOR.get().next();
+        item.setSellerId(sellerId);
+        return item;
+    }
+
+    /**
+     * Создаёт объявление через POST /api/1/item и возвращает его ID вместе с отправленными данными.
+     */
+    public static CreatedItem createItem(RequestSpecification requestSpec, Item item) {
+        String statusMessage = given(requestSpec)
+                .body(item)
+                .when()
+                .post(AvitoApiConfig.getItemEndpoint())
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("status");
+        return new CreatedItem(extractItemIdFromStatus(statusMessage), item);
+    }
+
+    public static CreatedItem createItem(RequestSpecification requestSpec, int sellerId) {
+        return createItem(requestSpec, newItem(sellerId));
+    }
+
+    public static String extractItemIdFromStatus(String statusMessage) {
+        String id = UuidCodec.extract(statusMessage);
+        if (id != null) {
+            return id;
+        }
+        return Assertions.fail("Не удалось извлечь ID объявления из сообщения о статусе: " + statusMessage);
+    }
+
+    private static final class ClientHolder {
+        private static final AvitoApiClient CLIENT = new AvitoApiClient();
+    }
+
+    public record CreatedItem(String id, Item payload) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.avito.api.fixtures;
+
+import com.example.avito.api.models.Item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Воспроизводимый генератор тел POST /api/1/item вместо Faker. Словари строятся один раз и сразу
+ * кодируются в байты, имя собирается как "прилагательное материал товар" (как faker.commerce().productName()),
+ * без regex, YAML и рефлексии. {@link #writeNext(PayloadBuffer)} пишет JSON прямо в переиспользуемый буфер.
+ * <p>
+ * Экземпляр не потокобезопасен: для нескольких потоков создают генераторы с разными seed
+ * (см. {@link #forThread(long, int, PriceDistribution)}). Одинаковый seed даёт одинаковую последовательность объявлений.
+ */
+public class ItemPayloadGenerator {
+
+    // Только ASCII без кавычек и обратных слэшей - экранирование в JSON не нужно
+    private static final String[] ADJECTIVES = {"Small", "Ergonomic", "Rustic", "Intelligent", "Gorgeous", "Incredible",
+            "Fantastic", "Practical", "Sleek", "Awesome", "Enormous", "Mediocre", "Synergistic", "Heavy Duty",
+            "Lightweight", "Aerodynamic", "Durable"};
+    private static final String[] MATERIALS = {"Steel", "Wooden", "Concrete", "Plastic", "Cotton", "Granite", "Rubber",
+            "Leather", "Silk", "Wool", "Linen", "Marble", "Iron", "Bronze", "Copper", "Aluminum", "Paper"};
+    private static final String[] PRODUCTS = {"Chair", "Car", "Computer", "Gloves", "Pants", "Shirt", "Table", "Shoes",
+            "Hat", "Plate", "Knife", "Bottle", "Coat", "Lamp", "Keyboard", "Bag", "Bench", "Clock", "Watch", "Wallet"};
+
+    private static final byte[][] ADJECTIVE_BYTES = encode(ADJECTIVES);
+    private static final byte[][] MATERIAL_BYTES = encode(MATERIALS);
+    private static final byte[][] PRODUCT_BYTES = encode(PRODUCTS);
+
+    private static final byte[] SELLER_ID_FIELD = "{\"sellerId\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_FIELD = ",\"name\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PRICE_FIELD = "\",\"price\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MIN_SELLER_ID = 111111;
+    private static final int MAX_SELLER_ID = 999999;
+
+    private final SplittableRandom random;
+    private final PriceDistribution prices;
+    private final StringBuilder name = new StringBuilder(64);
+    private int fixedSellerId = -1;
+
+    public ItemPayloadGenerator(long seed) {
+        this(seed, PriceDistribution.DIGIT);
+    }
+
+    public ItemPayloadGenerator(long seed, PriceDistribution prices) {
+        this.random = new SplittableRandom(seed);
+        this.prices = prices;
+    }
+
+    /**
+     * Генератор для отдельного потока: seed потока выводится из общего, прогоны с тем же seed повторяемы.
+     */
+    public static ItemPayloadGenerator forThread(long seed, int threadIndex, PriceDistribution prices) {
+        return new ItemPayloadGenerator(seed * 0x9E3779B97F4A7C15L + threadIndex, prices);
+    }
+
+    /**
+     * Все следующие объявления - от одного продавца (для проверок списка продавца).
+     */
+    public ItemPayloadGenerator withSellerId(int sellerId) {
+        this.fixedSellerId = sellerId;
+        return this;
+    }
+
+    public Item next() {
+        int sellerId = nextSellerId();
+        int adjective = random.nextInt(ADJECTIVES.length);
+        int material = random.nextInt(MATERIALS.length);
+        int product = random.nextInt(PRODUCTS.length);
+        name.setLength(0);
+        name.append(ADJECTIVES[adjective]).append(' ').append(MATERIALS[material]).append(' ').append(PRODUCTS[product]);
+        return new Item(sellerId, name.toString(), prices.next(random));
+    }
+
+    /**
+     * Дописывает в буфер JSON следующего объявления: {"sellerId":123456,"name":"Sleek Steel Chair","price":7}.
+     * Последовательность случайных чисел та же, что у {@link #next()}.
+     */
+    public void writeNext(PayloadBuffer buffer) {
+        int sellerId = nextSellerId();
+        buffer.write(SELLER_ID_FIELD);
+        buffer.writeInt(sellerId);
+        buffer.write(NAME_FIELD);
+        buffer.write(ADJECTIVE_BYTES[random.nextInt(ADJECTIVES.length)]);
+        buffer.write((byte) ' ');
+        buffer.write(MATERIAL_BYTES[random.nextInt(MATERIALS.length)]);
+        buffer.write((byte) ' ');
+        buffer.write(PRODUCT_BYTES[random.nextInt(PRODUCTS.length)]);
+        buffer.write(PRICE_FIELD);
+        buffer.writeInt(prices.next(random));
+        buffer.write((byte) '}');
+    }
+
+    private int nextSellerId() {
+        return fixedSellerId >= 0 ? fixedSellerId : random.nextInt(MIN_SELLER_ID, MAX_SELLER_ID + 1);
+    }
+
+    private static byte[][] encode(String[] words) {
+        byte[][] encoded = new byte[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            encoded[i] = words[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return encoded;
+    }
+}
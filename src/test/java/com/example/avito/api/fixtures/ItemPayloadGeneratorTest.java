@@ -0,0 +1,123 @@
+package com.example.avito.api.fixtures;
+
+import com.example.avito.api.models.Item;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemPayloadGeneratorTest {
+
+    @Test
+    @DisplayName("writeNext пишет ту же последовательность, что и next()")
+    void testWriteNextMatchesNext() {
+        for (PriceDistribution prices : PriceDistribution.values()) {
+            ItemPayloadGenerator items = new ItemPayloadGenerator(42, prices);
+            ItemPayloadGenerator payloads = new ItemPayloadGenerator(42, prices);
+            PayloadBuffer buffer = new PayloadBuffer(8);
+            for (int i = 0; i < 1000; i++) {
+                buffer.clear();
+                payloads.writeNext(buffer);
+                assertEquals(toJson(items.next()), new String(buffer.toByteArray(), StandardCharsets.US_ASCII),
+                        prices + ", объявление " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("writeNext и next() с фиксированным продавцом совпадают")
+    void testFixedSeller() {
+        ItemPayloadGenerator items = new ItemPayloadGenerator(7).withSellerId(123456);
+        ItemPayloadGenerator payloads = new ItemPayloadGenerator(7).withSellerId(123456);
+        PayloadBuffer buffer = new PayloadBuffer();
+        for (int i = 0; i < 100; i++) {
+            Item item = items.next();
+            assertEquals(123456, item.getSellerId());
+            buffer.clear();
+            payloads.writeNext(buffer);
+            assertEquals(toJson(item), new String(buffer.toByteArray(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    @DisplayName("Одинаковый seed даёт одинаковые объявления, разный - разные")
+    void testSameSeedSameOutput() {
+        assertEquals(generate(ItemPayloadGenerator.forThread(42, 3, PriceDistribution.UNIFORM), 200),
+                generate(ItemPayloadGenerator.forThread(42, 3, PriceDistribution.UNIFORM), 200));
+        assertNotEquals(generate(ItemPayloadGenerator.forThread(42, 3, PriceDistribution.UNIFORM), 200),
+                generate(ItemPayloadGenerator.forThread(42, 4, PriceDistribution.UNIFORM), 200));
+        assertNotEquals(generate(new ItemPayloadGenerator(42), 200), generate(new ItemPayloadGenerator(43), 200));
+    }
+
+    @Test
+    @DisplayName("PayloadBuffer.writeInt совпадает с Integer.toString")
+    void testWriteInt() {
+        int[] values = {0, 1, -1, 9, 10, -10, 99, 100, -999_999, 123456, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Integer.MIN_VALUE + 1};
+        for (int value : values) {
+            assertWritten(value);
+        }
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertWritten(random.nextInt());
+        }
+    }
+
+    @Test
+    @DisplayName("PayloadBuffer растёт и дописывает числа подряд")
+    void testWriteIntAppends() {
+        PayloadBuffer buffer = new PayloadBuffer(1);
+        buffer.writeInt(Integer.MIN_VALUE);
+        buffer.write((byte) ',');
+        buffer.writeInt(0);
+        buffer.write((byte) ',');
+        buffer.writeInt(-42);
+        assertEquals("-2147483648,0,-42", new String(buffer.toByteArray(), StandardCharsets.US_ASCII));
+        assertEquals(17, buffer.length());
+    }
+
+    @Test
+    @DisplayName("BOUNDARIES выдаёт ровно цены из testCreateItemWithPriceBoundaries")
+    void testBoundaries() {
+        // Те же цены и ожидаемые коды, что в AvitoApiPositiveTests.testCreateItemWithPriceBoundaries
+        assertArrayEquals(new int[]{0, 1, Integer.MAX_VALUE, -1}, PriceDistribution.BOUNDARY_VALUES);
+        Set<Integer> seen = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            seen.add(PriceDistribution.BOUNDARIES.next(random));
+        }
+        assertEquals(Set.of(0, Integer.MAX_VALUE, -1, 1), seen);
+        assertTrue(PriceDistribution.isValid(0));
+        assertTrue(PriceDistribution.isValid(1));
+        assertTrue(PriceDistribution.isValid(Integer.MAX_VALUE));
+        assertFalse(PriceDistribution.isValid(-1));
+    }
+
+    private static void assertWritten(int value) {
+        PayloadBuffer buffer = new PayloadBuffer(4);
+        buffer.writeInt(value);
+        assertEquals(Integer.toString(value), new String(buffer.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    private static String generate(ItemPayloadGenerator generator, int count) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            out.append(toJson(generator.next())).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String toJson(Item item) {
+        return "{\"sellerId\":" + item.getSellerId() + ",\"name\":\"" + item.getName() + "\",\"price\":"
+                + item.getPrice() + "}";
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.avito.api.fixtures;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Переиспользуемый буфер для тела запроса. После отправки (синхронной) тот же буфер заполняется следующим
+ * телом без новых аллокаций; пока запрос в полёте, буфер трогать нельзя.
+ */
+public class PayloadBuffer {
+
+    private static final byte[] INT_MIN = String.valueOf(Integer.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] bytes;
+    private int length;
+
+    public PayloadBuffer() {
+        this(256);
+    }
+
+    public PayloadBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void clear() {
+        length = 0;
+    }
+
+    /**
+     * Тело для HttpClient без копирования массива.
+     */
+    public HttpRequest.BodyPublisher bodyPublisher() {
+        return HttpRequest.BodyPublishers.ofByteArray(bytes, 0, length);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    void write(byte value) {
+        ensureCapacity(length + 1);
+        bytes[length++] = value;
+    }
+
+    void write(byte[] values) {
+        ensureCapacity(length + values.length);
+        System.arraycopy(values, 0, bytes, length, values.length);
+        length += values.length;
+    }
+
+    void writeInt(int value) {
+        if (value == Integer.MIN_VALUE) {
+            write(INT_MIN);
+            return;
+        }
+        ensureCapacity(length + 11);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.avito.api.fixtures;
+
+import java.util.SplittableRandom;
+
+/**
+ * Распределение цен для {@link ItemPayloadGenerator}.
+ */
+public enum PriceDistribution {
+    /**
+     * Цифра 1..9, как faker.number().randomDigitNotZero() в тестах.
+     */
+    DIGIT {
+        @Override
+        int next(SplittableRandom random) {
+            return random.nextInt(1, 10);
+        }
+    },
+    /**
+     * Равномерно 1..100 000 - правдоподобные цены для нагрузки.
+     */
+    UNIFORM {
+        @Override
+        int next(SplittableRandom random) {
+            return random.nextInt(1, 100_001);
+        }
+    },
+    /**
+     * Граничные значения из testCreateItemWithPriceBoundaries: 0, 1, Integer.MAX_VALUE и невалидная -1.
+     */
+    BOUNDARIES {
+        @Override
+        int next(SplittableRandom random) {
+            return BOUNDARY_VALUES[random.nextInt(BOUNDARY_VALUES.length)];
+        }
+    };
+
+    static final int[] BOUNDARY_VALUES = {0, 1, Integer.MAX_VALUE, -1};
+
+    abstract int next(SplittableRandom random);
+
+    /**
+     * Ожидаемая реакция API по контракту: отрицательная цена - 400, остальные - 200.
+     */
+    public static boolean isValid(int price) {
+        return price >= 0;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.avito.api.fuzz;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.RawHttp;
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.replay.ResponseNormalizer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Фаззинг валидации тела POST /api/1/item и параметров пути GET-ручек по свойствам {@link FuzzOracle}.
+ * <p>
+ * Случаи из {@link FuzzGenerator} выполняются параллельно (не больше {@code avito.fuzz.concurrency} одновременно).
+ * Проблемы группируются по сигнатуре ответа: ручка, нарушенное свойство, причина по оракулу, код и тело ответа
+ * без переменных частей (UUID, числа, само входное значение). Первый случай каждой проблемы сокращается
+ * {@link Shrinker} до минимального, воспроизводящего ту же сигнатуру. Итог пишется в
+ * {@code avito.fuzz.output} записями в стиле BUGS.md.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.fuzz.ApiFuzzer -Davito.fuzz.cases=2000 -Davito.seed=42}
+ */
+public class ApiFuzzer {
+
+    private static final int MAX_SIGNATURE_BODY = 160;
+    private static final int MAX_EXAMPLE_LENGTH = 300;
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final int shrinkAttempts;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Finding> findings = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+
+    public ApiFuzzer(String baseUrl, int concurrency, int shrinkAttempts) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.shrinkAttempts = shrinkAttempts;
+        this.httpClient = RawHttp.newClient(baseUrl);
+    }
+
+    public void run(List<FuzzCase> cases) throws InterruptedException {
+        forEachParallel(cases, fuzzCase -> {
+            Verdict verdict = check(fuzzCase);
+            executed.increment();
+            if (verdict != null) {
+                findings.computeIfAbsent(verdict.signature(), signature -> new Finding(fuzzCase, verdict))
+                        .occurrences.increment();
+            }
+        });
+        // Сокращение - после основного прохода, по одному случаю на проблему
+        forEachParallel(List.copyOf(findings.values()), finding -> {
+            FuzzCase minimal = Shrinker.shrink(finding.original, candidate -> {
+                Verdict verdict = check(candidate);
+                return verdict != null && verdict.signature().equals(finding.verdict.signature());
+            }, shrinkAttempts);
+            finding.minimal = minimal;
+            finding.minimalVerdict = Objects.requireNonNullElse(check(minimal), finding.verdict);
+        });
+    }
+
+    private <T> void forEachParallel(List<T> items, Consumer<T> action) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T item : items) {
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        action.accept(item);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Выполняет случай и сверяет ответ с ожиданием оракула; null - свойство выполнено (или ошибка транспорта).
+     */
+    Verdict check(FuzzCase fuzzCase) {
+        FuzzOracle.Expectation expected = FuzzOracle.expect(fuzzCase);
+        HttpResponse<String> response = send(fuzzCase);
+        if (response == null) {
+            return null;
+        }
+        int status = response.statusCode();
+        String body = response.body();
+        String expectedText = "код " + expected.statuses().stream().sorted().map(String::valueOf)
+                .collect(Collectors.joining(" или ")) + " (" + expected.reason() + ")";
+        String actualText = "код " + status + ", ответ: " + truncate(body, MAX_EXAMPLE_LENGTH);
+
+        if (status >= 500) {
+            return verdict(fuzzCase, "Ошибка сервера", expected, status, body, expectedText, actualText);
+        }
+        if (!expected.statuses().contains(status)) {
+            String title;
+            if (status == 200 && expected.statuses().equals(Set.of(400))) {
+                title = "Принимается невалидный запрос: " + expected.reason();
+            } else if (expected.statuses().equals(Set.of(200)) && status == 400) {
+                title = "Отклоняется валидный запрос";
+            } else {
+                title = "Неожиданный код ответа " + status + ": " + expected.reason();
+            }
+            return verdict(fuzzCase, title, expected, status, body, expectedText, actualText);
+        }
+        if (status == 200 && fuzzCase.target() == FuzzCase.Target.SELLER_ITEMS && !isJsonArray(body)) {
+            return verdict(fuzzCase, "Список объявлений продавца не JSON-массив", expected, status, body,
+                    "JSON-массив объявлений", actualText);
+        }
+        if (status == 200 && expected.roundTrip()) {
+            return checkRoundTrip(fuzzCase, expected, body);
+        }
+        return null;
+    }
+
+    /**
+     * Созданное объявление должно читаться через GET /api/1/item/{id} с теми же sellerId, name и price.
+     */
+    private Verdict checkRoundTrip(FuzzCase fuzzCase, FuzzOracle.Expectation expected, String createBody) {
+        String id = UuidCodec.extract(createBody);
+        if (id == null) {
+            return new Verdict(fuzzCase.target() + "|нет ID|" + normalize(createBody, fuzzCase.value()),
+                    "В ответе на создание нет ID объявления", "сообщение с UUID созданного объявления",
+                    "ответ: " + truncate(createBody, MAX_EXAMPLE_LENGTH));
+        }
+        HttpResponse<String> read = send(new FuzzCase(FuzzCase.Target.ITEM_BY_ID, id));
+        if (read == null) {
+            return null;
+        }
+        try {
+            JsonNode sent = mapper.readTree(fuzzCase.value());
+            JsonNode stored = mapper.readTree(read.body()).path(0);
+            if (read.statusCode() != 200 || stored.isMissingNode()) {
+                return new Verdict(fuzzCase.target() + "|не читается|" + read.statusCode(),
+                        "Созданное объявление не читается по ID", "код 200 и объявление " + id,
+                        "код " + read.statusCode() + ", ответ: " + truncate(read.body(), MAX_EXAMPLE_LENGTH));
+            }
+            TreeSet<String> differentFields = new TreeSet<>();
+            JsonNode sellerId = sent.has("sellerID") ? sent.get("sellerID") : sent.get("sellerId");
+            if (!sellerId.equals(stored.path("sellerId"))) {
+                differentFields.add("sellerId");
+            }
+            if (!sent.get("name").equals(stored.path("name"))) {
+                differentFields.add("name");
+            }
+            if (!sent.get("price").equals(stored.path("price"))) {
+                differentFields.add("price");
+            }
+            if (!differentFields.isEmpty()) {
+                return new Verdict(fuzzCase.target() + "|сохранение|" + differentFields,
+                        "Сохранённое объявление отличается от отправленного: " + String.join(", ", differentFields),
+                        "sellerId, name и price как в запросе (" + expected.reason() + ")",
+                        "GET /api/1/item/" + id + ": " + truncate(read.body(), MAX_EXAMPLE_LENGTH));
+            }
+            return null;
+        } catch (IOException e) {
+            return new Verdict(fuzzCase.target() + "|не JSON|" + read.statusCode(),
+                    "Ответ на чтение созданного объявления не JSON", "JSON-массив с объявлением",
+                    "ответ: " + truncate(read.body(), MAX_EXAMPLE_LENGTH));
+        }
+    }
+
+    private static Verdict verdict(FuzzCase fuzzCase, String title, FuzzOracle.Expectation expected, int status,
+                                   String body, String expectedText, String actualText) {
+        String signature = fuzzCase.target() + "|" + expected.reason() + "|" + status + "|"
+                + normalize(body, fuzzCase.value());
+        return new Verdict(signature, title, expectedText, actualText);
+    }
+
+    private HttpResponse<String> send(FuzzCase fuzzCase) {
+        HttpRequest request = fuzzCase.target() == FuzzCase.Target.CREATE_ITEM
+                ? RawHttp.request(baseUrl, "POST", fuzzCase.path(), fuzzCase.value().getBytes(StandardCharsets.UTF_8))
+                : RawHttp.request(baseUrl, "GET", fuzzCase.path(), null);
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            transportErrors.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private boolean isJsonArray(String body) {
+        try {
+            return mapper.readTree(body).isArray();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Тело ответа без переменных частей: входное значение, UUID, id/createdAt и числа не различают проблемы.
+     */
+    static String normalize(String body, String input) {
+        String text = input.length() >= 3 ? body.replace(input, "<input>") : body;
+        JsonNode tree = ResponseNormalizer.normalize(text.getBytes(StandardCharsets.UTF_8));
+        String normalized = tree != null ? tree.toString() : text;
+        return truncate(normalized.replaceAll("[0-9]+", "#"), MAX_SIGNATURE_BODY);
+    }
+
+    private static String truncate(String text, int limit) {
+        return text.length() <= limit ? text : text.substring(0, limit) + "... (" + text.length() + " символов)";
+    }
+
+    public List<Finding> getFindings() {
+        List<Finding> sorted = new ArrayList<>(findings.values());
+        sorted.sort(Comparator.comparingLong((Finding finding) -> finding.occurrences.sum()).reversed()
+                .thenComparing(finding -> finding.verdict.signature()));
+        return sorted;
+    }
+
+    /**
+     * Отчёт в стиле BUGS.md: по записи на проблему с минимальным и исходным примером.
+     */
+    public String formatReport(long seed) {
+        StringBuilder report = new StringBuilder();
+        report.append("# BUG REPORT (фаззинг)\n\n");
+        report.append(String.format("Стенд: %s, seed: %d, случаев: %d, ошибок транспорта: %d, уникальных проблем: %d%n%n",
+                baseUrl, seed, executed.sum(), transportErrors.sum(), findings.size()));
+        int number = 1;
+        for (Finding finding : getFindings()) {
+            FuzzCase minimal = finding.minimal != null ? finding.minimal : finding.original;
+            Verdict verdict = finding.minimalVerdict != null ? finding.minimalVerdict : finding.verdict;
+            report.append(String.format("**%d. %s:**%n%n", number++, finding.verdict.title()));
+            report.append("* **Ручка:** `").append(minimal.target().getMethod()).append(' ')
+                    .append(minimal.target().getEndpoint()).append("`\n");
+            report.append("* **Ожидаемое поведение:** ").append(verdict.expected()).append('\n');
+            report.append("* **Фактическое поведение:** ").append(verdict.actual()).append('\n');
+            report.append("* **Минимальный пример:** ").append(example(minimal)).append('\n');
+            if (!minimal.equals(finding.original)) {
+                report.append("* **Исходный случай:** ").append(example(finding.original)).append('\n');
+            }
+            report.append("* **Повторений:** ").append(finding.occurrences.sum()).append(" из ")
+                    .append(executed.sum()).append(" случаев\n\n");
+        }
+        report.append("## Шаги для воспроизведения:\n\n");
+        report.append("Запустить `fuzz.ApiFuzzer` с `-Davito.seed=").append(seed)
+                .append("` и тем же `avito.fuzz.cases`, либо отправить минимальные примеры вручную.\n");
+        return report.toString();
+    }
+
+    private static String example(FuzzCase fuzzCase) {
+        if (fuzzCase.target() == FuzzCase.Target.CREATE_ITEM) {
+            return "\n    ```json\n    " + truncate(fuzzCase.value(), MAX_EXAMPLE_LENGTH) + "\n    ```";
+        }
+        return "`" + fuzzCase.describe() + "` (значение параметра: `" + truncate(fuzzCase.value(), MAX_EXAMPLE_LENGTH) + "`)";
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long seed = Long.getLong("avito.seed", System.nanoTime());
+        int caseCount = Integer.getInteger("avito.fuzz.cases", 500);
+        Path output = Path.of(System.getProperty("avito.fuzz.output", "target/fuzz-bugs.md"));
+        ApiFuzzer fuzzer = new ApiFuzzer(AvitoApiConfig.getBaseUrl(),
+                Integer.getInteger("avito.fuzz.concurrency", 16),
+                Integer.getInteger("avito.fuzz.shrinkAttempts", 200));
+
+        FuzzGenerator generator = new FuzzGenerator(seed);
+        List<FuzzCase> cases = new ArrayList<>(caseCount);
+        for (int i = 0; i < caseCount; i++) {
+            cases.add(generator.next());
+        }
+        System.out.printf("Фаззинг %s: %d случаев, seed %d%n", fuzzer.baseUrl, caseCount, seed);
+        long start = System.nanoTime();
+        fuzzer.run(cases);
+        System.out.printf("Завершено за %.1fs, уникальных проблем: %d%n", (System.nanoTime() - start) / 1e9,
+                fuzzer.findings.size());
+        for (Finding finding : fuzzer.getFindings()) {
+            System.out.printf("  %4d x %s%n", finding.occurrences.sum(), finding.verdict.title());
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, fuzzer.formatReport(seed), StandardCharsets.UTF_8);
+        System.out.println("Отчёт: " + output);
+        System.exit(0);
+    }
+
+    /**
+     * Нарушение свойства; signature различает проблемы, остальное - для отчёта.
+     */
+    record Verdict(String signature, String title, String expected, String actual) {
+    }
+
+    public static final class Finding {
+        private final FuzzCase original;
+        private final Verdict verdict;
+        private final LongAdder occurrences = new LongAdder();
+        private volatile FuzzCase minimal;
+        private volatile Verdict minimalVerdict;
+
+        private Finding(FuzzCase original, Verdict verdict) {
+            this.original = original;
+            this.verdict = verdict;
+        }
+
+        public FuzzCase getOriginal() {
+            return original;
+        }
+
+        public FuzzCase getMinimal() {
+            return minimal;
+        }
+
+        public long getOccurrences() {
+            return occurrences.sum();
+        }
+    }
+}
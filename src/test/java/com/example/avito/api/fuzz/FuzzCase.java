@@ -0,0 +1,53 @@
+package com.example.avito.api.fuzz;
+
+import com.example.avito.api.AvitoApiConfig;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Один случай фаззинга: ручка и сырое значение - тело POST /api/1/item или параметр пути GET-ручки.
+ * Значение хранится текстом, поэтому одинаково генерируется, мутируется, сокращается и печатается в отчёте.
+ */
+public record FuzzCase(Target target, String value) {
+
+    public enum Target {
+        CREATE_ITEM("POST", AvitoApiConfig.ITEM_ENDPOINT),
+        ITEM_BY_ID("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT),
+        STATISTIC("GET", AvitoApiConfig.STATISTIC_ENDPOINT),
+        SELLER_ITEMS("GET", AvitoApiConfig.SELLER_ITEM_ENDPOINT);
+
+        private final String method;
+        private final String endpoint;
+
+        Target(String method, String endpoint) {
+            this.method = method;
+            this.endpoint = endpoint;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+    }
+
+    /**
+     * Путь запроса; параметр пути кодируется целиком, чтобы "/" и "?" в значении не меняли ручку.
+     */
+    public String path() {
+        String encoded = URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+        return switch (target) {
+            case CREATE_ITEM -> AvitoApiConfig.ITEM_ENDPOINT;
+            case ITEM_BY_ID -> AvitoApiConfig.ITEM_ENDPOINT + "/" + encoded;
+            case STATISTIC -> "/api/1/statistic/" + encoded;
+            case SELLER_ITEMS -> "/api/1/" + encoded + "/item";
+        };
+    }
+
+    public String describe() {
+        return target.method + " " + (target == Target.CREATE_ITEM ? target.endpoint : path());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.avito.api.fuzz;
+
+import com.example.avito.api.ids.UuidCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор случаев фаззинга: структурированные тела объявления (каждое поле - валидное значение, граничное
+ * значение своего или чужого типа, либо отсутствует), синтаксически испорченный JSON, мутации готовых тел
+ * и параметры пути (варианты записи UUID и целых чисел, юникод, длины). Последовательность определяется seed.
+ */
+final class FuzzGenerator {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private static final String[] SPECIAL_STRINGS = {
+            "", " ", "\t\n", "Привет, мир", "😀😀", "e\u0301", "\u202Eabc", "\u200B", "a\u0000b", "日本語",
+            "\"quoted\"", "back\\slash", "<script>alert(1)</script>", "' OR 1=1 --", "../../etc/passwd", "%00",
+            "null", "true", "0", "-1", "1e3", "NaN"
+    };
+    private static final String[] MALFORMED_BODIES = {
+            "", "null", "[]", "\"item\"", "42", "true", "{", "}", "{\"sellerId\":", "{\"sellerId\":1,}",
+            "{'sellerId':1}", "[{\"sellerId\":1,\"name\":\"a\",\"price\":1}]"
+    };
+    private static final String[] INT_STRINGS = {
+            "0", "-1", "1", "2147483647", "2147483648", "-2147483648", "-2147483649", "9223372036854775807",
+            "9223372036854775808", "007", "+5", " 5", "5 ", "1e3", "0x1F", "1.0", "١٢٣", "１２３", "99999999999999999999999"
+    };
+
+    private final SplittableRandom random;
+
+    FuzzGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    FuzzCase next() {
+        int roll = random.nextInt(10);
+        if (roll < 6) {
+            return new FuzzCase(FuzzCase.Target.CREATE_ITEM, payload());
+        }
+        if (roll < 7) {
+            return new FuzzCase(FuzzCase.Target.ITEM_BY_ID, itemId());
+        }
+        if (roll < 8) {
+            return new FuzzCase(FuzzCase.Target.STATISTIC, itemId());
+        }
+        return new FuzzCase(FuzzCase.Target.SELLER_ITEMS, sellerId());
+    }
+
+    private String payload() {
+        if (random.nextInt(10) == 0) {
+            return MALFORMED_BODIES[random.nextInt(MALFORMED_BODIES.length)];
+        }
+        ObjectNode item = NODES.objectNode();
+        field(item, random.nextInt(10) == 0 ? "sellerID" : "sellerId",
+                NODES.numberNode(random.nextInt(111111, 1_000_000)));
+        field(item, "name", NODES.textNode(word(1 + random.nextInt(30))));
+        field(item, "price", NODES.numberNode(random.nextInt(0, 100_000)));
+        if (random.nextInt(10) == 0) {
+            item.set("unexpected", edgeValue());
+        }
+        String body = item.toString();
+        return random.nextInt(10) == 0 ? mutate(body) : body;
+    }
+
+    /**
+     * Поле с вероятностью 0.6 получает валидное значение, 0.1 - отсутствует, иначе - граничное значение.
+     */
+    private void field(ObjectNode item, String name, JsonNode valid) {
+        int roll = random.nextInt(10);
+        if (roll < 6) {
+            item.set(name, valid);
+        } else if (roll > 6) {
+            item.set(name, edgeValue());
+        }
+    }
+
+    private JsonNode edgeValue() {
+        return switch (random.nextInt(18)) {
+            case 0 -> NODES.numberNode(0);
+            case 1 -> NODES.numberNode(-1);
+            case 2 -> NODES.numberNode(Integer.MAX_VALUE);
+            case 3 -> NODES.numberNode(Integer.MIN_VALUE);
+            case 4 -> NODES.numberNode(1L << 31);
+            case 5 -> NODES.numberNode(Long.MAX_VALUE);
+            case 6 -> NODES.numberNode(BigInteger.TEN.pow(30));
+            case 7 -> NODES.numberNode(1.5);
+            case 8 -> NODES.numberNode(1000.0);
+            case 9 -> NODES.numberNode(-0.0);
+            case 10 -> NODES.booleanNode(random.nextBoolean());
+            case 11 -> NODES.nullNode();
+            case 12 -> NODES.arrayNode().add(1);
+            case 13 -> NODES.objectNode();
+            default -> NODES.textNode(edgeString());
+        };
+    }
+
+    private String edgeString() {
+        return switch (random.nextInt(6)) {
+            case 0 -> SPECIAL_STRINGS[random.nextInt(SPECIAL_STRINGS.length)];
+            case 1 -> "a".repeat(new int[]{999, 1000, 1001, 5000}[random.nextInt(4)]);
+            case 2 -> "я".repeat(new int[]{999, 1000, 1001}[random.nextInt(3)]);
+            case 3 -> "😀".repeat(new int[]{500, 501, 1000}[random.nextInt(3)]);
+            case 4 -> unicode(1 + random.nextInt(50));
+            default -> word(1 + random.nextInt(30));
+        };
+    }
+
+    /**
+     * Мутация готового тела: удаление, дублирование или замена символа, обрезка.
+     */
+    private String mutate(String body) {
+        int position = random.nextInt(body.length());
+        return switch (random.nextInt(4)) {
+            case 0 -> body.substring(0, position) + body.substring(position + 1);
+            case 1 -> body.substring(0, position) + body.charAt(position) + body.substring(position);
+            case 2 -> body.substring(0, position) + "\"{}[],:0-".charAt(random.nextInt(9)) + body.substring(position + 1);
+            default -> body.substring(0, position);
+        };
+    }
+
+    private String itemId() {
+        // UUID из генератора случая, а не UUID.randomUUID(), - чтобы seed воспроизводил и параметры пути
+        String uuid = UuidCodec.toString(random.nextLong(), random.nextLong());
+        return switch (random.nextInt(10)) {
+            case 0, 1, 2 -> uuid;
+            case 3 -> uuid.toUpperCase();
+            case 4 -> uuid.replace("-", "");
+            case 5 -> "{" + uuid + "}";
+            case 6 -> uuid.substring(0, 35);
+            case 7 -> uuid + "0";
+            case 8 -> "1-1-1-1-1";
+            default -> nonEmpty(edgeString());
+        };
+    }
+
+    private String sellerId() {
+        return switch (random.nextInt(5)) {
+            case 0, 1 -> INT_STRINGS[random.nextInt(INT_STRINGS.length)];
+            case 2 -> Integer.toString(random.nextInt());
+            default -> nonEmpty(edgeString());
+        };
+    }
+
+    private String word(int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    /**
+     * Случайные символы из ASCII, кириллицы, CJK и эмодзи (суррогатные пары).
+     */
+    private String unicode(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            int codePoint = switch (random.nextInt(4)) {
+                case 0 -> 0x20 + random.nextInt(0x5F);
+                case 1 -> 0x0410 + random.nextInt(0x40);
+                case 2 -> 0x4E00 + random.nextInt(0x1000);
+                default -> 0x1F600 + random.nextInt(0x50);
+            };
+            text.appendCodePoint(codePoint);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Пустой параметр пути меняет ручку (/api/1/item/), а "." и ".." нормализуются в путь выше.
+     */
+    private static String nonEmpty(String value) {
+        return value.isEmpty() || value.equals(".") || value.equals("..") ? " " : value;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.avito.api.fuzz;
+
+import com.example.avito.api.ids.UuidCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ожидаемый ответ на случай фаззинга по правилам валидации, которые проверяют позитивные и негативные тесты:
+ * sellerId и price - целые числа int32, price неотрицательная, name - непустая строка не длиннее 1000 символов,
+ * ID объявления - UUID, ID продавца - целое число. Где поведение API не определено однозначно
+ * (UUID в фигурных скобках, числа за пределами int32, длина имени в кодовых точках и в UTF-16),
+ * допустимы несколько кодов. При двух написаниях ID продавца берётся sellerID, как в API.
+ */
+final class FuzzOracle {
+
+    static final int MAX_NAME_LENGTH = 1000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final BigInteger INT_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+    private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private FuzzOracle() {
+    }
+
+    /**
+     * @param statuses  допустимые коды ответа
+     * @param roundTrip 200 на создание должен сопровождаться тем же объявлением в GET /api/1/item/{id}
+     * @param reason    чем случай отличается от валидного (или "валидный")
+     */
+    record Expectation(Set<Integer> statuses, boolean roundTrip, String reason) {
+    }
+
+    static Expectation expect(FuzzCase fuzzCase) {
+        if (fuzzCase.target() != FuzzCase.Target.CREATE_ITEM && fuzzCase.value().contains("/")) {
+            // Закодированный слеш часть серверов декодирует до маршрутизации - тогда ручка не находится
+            return new Expectation(Set.of(400, 404), false, "слеш в параметре пути");
+        }
+        return switch (fuzzCase.target()) {
+            case CREATE_ITEM -> expectPayload(fuzzCase.value());
+            case ITEM_BY_ID, STATISTIC -> expectItemId(fuzzCase.value());
+            case SELLER_ITEMS -> expectSellerId(fuzzCase.value());
+        };
+    }
+
+    private static Expectation expectPayload(String body) {
+        JsonNode tree;
+        try {
+            tree = MAPPER.readTree(body);
+        } catch (IOException e) {
+            return reject("тело не JSON");
+        }
+        if (tree == null || !tree.isObject()) {
+            return reject("тело не JSON-объект");
+        }
+        JsonNode sellerId = tree.has("sellerID") ? tree.get("sellerID") : tree.get("sellerId");
+        JsonNode name = tree.get("name");
+        JsonNode price = tree.get("price");
+        String lenient = null;
+
+        IntCheck sellerCheck = checkInt(sellerId);
+        if (sellerCheck == IntCheck.INVALID) {
+            return reject(sellerId == null || sellerId.isNull() ? "нет sellerId" : "sellerId не целое число");
+        }
+        if (sellerCheck == IntCheck.OUT_OF_INT32) {
+            lenient = "число за пределами int32";
+        }
+
+        if (name == null || name.isNull()) {
+            return reject("нет name");
+        }
+        if (!name.isTextual()) {
+            return reject("name не строка");
+        }
+        if (name.textValue().isBlank()) {
+            return reject("name пустое");
+        }
+        String text = name.textValue();
+        if (text.length() > MAX_NAME_LENGTH) {
+            if (text.codePointCount(0, text.length()) > MAX_NAME_LENGTH) {
+                return reject("name длиннее " + MAX_NAME_LENGTH + " символов");
+            }
+            // String.length() считает суррогатные пары за два символа, а API может считать кодовые точки
+            lenient = "name длиннее " + MAX_NAME_LENGTH + " символов только в UTF-16";
+        }
+
+        IntCheck priceCheck = checkInt(price);
+        if (priceCheck == IntCheck.INVALID) {
+            return reject(price == null || price.isNull() ? "нет price" : "price не целое число");
+        }
+        if (price.bigIntegerValue().signum() < 0) {
+            return reject("price отрицательная");
+        }
+        if (priceCheck == IntCheck.OUT_OF_INT32) {
+            lenient = "число за пределами int32";
+        }
+
+        if (lenient != null) {
+            // Оба исхода - разумная реализация (int64, длина в кодовых точках): принимаем оба, без проверки сохранения
+            return new Expectation(Set.of(200, 400), false, lenient);
+        }
+        return new Expectation(Set.of(200), true, "валидный");
+    }
+
+    private static Expectation expectItemId(String value) {
+        if (UuidCodec.isUuid(value.toLowerCase(Locale.ROOT))) {
+            return new Expectation(Set.of(404), false, "UUID несуществующего объявления");
+        }
+        String hex = value.toLowerCase(Locale.ROOT).replace("urn:uuid:", "").replace("{", "").replace("}", "")
+                .replace("-", "");
+        if (hex.length() == 32 && hex.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            // Неканоническая запись UUID: часть библиотек её принимает
+            return new Expectation(Set.of(400, 404), false, "неканонический UUID");
+        }
+        return reject("ID не UUID");
+    }
+
+    private static Expectation expectSellerId(String value) {
+        if (!value.matches("[+-]?[0-9]+")) {
+            return reject("ID продавца не целое число");
+        }
+        BigInteger number = new BigInteger(value.startsWith("+") ? value.substring(1) : value);
+        if (number.compareTo(INT_MIN) >= 0 && number.compareTo(INT_MAX) <= 0) {
+            return new Expectation(Set.of(200), false, "целый ID продавца");
+        }
+        if (number.compareTo(LONG_MIN) >= 0 && number.compareTo(LONG_MAX) <= 0) {
+            return new Expectation(Set.of(200, 400), false, "ID продавца за пределами int32");
+        }
+        return reject("ID продавца за пределами int64");
+    }
+
+    private enum IntCheck {
+        VALID,
+        OUT_OF_INT32,
+        INVALID
+    }
+
+    private static IntCheck checkInt(JsonNode node) {
+        if (node == null || !node.isIntegralNumber()) {
+            return IntCheck.INVALID;
+        }
+        BigInteger value = node.bigIntegerValue();
+        if (value.compareTo(INT_MIN) >= 0 && value.compareTo(INT_MAX) <= 0) {
+            return IntCheck.VALID;
+        }
+        return value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0 ? IntCheck.OUT_OF_INT32 : IntCheck.INVALID;
+    }
+
+    private static Expectation reject(String reason) {
+        return new Expectation(Set.of(400), false, reason);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.avito.api.fuzz;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FuzzOracleTest {
+
+    private static final Set<Integer> OK = Set.of(200);
+    private static final Set<Integer> BAD = Set.of(400);
+    private static final Set<Integer> EITHER = Set.of(200, 400);
+    private static final String UUID = "b50a7d79-25bd-462b-9630-a2ad0b1b1e91";
+
+    @Test
+    @DisplayName("sellerId и sellerID: при обоих написаниях берётся sellerID")
+    void testSellerIdSpelling() {
+        expectBody("{\"sellerId\":123456,\"name\":\"n\",\"price\":1}", OK, true);
+        expectBody("{\"sellerID\":123456,\"name\":\"n\",\"price\":1}", OK, true);
+        expectBody("{\"sellerID\":123456,\"sellerId\":\"x\",\"name\":\"n\",\"price\":1}", OK, true);
+        expectBody("{\"sellerID\":\"x\",\"sellerId\":123456,\"name\":\"n\",\"price\":1}", BAD, false);
+        expectBody("{\"sellerid\":123456,\"name\":\"n\",\"price\":1}", BAD, false);
+        expectBody("{\"sellerId\":null,\"name\":\"n\",\"price\":1}", BAD, false);
+    }
+
+    @Test
+    @DisplayName("name: пустое, 1000 и 1001 символ, суррогатные пары")
+    void testNameLength() {
+        expectBody(body("\"\""), BAD, false);
+        expectBody(body("\"  \\t \""), BAD, false);
+        expectBody(body("null"), BAD, false);
+        expectBody(body("42"), BAD, false);
+        expectBody(body(quoted("a".repeat(1000))), OK, true);
+        expectBody(body(quoted("a".repeat(1001))), BAD, false);
+        expectBody(body(quoted("я".repeat(1000))), OK, true);
+        expectBody(body(quoted("я".repeat(1001))), BAD, false);
+        // 500 эмодзи - 1000 единиц UTF-16, укладываются при любом способе подсчёта
+        expectBody(body(quoted("😀".repeat(500))), OK, true);
+        // 501 и 1000 эмодзи длиннее 1000 только в UTF-16: допустимы оба кода
+        expectBody(body(quoted("😀".repeat(501))), EITHER, false);
+        expectBody(body(quoted("😀".repeat(1000))), EITHER, false);
+        expectBody(body(quoted("a" + "😀".repeat(1000))), BAD, false);
+        // Экранированная пара \\uD83D\\uDE00 - тот же символ после разбора JSON
+        expectBody(body(quoted("\\uD83D\\uDE00".repeat(1000))), EITHER, false);
+    }
+
+    @Test
+    @DisplayName("Числа за пределами int32 допускают оба кода, за пределами int64 - 400")
+    void testOutOfInt32() {
+        expectBody("{\"sellerId\":2147483647,\"name\":\"n\",\"price\":2147483647}", OK, true);
+        expectBody("{\"sellerId\":-2147483648,\"name\":\"n\",\"price\":0}", OK, true);
+        expectBody("{\"sellerId\":2147483648,\"name\":\"n\",\"price\":1}", EITHER, false);
+        expectBody("{\"sellerId\":-2147483649,\"name\":\"n\",\"price\":1}", EITHER, false);
+        expectBody("{\"sellerId\":1,\"name\":\"n\",\"price\":9223372036854775807}", EITHER, false);
+        expectBody("{\"sellerId\":1,\"name\":\"n\",\"price\":9223372036854775808}", BAD, false);
+        expectBody("{\"sellerId\":1,\"name\":\"n\",\"price\":-2147483649}", BAD, false);
+        expectBody("{\"sellerId\":1,\"name\":\"n\",\"price\":-1}", BAD, false);
+        expectBody("{\"sellerId\":1,\"name\":\"n\",\"price\":1.0}", BAD, false);
+        expectBody("{\"sellerId\":1,\"name\":\"n\",\"price\":\"1\"}", BAD, false);
+        // Невалидное поле важнее неоднозначного
+        expectBody("{\"sellerId\":2147483648,\"name\":\"\",\"price\":1}", BAD, false);
+    }
+
+    @Test
+    @DisplayName("Тело не JSON-объект")
+    void testNotObject() {
+        expectBody("", BAD, false);
+        expectBody("{\"sellerId\":1,", BAD, false);
+        expectBody("[]", BAD, false);
+        expectBody("null", BAD, false);
+    }
+
+    @Test
+    @DisplayName("ID объявления: регистр, фигурные скобки, запись без дефисов")
+    void testItemId() {
+        for (FuzzCase.Target target : new FuzzCase.Target[]{FuzzCase.Target.ITEM_BY_ID, FuzzCase.Target.STATISTIC}) {
+            expect(target, UUID, Set.of(404), false);
+            expect(target, UUID.toUpperCase(), Set.of(404), false);
+            expect(target, "{" + UUID + "}", Set.of(400, 404), false);
+            expect(target, UUID.replace("-", ""), Set.of(400, 404), false);
+            expect(target, "urn:uuid:" + UUID, Set.of(400, 404), false);
+            expect(target, UUID.substring(1), BAD, false);
+            expect(target, UUID.replace('b', 'g'), BAD, false);
+            expect(target, "", BAD, false);
+            expect(target, UUID + "/x", Set.of(400, 404), false);
+        }
+    }
+
+    @Test
+    @DisplayName("ID продавца: +5, 007, границы int32 и int64")
+    void testSellerIdPath() {
+        FuzzCase.Target target = FuzzCase.Target.SELLER_ITEMS;
+        expect(target, "123456", OK, false);
+        expect(target, "+5", OK, false);
+        expect(target, "007", OK, false);
+        expect(target, "-1", OK, false);
+        expect(target, "2147483648", EITHER, false);
+        expect(target, "+9223372036854775807", EITHER, false);
+        expect(target, "9223372036854775808", BAD, false);
+        expect(target, "5.0", BAD, false);
+        expect(target, "+", BAD, false);
+        expect(target, "1e3", BAD, false);
+        expect(target, " 5", BAD, false);
+    }
+
+    private static String body(String name) {
+        return "{\"sellerId\":123456,\"name\":" + name + ",\"price\":1}";
+    }
+
+    private static String quoted(String text) {
+        return "\"" + text + "\"";
+    }
+
+    private static void expectBody(String body, Set<Integer> statuses, boolean roundTrip) {
+        expect(FuzzCase.Target.CREATE_ITEM, body, statuses, roundTrip);
+    }
+
+    private static void expect(FuzzCase.Target target, String value, Set<Integer> statuses, boolean roundTrip) {
+        FuzzOracle.Expectation expectation = FuzzOracle.expect(new FuzzCase(target, value));
+        String description = target + " " + (value.length() > 60 ? value.substring(0, 60) + "..." : value)
+                + " -> " + expectation.reason();
+        assertEquals(statuses, expectation.statuses(), description);
+        assertEquals(roundTrip, expectation.roundTrip(), description);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.avito.api.fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Жадное сокращение упавшего случая: из кандидатов проще текущего (короче, меньше не-ASCII символов)
+ * берётся первый, который воспроизводит ту же проблему, и так до неподвижной точки или исчерпания попыток.
+ * Тело-объект сокращается по полям (удаление поля, более простое значение), остальное - как строка
+ * (половины, удаление фрагментов и отдельных символов, замена не-ASCII символов).
+ */
+final class Shrinker {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final int SINGLE_CHAR_LIMIT = 40;
+
+    private Shrinker() {
+    }
+
+    static FuzzCase shrink(FuzzCase original, Predicate<FuzzCase> reproduces, int maxAttempts) {
+        FuzzCase current = original;
+        int attempts = 0;
+        boolean improved = true;
+        while (improved && attempts < maxAttempts) {
+            improved = false;
+            for (String candidate : candidates(current)) {
+                if (!isSimpler(candidate, current.value())) {
+                    continue;
+                }
+                if (attempts++ >= maxAttempts) {
+                    break;
+                }
+                FuzzCase next = new FuzzCase(current.target(), candidate);
+                if (reproduces.test(next)) {
+                    current = next;
+                    improved = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Строгий порядок "проще": длина, затем число не-ASCII символов, затем лексикографически - сокращение конечно.
+     */
+    static boolean isSimpler(String candidate, String current) {
+        if (candidate.length() != current.length()) {
+            return candidate.length() < current.length();
+        }
+        long candidateNonAscii = nonAscii(candidate);
+        long currentNonAscii = nonAscii(current);
+        if (candidateNonAscii != currentNonAscii) {
+            return candidateNonAscii < currentNonAscii;
+        }
+        return candidate.compareTo(current) < 0;
+    }
+
+    private static Set<String> candidates(FuzzCase fuzzCase) {
+        Set<String> candidates = new LinkedHashSet<>();
+        if (fuzzCase.target() == FuzzCase.Target.CREATE_ITEM) {
+            ObjectNode object = parseObject(fuzzCase.value());
+            if (object != null) {
+                objectCandidates(object, candidates);
+                return candidates;
+            }
+        }
+        stringCandidates(fuzzCase.value(), fuzzCase.target() == FuzzCase.Target.CREATE_ITEM, candidates);
+        return candidates;
+    }
+
+    private static void objectCandidates(ObjectNode object, Set<String> out) {
+        List<String> names = new ArrayList<>();
+        object.fieldNames().forEachRemaining(names::add);
+        for (String name : names) {
+            ObjectNode without = object.deepCopy();
+            without.remove(name);
+            out.add(without.toString());
+        }
+        for (String name : names) {
+            for (JsonNode simpler : simplerValues(object.get(name))) {
+                ObjectNode replaced = object.deepCopy();
+                replaced.set(name, simpler);
+                out.add(replaced.toString());
+            }
+        }
+    }
+
+    private static List<JsonNode> simplerValues(JsonNode value) {
+        List<JsonNode> simpler = new ArrayList<>();
+        if (value.isTextual()) {
+            Set<String> strings = new LinkedHashSet<>();
+            stringCandidates(value.textValue(), true, strings);
+            strings.forEach(text -> simpler.add(NODES.textNode(text)));
+        } else if (value.isIntegralNumber()) {
+            BigInteger number = value.bigIntegerValue();
+            simpler.add(NODES.numberNode(0));
+            simpler.add(NODES.numberNode(1));
+            simpler.add(NODES.numberNode(number.signum()));
+            simpler.add(NODES.numberNode(number.divide(BigInteger.TWO)));
+        } else if (value.isNumber()) {
+            simpler.add(NODES.numberNode(value.longValue()));
+            simpler.add(NODES.numberNode(0));
+        } else if (value.isContainerNode()) {
+            Iterator<JsonNode> elements = value.elements();
+            if (elements.hasNext()) {
+                simpler.add(elements.next());
+            }
+            simpler.add(value.isArray() ? NODES.arrayNode() : NODES.objectNode());
+            simpler.add(NODES.nullNode());
+        } else if (!value.isNull()) {
+            simpler.add(NODES.nullNode());
+        }
+        return simpler;
+    }
+
+    private static void stringCandidates(String value, boolean allowEmpty, Set<String> out) {
+        int length = value.length();
+        if (allowEmpty) {
+            out.add("");
+        }
+        if (length > 1) {
+            out.add(value.substring(0, length / 2));
+            out.add(value.substring(length / 2));
+        }
+        // Удаление фрагментов длиной length/4, length/8, ... - как в delta debugging
+        for (int chunk = length / 4; chunk > 1; chunk /= 2) {
+            for (int start = 0; start + chunk <= length; start += chunk) {
+                out.add(value.substring(0, start) + value.substring(start + chunk));
+            }
+        }
+        if (length <= SINGLE_CHAR_LIMIT) {
+            for (int i = 0; i < length; i++) {
+                out.add(value.substring(0, i) + value.substring(i + 1));
+            }
+        } else if (length > 0) {
+            out.add(value.substring(0, length - 1));
+        }
+        StringBuilder ascii = new StringBuilder(length);
+        value.chars().forEach(c -> ascii.append(c < 0x80 ? (char) c : 'a'));
+        out.add(ascii.toString());
+        out.removeIf(candidate -> !allowEmpty && candidate.isBlank());
+    }
+
+    private static ObjectNode parseObject(String body) {
+        try {
+            return MAPPER.readTree(body) instanceof ObjectNode object ? object : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static long nonAscii(String text) {
+        return text.chars().filter(c -> c >= 0x80).count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.avito.api.fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShrinkerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("Строка сокращается до минимального воспроизводящего фрагмента")
+    void testShrinkString() {
+        Predicate<FuzzCase> containsX = fuzzCase -> fuzzCase.value().contains("x");
+        FuzzCase original = new FuzzCase(FuzzCase.Target.ITEM_BY_ID, "b50a7d79-25bd-x62b-9630-a2ad0b1b1e91");
+
+        FuzzCase shrunk = Shrinker.shrink(original, containsX, 10_000);
+
+        assertEquals(new FuzzCase(FuzzCase.Target.ITEM_BY_ID, "x"), shrunk);
+        assertFixedPoint(shrunk, containsX);
+    }
+
+    @Test
+    @DisplayName("Не-ASCII символы заменяются, если проблема от них не зависит")
+    void testShrinkNonAscii() {
+        Predicate<FuzzCase> atLeastThree = fuzzCase -> fuzzCase.value().length() >= 3;
+        FuzzCase shrunk = Shrinker.shrink(new FuzzCase(FuzzCase.Target.SELLER_ITEMS, "я😀ё12"), atLeastThree, 10_000);
+
+        assertEquals(3, shrunk.value().length());
+        assertTrue(shrunk.value().chars().allMatch(c -> c < 0x80), shrunk.value());
+        assertFixedPoint(shrunk, atLeastThree);
+    }
+
+    @Test
+    @DisplayName("Тело сокращается по полям до минимального случая с той же причиной")
+    void testShrinkBody() throws Exception {
+        Predicate<FuzzCase> negativePrice = fuzzCase ->
+                FuzzOracle.expect(fuzzCase).reason().equals("price отрицательная");
+        FuzzCase original = new FuzzCase(FuzzCase.Target.CREATE_ITEM,
+                "{\"sellerId\":345678,\"name\":\"Sleek Steel Chair\",\"price\":-734,\"extra\":[1,2,3]}");
+
+        FuzzCase shrunk = Shrinker.shrink(original, negativePrice, 10_000);
+
+        JsonNode body = MAPPER.readTree(shrunk.value());
+        assertEquals(3, body.size(), shrunk.value());
+        assertEquals(0, body.get("sellerId").intValue(), shrunk.value());
+        assertEquals(1, body.get("name").textValue().length(), shrunk.value());
+        assertEquals(-1, body.get("price").intValue(), shrunk.value());
+        assertFixedPoint(shrunk, negativePrice);
+    }
+
+    @Test
+    @DisplayName("Случай, который нечем упростить, возвращается как есть")
+    void testAlreadyMinimal() {
+        FuzzCase minimal = new FuzzCase(FuzzCase.Target.SELLER_ITEMS, "a");
+        assertEquals(minimal, Shrinker.shrink(minimal, fuzzCase -> true, 10_000));
+        FuzzCase unreproducible = new FuzzCase(FuzzCase.Target.SELLER_ITEMS, "abcdef");
+        assertEquals(unreproducible, Shrinker.shrink(unreproducible, fuzzCase -> false, 10_000));
+    }
+
+    @Test
+    @DisplayName("Число проверок ограничено maxAttempts")
+    void testMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append(i);
+        }
+        FuzzCase original = new FuzzCase(FuzzCase.Target.SELLER_ITEMS, value.toString());
+        FuzzCase shrunk = Shrinker.shrink(original, fuzzCase -> {
+            calls.incrementAndGet();
+            return false;
+        }, 25);
+
+        assertEquals(original, shrunk);
+        assertEquals(25, calls.get());
+    }
+
+    @Test
+    @DisplayName("isSimpler - строгий порядок")
+    void testIsSimpler() {
+        assertTrue(Shrinker.isSimpler("ab", "abc"));
+        assertTrue(Shrinker.isSimpler("ab", "aя"));
+        assertTrue(Shrinker.isSimpler("aa", "ab"));
+        assertFalse(Shrinker.isSimpler("ab", "ab"));
+        assertFalse(Shrinker.isSimpler("abc", "ab"));
+        assertFalse(Shrinker.isSimpler("aя", "zz"));
+    }
+
+    private static void assertFixedPoint(FuzzCase shrunk, Predicate<FuzzCase> reproduces) {
+        assertTrue(reproduces.test(shrunk), shrunk.value());
+        assertEquals(shrunk, Shrinker.shrink(shrunk, reproduces, 10_000));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.avito.api.ids;
+
+import java.util.UUID;
+
+/**
+ * Поиск и разбор UUID в тексте без регулярных выражений и без аллокаций: ID объявления из сообщения
+ * "Сохранили объявление - b50a7d79-25bd-462b-9630-a2ad0b1b1e91" превращается в два long.
+ * Ищется канонический UUID в нижнем регистре - тот же формат, что отдаёт API.
+ */
+public final class UuidCodec {
+
+    public static final int LENGTH = 36;
+
+    private UuidCodec() {
+    }
+
+    /**
+     * Позиция первого UUID в тексте или -1.
+     */
+    public static int indexOf(CharSequence text) {
+        if (text == null) {
+            return -1;
+        }
+        for (int start = 0; start + LENGTH <= text.length(); start++) {
+            if (isUuidAt(text, start)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Первый UUID в тексте строкой или null.
+     */
+    public static String extract(CharSequence text) {
+        int start = indexOf(text);
+        return start < 0 ? null : text.subSequence(start, start + LENGTH).toString();
+    }
+
+    public static boolean isUuid(CharSequence text) {
+        return text != null && text.length() == LENGTH && isUuidAt(text, 0);
+    }
+
+    public static boolean isUuidAt(CharSequence text, int start) {
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Старшие 64 бита UUID, начинающегося в позиции start (формат должен быть проверен {@link #isUuidAt}).
+     */
+    public static long high(CharSequence text, int start) {
+        return hex(text, start, start + 8) << 32
+                | hex(text, start + 9, start + 13) << 16
+                | hex(text, start + 14, start + 18);
+    }
+
+    /**
+     * Младшие 64 бита UUID, начинающегося в позиции start.
+     */
+    public static long low(CharSequence text, int start) {
+        return hex(text, start + 19, start + 23) << 48
+                | hex(text, start + 24, start + 36);
+    }
+
+    public static String toString(long high, long low) {
+        return new UUID(high, low).toString();
+    }
+
+    private static long hex(CharSequence text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            value = (value << 4) | (c <= '9' ? c - '0' : c - 'a' + 10);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.avito.api.ids;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UuidCodecTest {
+
+    @Test
+    @DisplayName("Разбор и запись UUID: два long туда и обратно совпадают с java.util.UUID")
+    void testRoundTrip() {
+        SplittableRandom random = new SplittableRandom(13);
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            String text = uuid.toString();
+            assertTrue(UuidCodec.isUuid(text), text);
+            assertEquals(uuid.getMostSignificantBits(), UuidCodec.high(text, 0), text);
+            assertEquals(uuid.getLeastSignificantBits(), UuidCodec.low(text, 0), text);
+            assertEquals(text, UuidCodec.toString(UuidCodec.high(text, 0), UuidCodec.low(text, 0)));
+        }
+        assertEquals("00000000-0000-0000-0000-000000000000", UuidCodec.toString(0, 0));
+        assertEquals(-1L, UuidCodec.high("ffffffff-ffff-ffff-ffff-ffffffffffff", 0));
+    }
+
+    @Test
+    @DisplayName("ID извлекается из сообщения о статусе, в том числе со смещением")
+    void testExtractFromStatus() {
+        String id = "b50a7d79-25bd-462b-9630-a2ad0b1b1e91";
+        String status = "Сохранили объявление - " + id;
+        assertEquals(id, UuidCodec.extract(status));
+        assertEquals(status.length() - UuidCodec.LENGTH, UuidCodec.indexOf(status));
+        assertEquals(UUID.fromString(id).getMostSignificantBits(), UuidCodec.high(status, UuidCodec.indexOf(status)));
+        // Первый из нескольких, мусор вокруг не мешает
+        assertEquals(id, UuidCodec.extract("x-" + id + "-" + UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Формат API - нижний регистр: UUID в верхнем регистре не распознаётся")
+    void testUpperCaseIsNotCanonical() {
+        String upper = "B50A7D79-25BD-462B-9630-A2AD0B1B1E91";
+        assertFalse(UuidCodec.isUuid(upper));
+        assertNull(UuidCodec.extract("Сохранили объявление - " + upper));
+    }
+
+    @Test
+    @DisplayName("Некорректные строки отклоняются")
+    void testMalformed() {
+        assertFalse(UuidCodec.isUuid(null));
+        assertFalse(UuidCodec.isUuid(""));
+        assertFalse(UuidCodec.isUuid("b50a7d79-25bd-462b-9630-a2ad0b1b1e9"));
+        assertFalse(UuidCodec.isUuid("b50a7d79-25bd-462b-9630-a2ad0b1b1e911"));
+        assertFalse(UuidCodec.isUuid("b50a7d79x25bd-462b-9630-a2ad0b1b1e91"));
+        assertFalse(UuidCodec.isUuid("b50a7d7925bd-462b-9630-a2ad0b1b1e91-"));
+        assertFalse(UuidCodec.isUuid("g50a7d79-25bd-462b-9630-a2ad0b1b1e91"));
+        assertFalse(UuidCodec.isUuid("b50a7d79-25bd-462b-9630-a2ad0b1b1e9 "));
+        assertNull(UuidCodec.extract(null));
+        assertNull(UuidCodec.extract("Сохранили объявление - 123"));
+        assertEquals(-1, UuidCodec.indexOf("короткая строка"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.avito.api.ids;
+
+/**
+ * Отображение UUID -> значение с открытой адресацией: ключи - по два long подряд в одном long[], значения -
+ * в параллельном массиве. Без строковых ключей, узлов и упаковки HashMap&lt;String, V&gt;: на миллионе
+ * объявлений это ~40 МБ ключей и ссылок вместо ~150 МБ. Удаления нет - сверка только накапливает
+ * записи. Не потокобезопасно.
+ */
+public final class UuidMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 28;
+
+    private long[] keys;
+    private Object[] values;
+    private int capacity;
+    private int mask;
+    private int size;
+    // Пара (0, 0) - признак пустой ячейки, поэтому значение nil-UUID хранится отдельно
+    private boolean containsNil;
+    private V nilValue;
+
+    public UuidMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Связывает UUID со значением и возвращает прежнее значение или null.
+     */
+    public V put(long high, long low, V value) {
+        if (high == 0 && low == 0) {
+            V previous = nilValue;
+            if (!containsNil) {
+                containsNil = true;
+                size++;
+            }
+            nilValue = value;
+            return previous;
+        }
+        int index = find(high, low);
+        if (keys[2 * index] != 0 || keys[2 * index + 1] != 0) {
+            V previous = valueAt(index);
+            values[index] = value;
+            return previous;
+        }
+        if ((size + 1) * 3L > capacity * 2L) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException("Отображение UUID переполнено: " + size);
+            }
+            resize();
+            index = find(high, low);
+        }
+        keys[2 * index] = high;
+        keys[2 * index + 1] = low;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Связывает UUID в канонической записи со значением. Строки не в формате UUID отклоняются.
+     */
+    public V put(CharSequence uuid, V value) {
+        if (!UuidCodec.isUuid(uuid)) {
+            throw new IllegalArgumentException("Не UUID: " + uuid);
+        }
+        return put(UuidCodec.high(uuid, 0), UuidCodec.low(uuid, 0), value);
+    }
+
+    public V get(long high, long low) {
+        if (high == 0 && low == 0) {
+            return nilValue;
+        }
+        return valueAt(find(high, low));
+    }
+
+    /**
+     * Значение по UUID в канонической записи или null, в том числе для строк не в формате UUID.
+     */
+    public V get(CharSequence uuid) {
+        return UuidCodec.isUuid(uuid) ? get(UuidCodec.high(uuid, 0), UuidCodec.low(uuid, 0)) : null;
+    }
+
+    public boolean containsKey(long high, long low) {
+        if (high == 0 && low == 0) {
+            return containsNil;
+        }
+        int index = find(high, low);
+        return keys[2 * index] != 0 || keys[2 * index + 1] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ячейка с ключом или первая пустая на его пути.
+     */
+    private int find(long high, long low) {
+        int index = index(high, low);
+        while (true) {
+            long storedHigh = keys[2 * index];
+            long storedLow = keys[2 * index + 1];
+            if ((storedHigh == 0 && storedLow == 0) || (storedHigh == high && storedLow == low)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    private int index(long high, long low) {
+        // То же перемешивание, что в UuidSet
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity * 2);
+        for (int i = 0; i < oldValues.length; i++) {
+            long high = oldKeys[2 * i];
+            long low = oldKeys[2 * i + 1];
+            if (high != 0 || low != 0) {
+                int index = find(high, low);
+                keys[2 * index] = high;
+                keys[2 * index + 1] = low;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        keys = new long[newCapacity * 2];
+        values = new Object[newCapacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long required = Math.max(MIN_CAPACITY, expectedSize * 3L / 2 + 1);
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Слишком большое отображение: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) (required - 1)) << 1;
+    }
+}
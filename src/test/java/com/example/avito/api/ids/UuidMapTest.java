@@ -0,0 +1,75 @@
+package com.example.avito.api.ids;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UuidMapTest {
+
+    @Test
+    @DisplayName("Рост таблицы и перезапись: отображение совпадает с HashMap на всех этапах")
+    void testGrowthMatchesHashMap() {
+        UuidMap<Integer> map = new UuidMap<>(0);
+        Map<UUID, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 50_000; i++) {
+            // Узкий диапазон значений - много перезаписей
+            UUID uuid = new UUID(random.nextLong(4096), random.nextLong(16));
+            assertEquals(expected.put(uuid, i), map.put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), i));
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((uuid, value) -> {
+            assertEquals(value, map.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            assertTrue(map.containsKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        });
+        for (int i = 0; i < 10_000; i++) {
+            UUID absent = new UUID(4096 + random.nextLong(4096), random.nextLong());
+            assertNull(map.get(absent.getMostSignificantBits(), absent.getLeastSignificantBits()));
+        }
+    }
+
+    @Test
+    @DisplayName("Коллизии на заполнении 2/3 и ключи, отличающиеся одной половиной")
+    void testCollisionsAtFullLoad() {
+        UuidMap<String> map = new UuidMap<>(20);
+        for (int i = 1; i <= 21; i++) {
+            assertNull(map.put(i, i * 31L, "v" + i));
+        }
+        for (int i = 1; i <= 21; i++) {
+            assertEquals("v" + i, map.get(i, i * 31L));
+        }
+        assertFalse(map.containsKey(1, 32));
+        assertNull(map.get(2, 31));
+        assertEquals(21, map.size());
+    }
+
+    @Test
+    @DisplayName("Nil-UUID и значение null, строки разбираются через UuidCodec")
+    void testNilNullAndStrings() {
+        UuidMap<String> map = new UuidMap<>(4);
+        assertFalse(map.containsKey(0, 0));
+        assertNull(map.put("00000000-0000-0000-0000-000000000000", "nil"));
+        assertEquals("nil", map.put(0, 0, "nil2"));
+        assertEquals("nil2", map.get(0, 0));
+
+        String id = "b50a7d79-25bd-462b-9630-a2ad0b1b1e91";
+        assertNull(map.put(id, null));
+        assertTrue(map.containsKey(UuidCodec.high(id, 0), UuidCodec.low(id, 0)));
+        assertNull(map.put(id, "item"));
+        assertEquals("item", map.get(id));
+        assertNull(map.get("B50A7D79-25BD-462B-9630-A2AD0B1B1E91"));
+        assertNull(map.get("не uuid"));
+        assertThrows(IllegalArgumentException.class, () -> map.put("не uuid", "x"));
+        assertEquals(2, map.size());
+    }
+}
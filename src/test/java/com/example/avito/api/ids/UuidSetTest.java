@@ -0,0 +1,100 @@
+package com.example.avito.api.ids;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UuidSetTest {
+
+    @Test
+    @DisplayName("Рост таблицы: множество совпадает с HashSet на всех этапах")
+    void testGrowthMatchesHashSet() {
+        checkGrowthMatchesHashSet(false);
+        checkGrowthMatchesHashSet(true);
+    }
+
+    private static void checkGrowthMatchesHashSet(boolean offHeap) {
+        UuidSet set = offHeap ? UuidSet.offHeap(0) : new UuidSet(0);
+        long initialBytes = set.tableBytes();
+        Set<UUID> expected = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(offHeap ? 1 : 2);
+        for (int i = 0; i < 50_000; i++) {
+            // Узкий диапазон значений - много повторов
+            UUID uuid = new UUID(random.nextLong(4096), random.nextLong(16));
+            assertEquals(expected.add(uuid), set.add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+        assertEquals(expected.size(), set.size());
+        assertTrue(set.tableBytes() > initialBytes);
+        // Заполнение не больше 2/3
+        assertTrue(set.size() * 3L <= set.tableBytes() / 16 * 2);
+        for (UUID uuid : expected) {
+            assertTrue(set.contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()), uuid.toString());
+        }
+        for (int i = 0; i < 10_000; i++) {
+            UUID absent = new UUID(4096 + random.nextLong(4096), random.nextLong());
+            assertFalse(set.contains(absent.getMostSignificantBits(), absent.getLeastSignificantBits()));
+        }
+    }
+
+    @Test
+    @DisplayName("Коллизии: при заполнении 2/3 цепочки проб находят и отсутствующие, и присутствующие ключи")
+    void testCollisionsAtFullLoad() {
+        checkCollisionsAtFullLoad(false);
+        checkCollisionsAtFullLoad(true);
+    }
+
+    private static void checkCollisionsAtFullLoad(boolean offHeap) {
+        // Ожидаемый размер 20 - таблица на 32 ячейки, 21 элемент - ровно 2/3 без роста
+        UuidSet set = offHeap ? UuidSet.offHeap(20) : new UuidSet(20);
+        long bytes = set.tableBytes();
+        List<UUID> added = new ArrayList<>();
+        for (int i = 1; i <= 21; i++) {
+            UUID uuid = new UUID(i, i * 31L);
+            assertTrue(set.add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            added.add(uuid);
+        }
+        assertEquals(bytes, set.tableBytes());
+        for (UUID uuid : added) {
+            assertFalse(set.add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+        // Отличие только в одной половине - разные ключи
+        assertFalse(set.contains(1, 32));
+        assertFalse(set.contains(2, 31));
+        assertEquals(21, set.size());
+    }
+
+    @Test
+    @DisplayName("Nil-UUID (0, 0) хранится отдельно от пустых ячеек, строки разбираются через UuidCodec")
+    void testNilAndStrings() {
+        checkNilAndStrings(false);
+        checkNilAndStrings(true);
+    }
+
+    private static void checkNilAndStrings(boolean offHeap) {
+        UuidSet set = offHeap ? UuidSet.offHeap(4) : new UuidSet(4);
+        assertFalse(set.contains(0, 0));
+        assertTrue(set.add(0, 0));
+        assertFalse(set.add("00000000-0000-0000-0000-000000000000"));
+        assertTrue(set.contains(0, 0));
+
+        String id = "b50a7d79-25bd-462b-9630-a2ad0b1b1e91";
+        assertTrue(set.add(id));
+        UUID parsed = UUID.fromString(id);
+        assertTrue(set.contains(parsed.getMostSignificantBits(), parsed.getLeastSignificantBits()));
+        assertFalse(set.contains("B50A7D79-25BD-462B-9630-A2AD0B1B1E91"));
+        assertFalse(set.contains("не uuid"));
+        assertThrows(IllegalArgumentException.class, () -> set.add("не uuid"));
+        assertEquals(2, set.size());
+    }
+}
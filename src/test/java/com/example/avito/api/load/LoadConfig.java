@@ -0,0 +1,30 @@
+package com.example.avito.api.load;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Параметры прогона генератора нагрузки.
+ *
+ * @param model        открытая или закрытая модель
+ * @param ratePerSecond целевая частота запросов; для закрытой модели - темп (0 - без пауз между запросами)
+ * @param users        число пользователей закрытой модели
+ * @param duration     длительность замера
+ * @param warmup       длительность прогрева, результаты которого отбрасываются
+ * @param maxInFlight  предел одновременных запросов открытой модели, сверх него запросы считаются отброшенными
+ * @param seed         seed генератора тел запросов; одинаковый seed - одинаковый набор объявлений
+ */
+public record LoadConfig(LoadModel model, double ratePerSecond, int users, Duration duration, Duration warmup,
+                         int maxInFlight, long seed) {
+
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                LoadModel.valueOf(System.getProperty("avito.load.model", "open").toUpperCase(Locale.ROOT)),
+                Double.parseDouble(System.getProperty("avito.load.rate", "200")),
+                Integer.getInteger("avito.load.users", 16),
+                Duration.ofSeconds(Long.getLong("avito.load.duration", 30)),
+                Duration.ofSeconds(Long.getLong("avito.load.warmup", 5)),
+                Integer.getInteger("avito.load.maxInFlight", 10_000),
+                Long.getLong("avito.load.seed", System.nanoTime()));
+    }
+}
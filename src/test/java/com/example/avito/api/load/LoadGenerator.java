@@ -0,0 +1,177 @@
+package com.example.avito.api.load;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.fixtures.ItemPayloadGenerator;
+import com.example.avito.api.fixtures.PayloadBuffer;
+import com.example.avito.api.fixtures.PriceDistribution;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор нагрузки на виртуальных потоках.
+ * <p>
+ * Открытая модель планирует запросы с фиксированным шагом и меряет задержку от запланированного момента,
+ * поэтому медленный сервер не "замедляет" генератор и хвосты не занижаются (coordinated omission).
+ * Закрытая модель запускает N пользователей; при заданном темпе задержка также считается от плановой отправки.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.load.LoadGenerator -Davito.load.model=open -Davito.load.rate=500}
+ */
+public class LoadGenerator {
+
+    private final LoadConfig config;
+    private final LoadTarget target;
+
+    public LoadGenerator(LoadConfig config, LoadTarget target) {
+        this.config = config;
+        this.target = target;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        if (!config.warmup().isZero()) {
+            runPhase(config.warmup(), new LoadReport());
+        }
+        LoadReport report = new LoadReport();
+        long start = System.nanoTime();
+        runPhase(config.duration(), report);
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    private void runPhase(Duration duration, LoadReport report) throws InterruptedException {
+        if (config.model() == LoadModel.OPEN) {
+            runOpen(duration, report);
+        } else {
+            runClosed(duration, report);
+        }
+    }
+
+    private void runOpen(Duration duration, LoadReport report) {
+        double intervalNanos = 1e9 / config.ratePerSecond();
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        long phaseStart = System.nanoTime();
+        long phaseEnd = phaseStart + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = phaseStart + (long) (i * intervalNanos);
+                if (intendedStart >= phaseEnd) {
+                    break;
+                }
+                Pacing.parkUntil(intendedStart);
+                if (!inFlight.tryAcquire()) {
+                    report.recordDropped();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        execute(intendedStart, report);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void runClosed(Duration duration, LoadReport report) {
+        // Темп на пользователя: при rate=0 пользователи шлют запросы без пауз и поправка невозможна
+        long paceNanos = config.ratePerSecond() > 0 ? (long) (config.users() * 1e9 / config.ratePerSecond()) : 0;
+        long phaseStart = System.nanoTime();
+        long phaseEnd = phaseStart + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < config.users(); user++) {
+                // Разносим старты пользователей по интервалу темпа, чтобы не было залпа в первый момент
+                long firstStart = phaseStart + (paceNanos * user) / config.users();
+                executor.execute(() -> {
+                    long intendedStart = firstStart;
+                    while (true) {
+                        if (paceNanos == 0) {
+                            intendedStart = System.nanoTime();
+                        }
+                        if (intendedStart >= phaseEnd) {
+                            return;
+                        }
+                        Pacing.parkUntil(intendedStart);
+                        execute(intendedStart, report);
+                        intendedStart += paceNanos;
+                    }
+                });
+            }
+        }
+    }
+
+    private void execute(long intendedStart, LoadReport report) {
+        long actualStart = System.nanoTime();
+        try {
+            int status = target.execute();
+            long end = System.nanoTime();
+            report.record(status, end - intendedStart, end - actualStart);
+        } catch (Exception e) {
+            report.recordTransportError();
+        }
+    }
+
+    /**
+     * Операция POST /api/1/item со сгенерированным {@link com.example.avito.api.models.Item}.
+     * Тела пишутся {@link ItemPayloadGenerator} сразу в байтовые буферы из пула: на каждый запрос виртуальный поток
+     * новый, поэтому ThreadLocal не дал бы переиспользования, а пул - даёт.
+     */
+    public static LoadTarget createItemTarget(String baseUrl, long seed) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI uri = URI.create(baseUrl + AvitoApiConfig.getItemEndpoint());
+        Queue<PayloadSlot> pool = new ConcurrentLinkedQueue<>();
+        AtomicInteger slots = new AtomicInteger();
+
+        return () -> {
+            PayloadSlot slot = pool.poll();
+            if (slot == null) {
+                slot = new PayloadSlot(ItemPayloadGenerator.forThread(seed, slots.getAndIncrement(), PriceDistribution.UNIFORM),
+                        new PayloadBuffer());
+            }
+            try {
+                slot.buffer().clear();
+                slot.generator().writeNext(slot.buffer());
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .header("Accept", "application/json")
+                        .timeout(Duration.ofSeconds(30))
+                        .POST(slot.buffer().bodyPublisher())
+                        .build();
+                return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } finally {
+                // Запрос синхронный: после ответа буфер свободен и возвращается в пул
+                pool.offer(slot);
+            }
+        };
+    }
+
+    private record PayloadSlot(ItemPayloadGenerator generator, PayloadBuffer buffer) {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        String baseUrl = AvitoApiConfig.getBaseUrl();
+        System.out.printf("Нагрузка %s на %s: rate=%.1f/s users=%d duration=%s warmup=%s seed=%d%n",
+                config.model(), baseUrl, config.ratePerSecond(), config.users(), config.duration(), config.warmup(),
+                config.seed());
+
+        LoadReport report = new LoadGenerator(config, createItemTarget(baseUrl, config.seed())).run();
+        System.out.println(report.format());
+        System.exit(0);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.avito.api.load;
+
+/**
+ * Модель нагрузки генератора.
+ */
+public enum LoadModel {
+    /**
+     * Открытая модель: запросы приходят с фиксированной частотой независимо от того, успел ли сервер ответить.
+     */
+    OPEN,
+    /**
+     * Закрытая модель: N пользователей, каждый шлёт следующий запрос после ответа на предыдущий.
+     */
+    CLOSED
+}
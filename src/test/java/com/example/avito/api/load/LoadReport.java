@@ -0,0 +1,113 @@
+package com.example.avito.api.load;
+
+import com.example.avito.api.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Результаты прогона: коды ответов, пропускная способность и две гистограммы задержек -
+ * от запланированного момента отправки (с поправкой на coordinated omission) и от фактического.
+ */
+public class LoadReport {
+
+    private static final int MAX_STATUS = 600;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS);
+    private final LongAdder transportErrors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long elapsedNanos;
+
+    void record(int status, long latencyNanos, long serviceTimeNanos) {
+        latency.record(latencyNanos);
+        serviceTime.record(serviceTimeNanos);
+        if (status >= 0 && status < MAX_STATUS) {
+            statusCounts.incrementAndGet(status);
+        }
+    }
+
+    void recordTransportError() {
+        transportErrors.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getStatusCount(int status) {
+        return status >= 0 && status < MAX_STATUS ? statusCounts.get(status) : 0;
+    }
+
+    public long getTransportErrors() {
+        return transportErrors.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getCompleted() {
+        return latency.getTotalCount();
+    }
+
+    /**
+     * Перцентиль задержки, где отброшенные генератором запросы считаются не получившими ответа (бесконечно долгими):
+     * иначе при перегрузке в гистограмму попадают только успевшие запросы и хвост занижается.
+     * Long.MAX_VALUE - перцентиль приходится на отброшенные запросы.
+     */
+    public long getLatencyAtPercentileWithDropped(double percentile) {
+        long completed = getCompleted();
+        long total = completed + getDropped();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        if (target > completed) {
+            return Long.MAX_VALUE;
+        }
+        return latency.getValueAtPercentile(100.0 * target / completed);
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCompleted() * 1e9 / elapsedNanos;
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Длительность: %.1fs, выполнено: %d, пропускная способность: %.1f req/s%n",
+                elapsedNanos / 1e9, getCompleted(), getThroughput()));
+        report.append("Коды ответов:");
+        for (int status = 0; status < MAX_STATUS; status++) {
+            long count = statusCounts.get(status);
+            if (count > 0) {
+                report.append(' ').append(status).append('=').append(count);
+            }
+        }
+        report.append(String.format("%nТранспортные ошибки: %d, отброшено генератором: %d%n", getTransportErrors(), getDropped()));
+        report.append("Задержка (от плановой отправки): ").append(latency.formatSummary()).append(System.lineSeparator());
+        report.append("Время обслуживания:              ").append(serviceTime.formatSummary());
+        if (getDropped() > 0) {
+            report.append(System.lineSeparator()).append("С учётом отброшенных (без ответа):");
+            for (double percentile : new double[]{50, 90, 99, 99.9}) {
+                long value = getLatencyAtPercentileWithDropped(percentile);
+                report.append(String.format(" p%s=%s", percentile == 99.9 ? "99.9" : String.valueOf((int) percentile),
+                        value == Long.MAX_VALUE ? "нет ответа" : String.format("%.2fms", value / 1e6)));
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.avito.api.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadReportTest {
+
+    @Test
+    @DisplayName("Отброшенные запросы учитываются в перцентилях как оставшиеся без ответа")
+    void testPercentilesWithDropped() {
+        LoadReport report = new LoadReport();
+        for (int i = 1; i <= 95; i++) {
+            report.record(200, i * 1_000_000L, i * 1_000_000L);
+        }
+        for (int i = 0; i < 5; i++) {
+            report.recordDropped();
+        }
+
+        // p50 из 100 запросов - 50-й по порядку, он обслужен
+        long p50 = report.getLatencyAtPercentileWithDropped(50);
+        assertTrue(Math.abs(p50 - 50_000_000L) <= 50_000_000L / 64, "p50 = " + p50);
+        assertEquals(Long.MAX_VALUE, report.getLatencyAtPercentileWithDropped(99));
+        // Без отброшенных p99 занижен: 94-й из 95 обслуженных
+        assertTrue(report.getLatency().getValueAtPercentile(99) < 96_000_000L);
+    }
+
+    @Test
+    @DisplayName("Без отброшенных перцентили совпадают с гистограммой")
+    void testPercentilesWithoutDropped() {
+        LoadReport report = new LoadReport();
+        for (int i = 1; i <= 100; i++) {
+            report.record(200, i * 1_000_000L, i * 1_000_000L);
+        }
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            assertEquals(report.getLatency().getValueAtPercentile(percentile),
+                    report.getLatencyAtPercentileWithDropped(percentile));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.avito.api.load;
+
+/**
+ * Одна операция под нагрузкой. Возвращает HTTP-код ответа; исключение считается транспортной ошибкой.
+ */
+@FunctionalInterface
+public interface LoadTarget {
+    int execute() throws Exception;
+}
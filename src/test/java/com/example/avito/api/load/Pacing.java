@@ -0,0 +1,54 @@
+package com.example.avito.api.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Расписание открытой нагрузки: чередование операций по весам и ожидание запланированного момента запуска.
+ * Общие для {@link LoadGenerator}, прогона на стабильность, сценариев и монитора статистики.
+ */
+public final class Pacing {
+
+    private Pacing() {
+    }
+
+    /**
+     * Равномерное чередование по весам (smooth weighted round-robin): при весах 1:4:2:3 за 10 запросов
+     * каждая операция выполняется ровно свой вес раз, без серий одной операции подряд. При равенстве
+     * побеждает ключ, раньше встретившийся в weights.
+     */
+    public static <T> T[] interleave(Map<T, Integer> weights, IntFunction<T[]> newArray) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Пустая смесь операций: " + weights);
+        }
+        List<Map.Entry<T, Integer>> entries = new ArrayList<>(weights.entrySet());
+        int[] current = new int[entries.size()];
+        T[] result = newArray.apply(total);
+        for (int i = 0; i < total; i++) {
+            int best = -1;
+            for (int j = 0; j < entries.size(); j++) {
+                current[j] += entries.get(j).getValue();
+                if (best < 0 || current[j] > current[best]) {
+                    best = j;
+                }
+            }
+            current[best] -= total;
+            result[i] = entries.get(best).getKey();
+        }
+        return result;
+    }
+
+    /**
+     * Паркует поток до момента deadlineNanos по {@link System#nanoTime()}; ранние пробуждения досыпает.
+     */
+    public static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
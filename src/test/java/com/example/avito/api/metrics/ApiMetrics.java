@@ -0,0 +1,163 @@
+package com.example.avito.api.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Реестр метрик запросов к API по ручкам. Общий экземпляр {@link #global()} наполняют {@link ApiMetricsFilter}
+ * (RestAssured) и {@link com.example.avito.api.client.AvitoApiClient}; при завершении JVM снимок пишется
+ * в формате Prometheus text в файл {@code -Davito.metrics.file} (по умолчанию target/api-metrics.prom, none - не писать).
+ */
+public class ApiMetrics {
+
+    public static final String METRICS_FILE_PROPERTY = "avito.metrics.file";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    // Дополнительные метрики в формате Prometheus text (состояние клиентов и т.п.), дописываются в снимок
+    private final List<Supplier<String>> gaugeSources = new CopyOnWriteArrayList<>();
+
+    public static ApiMetrics global() {
+        return GlobalHolder.INSTANCE;
+    }
+
+    public void record(String method, String endpoint, int status, long durationNanos, long requestBytes, long responseBytes) {
+        endpoint(method, endpoint).record(status, durationNanos, requestBytes, responseBytes);
+    }
+
+    /**
+     * Обращение к кэшу клиента: hit - ответ отдан без запроса к API, miss - запрос ушёл на стенд.
+     */
+    public void recordCacheLookup(String method, String endpoint, boolean hit) {
+        endpoint(method, endpoint).recordCacheLookup(hit);
+    }
+
+    public void addGaugeSource(Supplier<String> source) {
+        gaugeSources.add(source);
+    }
+
+    private EndpointMetrics endpoint(String method, String endpoint) {
+        EndpointMetrics metrics = endpoints.get(method + ' ' + endpoint);
+        if (metrics == null) {
+            metrics = endpoints.computeIfAbsent(method + ' ' + endpoint, key -> new EndpointMetrics(method, endpoint));
+        }
+        return metrics;
+    }
+
+    /**
+     * Метрики ручки или null, если запросов к ней не было.
+     */
+    public EndpointMetrics get(String method, String endpoint) {
+        return endpoints.get(method + ' ' + endpoint);
+    }
+
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> result = new ArrayList<>(endpoints.values());
+        result.sort(Comparator.comparing(EndpointMetrics::getEndpoint).thenComparing(EndpointMetrics::getMethod));
+        return result;
+    }
+
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder();
+        List<EndpointMetrics> snapshot = getEndpoints();
+
+        out.append("# HELP avito_api_request_duration_seconds Latency of Avito API requests\n");
+        out.append("# TYPE avito_api_request_duration_seconds summary\n");
+        for (EndpointMetrics metrics : snapshot) {
+            LatencyHistogram latency = metrics.getLatency();
+            for (double quantile : QUANTILES) {
+                out.append("avito_api_request_duration_seconds{").append(labels(metrics))
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(latency.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            long count = latency.getTotalCount();
+            out.append("avito_api_request_duration_seconds_sum{").append(labels(metrics)).append("} ")
+                    .append(seconds((long) (latency.getMean() * count))).append('\n');
+            out.append("avito_api_request_duration_seconds_count{").append(labels(metrics)).append("} ")
+                    .append(count).append('\n');
+        }
+
+        out.append("# HELP avito_api_requests_total Avito API requests by status code (-1 - transport error)\n");
+        out.append("# TYPE avito_api_requests_total counter\n");
+        for (EndpointMetrics metrics : snapshot) {
+            metrics.getStatusCounts().forEach((status, count) ->
+                    out.append("avito_api_requests_total{").append(labels(metrics))
+                            .append(",status=\"").append(status).append("\"} ").append(count).append('\n'));
+        }
+
+        out.append("# HELP avito_api_request_bytes_total Request body bytes sent\n");
+        out.append("# TYPE avito_api_request_bytes_total counter\n");
+        for (EndpointMetrics metrics : snapshot) {
+            out.append("avito_api_request_bytes_total{").append(labels(metrics)).append("} ")
+                    .append(metrics.getRequestBytes()).append('\n');
+        }
+
+        out.append("# HELP avito_api_response_bytes_total Response body bytes received\n");
+        out.append("# TYPE avito_api_response_bytes_total counter\n");
+        for (EndpointMetrics metrics : snapshot) {
+            out.append("avito_api_response_bytes_total{").append(labels(metrics)).append("} ")
+                    .append(metrics.getResponseBytes()).append('\n');
+        }
+
+        out.append("# HELP avito_api_cache_lookups_total Client cache lookups (hit - served without a request)\n");
+        out.append("# TYPE avito_api_cache_lookups_total counter\n");
+        for (EndpointMetrics metrics : snapshot) {
+            if (metrics.getCacheHits() + metrics.getCacheMisses() > 0) {
+                out.append("avito_api_cache_lookups_total{").append(labels(metrics)).append(",result=\"hit\"} ")
+                        .append(metrics.getCacheHits()).append('\n');
+                out.append("avito_api_cache_lookups_total{").append(labels(metrics)).append(",result=\"miss\"} ")
+                        .append(metrics.getCacheMisses()).append('\n');
+            }
+        }
+        for (Supplier<String> source : gaugeSources) {
+            out.append(source.get());
+        }
+        return out.toString();
+    }
+
+    public void writeSnapshot(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, toPrometheusText(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать снимок метрик в " + file, e);
+        }
+    }
+
+    private static String labels(EndpointMetrics metrics) {
+        return "method=\"" + metrics.getMethod() + "\",endpoint=\"" + metrics.getEndpoint().replace("\"", "\\\"") + '"';
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+    }
+
+    private static final class GlobalHolder {
+        private static final ApiMetrics INSTANCE = new ApiMetrics();
+
+        static {
+            String file = System.getProperty(METRICS_FILE_PROPERTY, "target/api-metrics.prom");
+            if (!file.equals("none")) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    if (!INSTANCE.endpoints.isEmpty()) {
+                        INSTANCE.writeSnapshot(Path.of(file));
+                    }
+                }, "avito-metrics-snapshot"));
+            }
+        }
+    }
+}
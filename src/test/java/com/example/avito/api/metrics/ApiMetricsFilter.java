@@ -0,0 +1,85 @@
+package com.example.avito.api.metrics;
+
+import com.example.avito.api.AvitoApiConfig;
+import io.restassured.config.LogConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Лёгкий фильтр RestAssured вместо RequestLoggingFilter/ResponseLoggingFilter: вместо печати тел
+ * в stdout пишет время, код ответа и размеры тел по ручке в {@link ApiMetrics} и JFR.
+ * Тела запросов и ответов логируются только при упавшей проверке (см. {@link #loggingIfValidationFails()}).
+ */
+public class ApiMetricsFilter implements Filter {
+
+    public static final ApiMetricsFilter INSTANCE = new ApiMetricsFilter();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String method = requestSpec.getMethod();
+        String endpoint = AvitoApiConfig.resolveEndpointTemplate(requestSpec.getDerivedPath());
+        long requestBytes = bodySize(requestSpec.getBody());
+        RequestTimer timer = RequestTimer.start();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            timer.stop(method, endpoint, -1, requestBytes, 0);
+            throw e;
+        }
+        timer.stop(method, endpoint, response.statusCode(), requestBytes, responseSize(response));
+        return response;
+    }
+
+    /**
+     * Конфигурация RestAssured, при которой запрос и ответ печатаются только если проверка в then() не прошла.
+     */
+    public static RestAssuredConfig loggingIfValidationFails() {
+        return RestAssuredConfig.config().logConfig(LogConfig.logConfig().enableLoggingOfRequestAndResponseIfValidationFails());
+    }
+
+    private static long bodySize(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return utf8Length(body.toString());
+    }
+
+    private static long responseSize(Response response) {
+        String contentLength = response.getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength);
+            } catch (NumberFormatException ignored) {
+                // chunked или некорректный заголовок - считаем по телу
+            }
+        }
+        return response.asByteArray().length;
+    }
+
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.avito.api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-событие на каждый запрос к API. Пока запись JFR не включена, стоимость события - проверка флага в commit().
+ * Просмотр: {@code -XX:StartFlightRecording=filename=target/api.jfr}, затем {@code jfr print --events ApiRequest target/api.jfr}.
+ */
+@Name("com.example.avito.ApiRequest")
+@Label("Avito API Request")
+@Category({"Avito API"})
+@Description("HTTP-запрос к API Avito: ручка, код ответа и размеры тел")
+@StackTrace(false)
+public class ApiRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseBytes;
+}
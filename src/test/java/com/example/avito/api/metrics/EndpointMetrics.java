@@ -0,0 +1,85 @@
+package com.example.avito.api.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одной ручки (метод + шаблон пути). Счётчики на {@link LongAdder}, гистограммы lock-free -
+ * параллельные запросы не конкурируют за одну ячейку памяти.
+ */
+public class EndpointMetrics {
+
+    private final String method;
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // Размеры ответов в байтах - та же лог-линейная гистограмма, единицы не важны
+    private final LatencyHistogram responseSizes = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    EndpointMetrics(String method, String endpoint) {
+        this.method = method;
+        this.endpoint = endpoint;
+    }
+
+    void record(int status, long durationNanos, long requestSize, long responseSize) {
+        latency.record(durationNanos);
+        responseSizes.record(responseSize);
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+        requestBytes.add(requestSize);
+        responseBytes.add(responseSize);
+    }
+
+    void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getResponseSizes() {
+        return responseSizes;
+    }
+
+    /**
+     * Коды ответов в порядке возрастания; -1 - транспортная ошибка без ответа.
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new ConcurrentSkipListMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * Ответы, отданные кэшем клиента без запроса к API.
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.avito.api.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Значения меньше 128 хранятся точно")
+    void testSmallValuesAreExact() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.highestEquivalentValue((int) value));
+        }
+    }
+
+    @Test
+    @DisplayName("Границы корзин: highestEquivalentValue - последнее значение корзины, следующее - уже в новой")
+    void testBucketBoundaries() {
+        int lastIndex = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        for (int index = 0; index < lastIndex; index++) {
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertEquals(index, LatencyHistogram.indexOf(highest), "корзина " + index);
+            assertEquals(index + 1, LatencyHistogram.indexOf(highest + 1), "корзина " + index);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(lastIndex));
+    }
+
+    @Test
+    @DisplayName("Относительная погрешность корзины не больше 1/64")
+    void testRelativeError() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(1, Long.MAX_VALUE >>> random.nextInt(62));
+            long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value, "значение " + value);
+            assertTrue((highest - value) <= value / 64, "значение " + value + ", граница корзины " + highest);
+        }
+    }
+
+    @Test
+    @DisplayName("Перцентили равномерного распределения в пределах погрешности")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros, TimeUnit.MICROSECONDS);
+        }
+        assertEquals(10_000, histogram.getTotalCount());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            double expected = percentile * 100 * 1000;
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(Math.abs(actual - expected) <= expected / 64, "p" + percentile + " = " + actual);
+        }
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(1_000, histogram.getMin());
+        assertEquals(10_000_000, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("Снимок забирает записи, add объединяет гистограммы")
+    void testSnapshotAndAdd() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(5_000_000);
+
+        LatencyHistogram snapshot = histogram.snapshotAndReset();
+        assertEquals(2, snapshot.getTotalCount());
+        assertEquals(5_000_000, snapshot.getMax());
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMax());
+
+        histogram.record(7);
+        histogram.add(snapshot);
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(7, histogram.getMin());
+        assertEquals(5_000_000, histogram.getMax());
+    }
+}
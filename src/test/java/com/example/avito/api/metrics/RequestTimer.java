@@ -0,0 +1,43 @@
+package com.example.avito.api.metrics;
+
+/**
+ * Замер одного запроса: время в {@link ApiMetrics#global()}, текущую {@link ScopedLatency} и JFR-событие {@link ApiRequestEvent}.
+ * <pre>{@code
+ * RequestTimer timer = RequestTimer.start();
+ * ... запрос ...
+ * timer.stop("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT, status, requestBytes, responseBytes);
+ * }</pre>
+ */
+public final class RequestTimer {
+
+    private final ApiRequestEvent event = new ApiRequestEvent();
+    private final long startNanos;
+
+    private RequestTimer() {
+        event.begin();
+        startNanos = System.nanoTime();
+    }
+
+    public static RequestTimer start() {
+        return new RequestTimer();
+    }
+
+    /**
+     * Завершает замер и возвращает длительность запроса в наносекундах. status = -1 - ответа не было.
+     */
+    public long stop(String method, String endpoint, int status, long requestBytes, long responseBytes) {
+        long durationNanos = System.nanoTime() - startNanos;
+        event.end();
+        ApiMetrics.global().record(method, endpoint, status, durationNanos, requestBytes, responseBytes);
+        ScopedLatency.record(method, endpoint, durationNanos);
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.requestBytes = requestBytes;
+            event.responseBytes = responseBytes;
+            event.commit();
+        }
+        return durationNanos;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.avito.api.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Время запросов в пределах одного участка кода (например, одного теста при параллельном прогоне).
+ * Область наследуется потоками, созданными внутри неё, - включая виртуальные потоки
+ * {@link com.example.avito.api.client.AvitoApiClient}, поэтому учитываются и запросы через клиент.
+ * <pre>{@code
+ * try (ScopedLatency scope = ScopedLatency.open()) {
+ *     ... запросы ...
+ *     scope.get("GET", AvitoApiConfig.ITEM_BY_ID_ENDPOINT).formatSummary();
+ * }
+ * }</pre>
+ */
+public final class ScopedLatency implements AutoCloseable {
+
+    private static final InheritableThreadLocal<ScopedLatency> CURRENT = new InheritableThreadLocal<>();
+
+    private final Map<String, LatencyHistogram> endpoints = new ConcurrentHashMap<>();
+    private final ScopedLatency parent;
+
+    private ScopedLatency(ScopedLatency parent) {
+        this.parent = parent;
+    }
+
+    public static ScopedLatency open() {
+        ScopedLatency scope = new ScopedLatency(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String method, String endpoint, long durationNanos) {
+        ScopedLatency scope = CURRENT.get();
+        if (scope != null) {
+            scope.endpoints.computeIfAbsent(method + ' ' + endpoint, key -> new LatencyHistogram()).record(durationNanos);
+        }
+    }
+
+    /**
+     * Время запросов к ручке; method = null - по всем методам. Пустая гистограмма, если запросов не было.
+     */
+    public LatencyHistogram get(String method, String endpoint) {
+        if (method != null) {
+            LatencyHistogram histogram = endpoints.get(method + ' ' + endpoint);
+            return histogram != null ? histogram : new LatencyHistogram();
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        endpoints.forEach((key, histogram) -> {
+            if (key.substring(key.indexOf(' ') + 1).equals(endpoint)) {
+                merged.add(histogram);
+            }
+        });
+        return merged;
+    }
+
+    @Override
+    public void close() {
+        CURRENT.set(parent);
+    }
+}
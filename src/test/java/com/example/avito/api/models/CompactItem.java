@@ -0,0 +1,44 @@
+package com.example.avito.api.models;
+
+import com.example.avito.api.ids.UuidCodec;
+
+/**
+ * Компактное представление созданного объявления для сверки на миллионах записей: ID - UUID в двух long,
+ * sellerId и price - примитивы. ~32 байта на объект вместо ~200 у Item/ItemResponse со строковым UUID и
+ * упакованными Integer. Имя не хранится - API его не сохраняет (см. BUGS.md).
+ */
+public record CompactItem(long idHigh, long idLow, int sellerId, int price) {
+
+    /**
+     * Объявление по ID из ответа API и отправленным данным.
+     */
+    public static CompactItem of(String id, Item payload) {
+        return of(id, payload.getSellerId(), payload.getPrice());
+    }
+
+    public static CompactItem of(ItemResponse item) {
+        return of(item.getId(), item.getSellerId(), item.getPrice());
+    }
+
+    private static CompactItem of(String id, Integer sellerId, Integer price) {
+        if (!UuidCodec.isUuid(id)) {
+            throw new IllegalArgumentException("ID объявления не UUID: " + id);
+        }
+        return new CompactItem(UuidCodec.high(id, 0), UuidCodec.low(id, 0),
+                sellerId == null ? 0 : sellerId, price == null ? 0 : price);
+    }
+
+    public String id() {
+        return UuidCodec.toString(idHigh, idLow);
+    }
+
+    /**
+     * Совпадают ли ID, sellerId и price с объявлением из ответа API.
+     */
+    public boolean matches(ItemResponse item) {
+        return UuidCodec.isUuid(item.getId())
+                && UuidCodec.high(item.getId(), 0) == idHigh && UuidCodec.low(item.getId(), 0) == idLow
+                && item.getSellerId() != null && item.getSellerId() == sellerId
+                && item.getPrice() != null && item.getPrice() == price;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.avito.api.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactItemTest {
+
+    private static final String ID = "b50a7d79-25bd-462b-9630-a2ad0b1b1e91";
+
+    @Test
+    @DisplayName("ID в двух long восстанавливается, сравнение с ответом API по ID, sellerId и price")
+    void testOfAndMatches() {
+        CompactItem item = CompactItem.of(ID, new Item(345_678, "name", 100));
+        assertEquals(ID, item.id());
+        assertEquals(345_678, item.sellerId());
+        assertEquals(100, item.price());
+
+        assertTrue(item.matches(response(ID, 345_678, 100)));
+        // name не сравнивается - API его не сохраняет
+        ItemResponse renamed = response(ID, 345_678, 100);
+        renamed.setName("другое");
+        assertTrue(item.matches(renamed));
+        assertFalse(item.matches(response(ID, 345_678, 101)));
+        assertFalse(item.matches(response(ID, 345_679, 100)));
+        assertFalse(item.matches(response("b50a7d79-25bd-462b-9630-a2ad0b1b1e92", 345_678, 100)));
+        assertFalse(item.matches(response(ID, null, 100)));
+        assertEquals(item, CompactItem.of(response(ID, 345_678, 100)));
+    }
+
+    @Test
+    @DisplayName("ID не в формате UUID отклоняется")
+    void testRejectsNonUuid() {
+        assertThrows(IllegalArgumentException.class, () -> CompactItem.of("42", new Item(1, "n", 1)));
+        assertThrows(IllegalArgumentException.class, () -> CompactItem.of(ID.toUpperCase(), new Item(1, "n", 1)));
+    }
+
+    private static ItemResponse response(String id, Integer sellerId, Integer price) {
+        ItemResponse response = new ItemResponse();
+        response.setId(id);
+        response.setSellerId(sellerId);
+        response.setPrice(price);
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.avito.api.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// Объявление в ответах GET /api/1/item/{id} и GET /api/1/{sellerId}/item (id - UUID-строка, в отличие от Item)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ItemResponse {
+    private String id;
+    private Integer sellerId;
+    private String name;
+    private Integer price;
+    private String createdAt;
+    private Statistics statistics;
+
+    public ItemResponse() { // Пустой конструктор для десериализации
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Integer getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Integer sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getPrice() {
+        return price;
+    }
+
+    public void setPrice(Integer price) {
+        this.price = price;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.avito.api.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Statistics {
+    private Long likes;
+    private Long viewCount;
+    private Long contacts;
+
+    public Statistics() { // Пустой конструктор для десериализации
+    }
+
+    public Statistics(Long likes, Long viewCount, Long contacts) {
+        this.likes = likes;
+        this.viewCount = viewCount;
+        this.contacts = contacts;
+    }
+
+    public Long getLikes() {
+        return likes;
+    }
+
+    public void setLikes(Long likes) {
+        this.likes = likes;
+    }
+
+    public Long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public Long getContacts() {
+        return contacts;
+    }
+
+    public void setContacts(Long contacts) {
+        this.contacts = contacts;
+    }
+}
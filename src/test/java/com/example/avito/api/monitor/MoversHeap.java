@@ -0,0 +1,135 @@
+package com.example.avito.api.monitor;
+
+/**
+ * Индексированная max-куча слотов по ключу (приросту метрики) на примитивных массивах.
+ * Изменение ключа одного слота - O(log n), чтение top-K - O(K log K) без обхода всех слотов.
+ * Не потокобезопасна, доступ синхронизирует {@link StatisticsTable}.
+ */
+final class MoversHeap {
+
+    private final int[] heap;      // heap[i] - слот в позиции i
+    private final int[] position;  // position[slot] - позиция слота в куче
+    private final long[] keys;     // keys[slot] - текущий ключ слота
+
+    MoversHeap(int slots) {
+        heap = new int[slots];
+        position = new int[slots];
+        keys = new long[slots];
+        for (int i = 0; i < slots; i++) {
+            heap[i] = i;
+            position[i] = i;
+        }
+    }
+
+    void update(int slot, long key) {
+        long previous = keys[slot];
+        keys[slot] = key;
+        if (key > previous) {
+            siftUp(position[slot]);
+        } else if (key < previous) {
+            siftDown(position[slot]);
+        }
+    }
+
+    long key(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Записывает в out до k слотов с наибольшими ключами по убыванию и возвращает их число.
+     * Обходит кучу от корня, держа во вспомогательной куче только границу из не более чем 2k позиций.
+     */
+    int top(int k, int[] out) {
+        int limit = Math.min(k, heap.length);
+        if (limit == 0) {
+            return 0;
+        }
+        int[] frontier = new int[2 * limit + 1];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        int found = 0;
+        while (found < limit && frontierSize > 0) {
+            int best = frontier[0];
+            frontier[0] = frontier[--frontierSize];
+            siftDownFrontier(frontier, frontierSize);
+            out[found++] = heap[best];
+            for (int child = 2 * best + 1; child <= 2 * best + 2 && child < heap.length; child++) {
+                frontier[frontierSize] = child;
+                siftUpFrontier(frontier, frontierSize++);
+            }
+        }
+        return found;
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[heap[parent]] >= keys[slot]) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(slot, index);
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        int half = heap.length >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < heap.length && keys[heap[child + 1]] > keys[heap[child]]) {
+                child++;
+            }
+            if (keys[slot] >= keys[heap[child]]) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(slot, index);
+    }
+
+    private void place(int slot, int index) {
+        heap[index] = slot;
+        position[slot] = index;
+    }
+
+    private long frontierKey(int heapIndex) {
+        return keys[heap[heapIndex]];
+    }
+
+    private void siftUpFrontier(int[] frontier, int index) {
+        int value = frontier[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (frontierKey(frontier[parent]) >= frontierKey(value)) {
+                break;
+            }
+            frontier[index] = frontier[parent];
+            index = parent;
+        }
+        frontier[index] = value;
+    }
+
+    private void siftDownFrontier(int[] frontier, int size) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        int value = frontier[0];
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && frontierKey(frontier[child + 1]) > frontierKey(frontier[child])) {
+                child++;
+            }
+            if (frontierKey(value) >= frontierKey(frontier[child])) {
+                break;
+            }
+            frontier[index] = frontier[child];
+            index = child;
+        }
+        frontier[index] = value;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.avito.api.monitor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MoversHeapTest {
+
+    @Test
+    @DisplayName("top-K после случайных изменений ключей совпадает с полной сортировкой")
+    void testTopMatchesFullSort() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int slots : new int[]{1, 2, 3, 10, 257, 1000}) {
+            MoversHeap heap = new MoversHeap(slots);
+            long[] keys = new long[slots];
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < slots; i++) {
+                    int slot = random.nextInt(slots);
+                    // Повторы ключей и отрицательные значения - тоже, чтобы проверить и siftUp, и siftDown
+                    keys[slot] = random.nextInt(-50, 50);
+                    heap.update(slot, keys[slot]);
+                }
+                for (int k : new int[]{0, 1, 5, slots, slots + 3}) {
+                    assertTop(heap, keys, k);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Уменьшение ключа вершины опускает слот")
+    void testDecreaseRoot() {
+        MoversHeap heap = new MoversHeap(4);
+        heap.update(2, 100);
+        heap.update(1, 50);
+        heap.update(2, -1);
+        int[] out = new int[4];
+        assertEquals(4, heap.top(4, out));
+        assertEquals(1, out[0]);
+        assertEquals(2, out[3]);
+        assertEquals(-1, heap.key(2));
+    }
+
+    private static void assertTop(MoversHeap heap, long[] keys, int k) {
+        int[] out = new int[Math.max(k, 1)];
+        int found = heap.top(k, out);
+        int expectedCount = Math.min(k, keys.length);
+        assertEquals(expectedCount, found);
+
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        long[] expected = new long[expectedCount];
+        long[] actual = new long[expectedCount];
+        Set<Integer> distinct = new HashSet<>();
+        for (int i = 0; i < expectedCount; i++) {
+            expected[i] = sorted[sorted.length - 1 - i];
+            actual[i] = keys[out[i]];
+            distinct.add(out[i]);
+        }
+        // При равных ключах порядок слотов не определён, поэтому сравниваются ключи
+        assertArrayEquals(expected, actual, "k=" + k);
+        assertEquals(expectedCount, distinct.size(), "слоты top-K не повторяются");
+    }
+}
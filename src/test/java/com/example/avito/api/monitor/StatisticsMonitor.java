@@ -0,0 +1,174 @@
+package com.example.avito.api.monitor;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.client.AvitoApiException;
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.load.Pacing;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.models.Item;
+import com.example.avito.api.models.Statistics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Мониторинг статистики большого набора объявлений через GET /api/1/statistic/{id}.
+ * <p>
+ * Каждое объявление опрашивается раз в {@code pollInterval}, опросы разных объявлений равномерно разнесены
+ * внутри интервала (при 1000 объявлений и 5 с - один опрос каждые 5 мс), поэтому стенд получает ровный поток,
+ * а не пачку запросов в начале каждого интервала. Одновременных запросов не больше {@code maxInFlight};
+ * опрос, для которого нет свободного места или предыдущий опрос того же объявления ещё не завершён,
+ * пропускается и учитывается в отчёте.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.monitor.StatisticsMonitor -Davito.monitor.items=5000}
+ */
+public class StatisticsMonitor {
+
+    private final AvitoApiClient client;
+    private final StatisticsTable table;
+    private final Duration pollInterval;
+    private final int maxInFlight;
+    private final AtomicIntegerArray pollInProgress;
+    private final LatencyHistogram pollLatency = new LatencyHistogram();
+    private final LongAdder skippedPolls = new LongAdder();
+
+    public StatisticsMonitor(AvitoApiClient client, StatisticsTable table, Duration pollInterval, int maxInFlight) {
+        this.client = client;
+        this.table = table;
+        this.pollInterval = pollInterval;
+        this.maxInFlight = maxInFlight;
+        this.pollInProgress = new AtomicIntegerArray(table.size());
+    }
+
+    public StatisticsTable getTable() {
+        return table;
+    }
+
+    /**
+     * Опрашивает объявления в течение duration, раз в reportInterval передаёт отчёт в reporter.
+     */
+    public void run(Duration duration, Duration reportInterval, int topK, Consumer<String> reporter) {
+        int slots = table.size();
+        if (slots == 0) {
+            return;
+        }
+        double spacingNanos = (double) pollInterval.toNanos() / slots;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.execute(() -> report(end, reportInterval, topK, reporter));
+            for (long i = 0; ; i++) {
+                long intendedStart = start + (long) (i * spacingNanos);
+                if (intendedStart >= end) {
+                    break;
+                }
+                Pacing.parkUntil(intendedStart);
+                int slot = (int) (i % slots);
+                if (!pollInProgress.compareAndSet(slot, 0, 1)) {
+                    skippedPolls.increment();
+                    continue;
+                }
+                if (!inFlight.tryAcquire()) {
+                    pollInProgress.set(slot, 0);
+                    skippedPolls.increment();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        poll(slot);
+                    } finally {
+                        pollInProgress.set(slot, 0);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        reporter.accept(format(topK));
+    }
+
+    private void poll(int slot) {
+        long start = System.nanoTime();
+        try {
+            Statistics statistics = client.getStatistic(table.id(slot));
+            table.record(slot, valueOf(statistics.getLikes()), valueOf(statistics.getViewCount()),
+                    valueOf(statistics.getContacts()));
+        } catch (AvitoApiException e) {
+            table.recordFailure(slot);
+        } finally {
+            pollLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    private void report(long end, Duration reportInterval, int topK, Consumer<String> reporter) {
+        long next = System.nanoTime() + reportInterval.toNanos();
+        while (next < end) {
+            Pacing.parkUntil(next);
+            reporter.accept(format(topK));
+            next += reportInterval.toNanos();
+        }
+    }
+
+    private String format(int topK) {
+        // Время опроса - за интервал с прошлого отчёта
+        return table.snapshot(topK).format()
+                + String.format("  пропущено опросов: %d, время опроса: %s%n",
+                skippedPolls.sum(), pollLatency.snapshotAndReset().formatSummary());
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxInFlight = Integer.getInteger("avito.monitor.maxInFlight", 32);
+        try (AvitoApiClient client = new AvitoApiClient(AvitoApiConfig.getBaseUrl(), maxInFlight)) {
+            List<String> ids = loadIds(client);
+            StatisticsTable table = new StatisticsTable(ids,
+                    StatisticsTable.Metric.valueOf(System.getProperty("avito.monitor.metric", "VIEW_COUNT")
+                            .toUpperCase(Locale.ROOT)),
+                    Integer.getInteger("avito.monitor.window", 6));
+            StatisticsMonitor monitor = new StatisticsMonitor(client, table,
+                    Duration.ofMillis(Long.getLong("avito.monitor.pollIntervalMs", 5000)), maxInFlight);
+            System.out.printf("Мониторинг статистики %d объявлений на %s%n", ids.size(), client.getBaseUrl());
+            monitor.run(Duration.ofSeconds(Long.getLong("avito.monitor.duration", 60)),
+                    Duration.ofSeconds(Long.getLong("avito.monitor.reportInterval", 5)),
+                    Integer.getInteger("avito.monitor.topK", 10),
+                    System.out::print);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * ID из файла {@code avito.monitor.idsFile} (по одному в строке) или {@code avito.monitor.items} новых объявлений.
+     */
+    private static List<String> loadIds(AvitoApiClient client) throws IOException {
+        String idsFile = System.getProperty("avito.monitor.idsFile");
+        if (idsFile != null && !idsFile.isBlank()) {
+            return Files.readAllLines(Path.of(idsFile)).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .distinct()
+                    .toList();
+        }
+        int count = Integer.getInteger("avito.monitor.items", 1000);
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(ItemFixtures.newItem(ItemFixtures.uniqueSellerId()));
+        }
+        return client.createItems(items);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.avito.api.monitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Счётчики статистики большого набора объявлений: у каждого ID свой слот, значения лежат в примитивных
+ * массивах по номеру слота. Суммы по всем объявлениям, скользящий прирост за последние {@code window}
+ * опросов и top-K объявлений по приросту обновляются инкрементально при каждом опросе - отчёт не обходит все слоты.
+ */
+public class StatisticsTable {
+
+    public enum Metric {
+        VIEW_COUNT,
+        LIKES,
+        CONTACTS
+    }
+
+    private final String[] ids;
+    private final Map<String, Integer> slotById;
+    private final Metric rankedBy;
+    private final int window;
+
+    private final long[] likes;
+    private final long[] viewCounts;
+    private final long[] contacts;
+    private final int[] failures;
+    // Последние window значений ранжируемой метрики слота: кольцо history[slot * window ...]
+    private final long[] history;
+    private final int[] historyHead;
+    private final int[] historySize;
+    private final MoversHeap movers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long polls;
+    private long failedPolls;
+    private int observedSlots;
+    private long totalLikes;
+    private long totalViewCount;
+    private long totalContacts;
+
+    public StatisticsTable(List<String> ids, Metric rankedBy, int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Окно прироста должно включать хотя бы 2 опроса: " + window);
+        }
+        int slots = ids.size();
+        this.ids = ids.toArray(new String[0]);
+        this.slotById = new HashMap<>(slots * 2);
+        for (int slot = 0; slot < slots; slot++) {
+            if (slotById.putIfAbsent(this.ids[slot], slot) != null) {
+                throw new IllegalArgumentException("ID объявления повторяется: " + this.ids[slot]);
+            }
+        }
+        this.rankedBy = rankedBy;
+        this.window = window;
+        this.likes = new long[slots];
+        this.viewCounts = new long[slots];
+        this.contacts = new long[slots];
+        this.failures = new int[slots];
+        this.history = new long[slots * window];
+        this.historyHead = new int[slots];
+        this.historySize = new int[slots];
+        this.movers = new MoversHeap(slots);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public String id(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Слот объявления или -1, если ID не отслеживается.
+     */
+    public int slotOf(String id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    public void record(int slot, long likesValue, long viewCountValue, long contactsValue) {
+        lock.lock();
+        try {
+            polls++;
+            if (historySize[slot] == 0) {
+                observedSlots++;
+            }
+            totalLikes += likesValue - likes[slot];
+            totalViewCount += viewCountValue - viewCounts[slot];
+            totalContacts += contactsValue - contacts[slot];
+            likes[slot] = likesValue;
+            viewCounts[slot] = viewCountValue;
+            contacts[slot] = contactsValue;
+
+            long value = switch (rankedBy) {
+                case VIEW_COUNT -> viewCountValue;
+                case LIKES -> likesValue;
+                case CONTACTS -> contactsValue;
+            };
+            int base = slot * window;
+            int head = historyHead[slot];
+            history[base + head] = value;
+            historyHead[slot] = (head + 1) % window;
+            if (historySize[slot] < window) {
+                historySize[slot]++;
+            }
+            // Самое старое значение в кольце: при неполном кольце - первое записанное
+            int oldest = historySize[slot] < window ? 0 : historyHead[slot];
+            movers.update(slot, value - history[base + oldest]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void recordFailure(int slot) {
+        lock.lock();
+        try {
+            polls++;
+            failedPolls++;
+            failures[slot]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot snapshot(int topK) {
+        int[] top = new int[Math.min(topK, ids.length)];
+        lock.lock();
+        try {
+            int found = movers.top(top.length, top);
+            List<Mover> topMovers = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                int slot = top[i];
+                if (movers.key(slot) <= 0) {
+                    break; // объявления без прироста в лидеры не попадают
+                }
+                long value = switch (rankedBy) {
+                    case VIEW_COUNT -> viewCounts[slot];
+                    case LIKES -> likes[slot];
+                    case CONTACTS -> contacts[slot];
+                };
+                topMovers.add(new Mover(ids[slot], movers.key(slot), value, failures[slot]));
+            }
+            return new Snapshot(polls, failedPolls, observedSlots, totalLikes, totalViewCount, totalContacts,
+                    rankedBy, topMovers);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param delta    прирост ранжируемой метрики за последние window опросов объявления
+     * @param value    текущее значение метрики
+     * @param failures число неудачных опросов объявления
+     */
+    public record Mover(String id, long delta, long value, int failures) {
+    }
+
+    public record Snapshot(long polls, long failedPolls, int observedItems, long totalLikes, long totalViewCount,
+                           long totalContacts, Metric rankedBy, List<Mover> movers) {
+
+        public String format() {
+            StringBuilder report = new StringBuilder(String.format(
+                    "опросов: %d (ошибок: %d), объявлений с данными: %d, viewCount: %d, likes: %d, contacts: %d%n",
+                    polls, failedPolls, observedItems, totalViewCount, totalLikes, totalContacts));
+            report.append("  лидеры прироста ").append(rankedBy).append(':').append(System.lineSeparator());
+            for (Mover mover : movers) {
+                report.append(String.format("    %s +%d (сейчас %d)%n", mover.id(), mover.delta(), mover.value()));
+            }
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.avito.api.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Последовательное чтение журнала {@link CaptureLogWriter} через mmap окнами, без загрузки файла целиком.
+ */
+public class CaptureLogReader implements Iterable<CapturedExchange>, AutoCloseable {
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    public CaptureLogReader(Path file) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            fileSize = channel.size();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, CaptureLogWriter.HEADER_SIZE);
+            if (header.getInt() != CaptureLogWriter.MAGIC || header.getShort() != CaptureLogWriter.VERSION) {
+                throw new IllegalArgumentException("Файл не является журналом запросов: " + file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал запросов " + file, e);
+        }
+    }
+
+    @Override
+    public Iterator<CapturedExchange> iterator() {
+        return new Iterator<>() {
+            private long position = CaptureLogWriter.HEADER_SIZE;
+            private MappedByteBuffer window;
+            private long windowStart;
+            private CapturedExchange next = read();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public CapturedExchange next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                CapturedExchange current = next;
+                next = read();
+                return current;
+            }
+
+            private CapturedExchange read() {
+                try {
+                    if (position + 4 > fileSize) {
+                        return null;
+                    }
+                    ensureWindow(4);
+                    int length = window.getInt((int) (position - windowStart));
+                    if (length <= 0 || position + 4 + length > fileSize) {
+                        return null;
+                    }
+                    ensureWindow(4 + length);
+                    window.position((int) (position - windowStart) + 4);
+                    long offsetNanos = window.getLong();
+                    long latencyNanos = window.getLong();
+                    int status = window.getShort();
+                    String method = getString();
+                    String endpoint = getString();
+                    int paramCount = window.get();
+                    Map<String, String> params = new LinkedHashMap<>();
+                    for (int i = 0; i < paramCount; i++) {
+                        params.put(getString(), getString());
+                    }
+                    byte[] requestBody = getBytes();
+                    byte[] responseBody = getBytes();
+                    position += 4 + length;
+                    return new CapturedExchange(offsetNanos, method, endpoint, params, requestBody, status,
+                            latencyNanos, responseBody);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Ошибка чтения журнала запросов", e);
+                }
+            }
+
+            private void ensureWindow(int bytes) throws IOException {
+                if (window == null || position < windowStart || position + bytes > windowStart + window.capacity()) {
+                    long size = Math.min(fileSize - position, Math.max(WINDOW_SIZE, bytes));
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                    windowStart = position;
+                }
+            }
+
+            private String getString() {
+                byte[] value = new byte[Short.toUnsignedInt(window.getShort())];
+                window.get(value);
+                return new String(value, StandardCharsets.UTF_8);
+            }
+
+            private byte[] getBytes() {
+                byte[] value = new byte[window.getInt()];
+                window.get(value);
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.avito.api.replay;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CaptureLogTest {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    @Test
+    @DisplayName("Журнал: запись и чтение, строки длиннее 32767 байт, отказ для строк длиннее 65535")
+    void testRoundTrip(@TempDir Path dir) {
+        String longId = "x".repeat(40_000);
+        Path file = dir.resolve("capture.bin");
+        try (CaptureLogWriter writer = new CaptureLogWriter(file)) {
+            writer.append(exchange(5, 1, Map.of("id", longId)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.append(exchange(6, 1, Map.of("id", "y".repeat(70_000)))));
+            writer.append(exchange(7, 2, Map.of("id", "short")));
+        }
+
+        List<CapturedExchange> read = new ArrayList<>();
+        try (CaptureLogReader reader = new CaptureLogReader(file)) {
+            reader.forEach(read::add);
+        }
+        assertEquals(2, read.size());
+        assertEquals(longId, read.get(0).pathParams().get("id"));
+        assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), read.get(0).responseBody());
+        assertEquals("short", read.get(1).pathParams().get("id"));
+        assertEquals(7, read.get(1).offsetNanos());
+    }
+
+    @Test
+    @DisplayName("Воспроизведение идёт в порядке отправки, а не завершения запросов")
+    void testSendOrder() {
+        // Порядок в журнале - по завершению: offset + latency
+        List<CapturedExchange> log = List.of(
+                exchange(30, 10, Map.of()),
+                exchange(0, 50, Map.of()),
+                exchange(45, 10, Map.of()),
+                exchange(20, 40, Map.of()),
+                exchange(70, 1, Map.of()));
+
+        List<Long> offsets = new ArrayList<>();
+        TrafficReplayer.inSendOrder(log).forEach(exchange -> offsets.add(exchange.offsetNanos()));
+        assertEquals(List.of(0L, 20L, 30L, 45L, 70L), offsets);
+    }
+
+    private static CapturedExchange exchange(long offsetNanos, long latencyNanos, Map<String, String> params) {
+        return new CapturedExchange(offsetNanos, "GET", "/api/1/item/{id}", params, EMPTY, 200, latencyNanos,
+                "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.avito.api.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only бинарный журнал запросов, записываемый через отображение файла в память (mmap):
+ * запись - это копирование байтов в страницы ядра без системных вызовов write на каждый запрос.
+ * <p>
+ * Формат: заголовок (magic, version), затем записи подряд:
+ * <pre>
+ * int   length          длина записи без этого поля
+ * long  offsetNanos     момент отправки от начала записи
+ * long  latencyNanos
+ * short status
+ * str   method, str endpoint
+ * byte  число параметров, затем пары str name, str value
+ * bytes requestBody, bytes responseBody   (int длина + данные)
+ * </pre>
+ * str - short длина + UTF-8. Файл растёт регионами по {@value #REGION_SIZE} байт; хвост последнего региона
+ * заполнен нулями, поэтому читатель останавливается на записи длины 0.
+ */
+public class CaptureLogWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x41564331; // "AVC1"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 6;
+
+    private static final int REGION_SIZE = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private boolean closed;
+
+    public CaptureLogWriter(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            mapRegion(0, REGION_SIZE);
+            region.putInt(MAGIC);
+            region.putShort(VERSION);
+            position = HEADER_SIZE;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал запросов " + file, e);
+        }
+    }
+
+    public void append(CapturedExchange exchange) {
+        byte[] method = exchange.method().getBytes(StandardCharsets.UTF_8);
+        byte[] endpoint = exchange.endpoint().getBytes(StandardCharsets.UTF_8);
+        int size = 8 + 8 + 2 + 2 + method.length + 2 + endpoint.length + 1
+                + 4 + exchange.requestBody().length + 4 + exchange.responseBody().length;
+        byte[][] params = new byte[exchange.pathParams().size() * 2][];
+        int index = 0;
+        for (Map.Entry<String, String> param : exchange.pathParams().entrySet()) {
+            params[index] = param.getKey().getBytes(StandardCharsets.UTF_8);
+            params[index + 1] = param.getValue().getBytes(StandardCharsets.UTF_8);
+            size += 2 + params[index].length + 2 + params[index + 1].length;
+            index += 2;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            // +4 на длину этой записи и +4 на нулевую длину-терминатор после неё
+            ensureCapacity(4 + size + 4);
+            int start = (int) (position - regionStart);
+            region.position(start + 4);
+            region.putLong(exchange.offsetNanos());
+            region.putLong(exchange.latencyNanos());
+            region.putShort((short) exchange.status());
+            putString(method);
+            putString(endpoint);
+            region.put((byte) exchange.pathParams().size());
+            for (byte[] param : params) {
+                putString(param);
+            }
+            putBytes(exchange.requestBody());
+            putBytes(exchange.responseBody());
+            // Длину пишем последней: читатель не увидит недописанную запись
+            region.putInt(start, size);
+            position += 4 + size;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать запрос в журнал", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            region.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось закрыть журнал запросов", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > regionStart + region.capacity()) {
+            region.force();
+            mapRegion(position, Math.max(REGION_SIZE, bytes));
+        }
+    }
+
+    private void mapRegion(long start, int size) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        regionStart = start;
+    }
+
+    private void putString(byte[] value) {
+        // Длина - беззнаковые 2 байта; недописанная запись не видна читателю, её перезапишет следующая
+        if (value.length > 0xFFFF) {
+            throw new IllegalArgumentException("Строка журнала длиннее 65535 байт: " + value.length);
+        }
+        region.putShort((short) value.length);
+        region.put(value);
+    }
+
+    private void putBytes(byte[] value) {
+        region.putInt(value.length);
+        region.put(value);
+    }
+}
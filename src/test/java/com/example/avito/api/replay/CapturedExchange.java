@@ -0,0 +1,51 @@
+package com.example.avito.api.replay;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Одна записанная пара запрос/ответ.
+ *
+ * @param offsetNanos   момент отправки относительно начала записи
+ * @param method        HTTP-метод
+ * @param endpoint      шаблон ручки из {@link com.example.avito.api.AvitoApiConfig}, например /api/1/item/{id}
+ * @param pathParams    значения параметров шаблона
+ * @param requestBody   тело запроса (пустое, если его не было)
+ * @param status        код ответа
+ * @param latencyNanos  время ответа
+ * @param responseBody  тело ответа
+ */
+public record CapturedExchange(long offsetNanos, String method, String endpoint, Map<String, String> pathParams,
+                               byte[] requestBody, int status, long latencyNanos, byte[] responseBody) {
+
+    /**
+     * Значения параметров шаблона по фактическому пути: ("/api/1/item/{id}", "/api/1/item/abc") -> {id=abc}.
+     */
+    public static Map<String, String> extractPathParams(String template, String path) {
+        String[] templateSegments = template.split("/");
+        String[] pathSegments = path.split("/");
+        if (templateSegments.length != pathSegments.length) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < templateSegments.length; i++) {
+            String segment = templateSegments[i];
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                params.put(segment.substring(1, segment.length() - 1), pathSegments[i]);
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Путь запроса: шаблон ручки с подставленными параметрами.
+     */
+    public String expandPath(Map<String, String> params) {
+        String path = endpoint;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            path = path.replace("{" + param.getKey() + "}", param.getValue());
+        }
+        return path;
+    }
+}
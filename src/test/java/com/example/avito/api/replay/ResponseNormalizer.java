@@ -0,0 +1,70 @@
+package com.example.avito.api.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Приведение ответов к сравнимому виду: поля, которые различаются между прогонами по определению
+ * (id, createdAt, UUID в сообщении о статусе), заменяются заглушками. Остальное сравнивается как есть.
+ */
+public final class ResponseNormalizer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final TextNode ANY = TextNode.valueOf("*");
+
+    private ResponseNormalizer() {
+    }
+
+    /**
+     * Нормализованное дерево ответа или null, если тело не JSON (тогда тела сравниваются побайтно).
+     */
+    public static JsonNode normalize(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode tree = MAPPER.readTree(body);
+            return tree == null ? null : normalize(tree);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static JsonNode normalize(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = field.getKey();
+                if (name.equals("id") || name.equals("createdAt")) {
+                    field.setValue(ANY);
+                } else {
+                    field.setValue(normalize(field.getValue()));
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            List<JsonNode> elements = new ArrayList<>(array.size());
+            array.forEach(element -> elements.add(normalize(element)));
+            // Порядок элементов списка (например, объявлений продавца) не гарантирован - сравниваем как мультимножество
+            elements.sort(Comparator.comparing(JsonNode::toString));
+            array.removeAll();
+            array.addAll(elements);
+        } else if (node.isTextual() && UUID_PATTERN.matcher(node.textValue()).find()) {
+            return TextNode.valueOf(UUID_PATTERN.matcher(node.textValue()).replaceAll("*"));
+        }
+        return node;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.avito.api.replay;
+
+import com.example.avito.api.AvitoApiConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Фильтр RestAssured, записывающий каждый запрос тестов в журнал {@link CaptureLogWriter}
+ * для последующего воспроизведения через {@link TrafficReplayer}.
+ * <p>
+ * Включается свойством {@code -Davito.capture.file=target/capture.bin}; без него тесты работают как обычно.
+ */
+public class TrafficCaptureFilter implements Filter {
+
+    // -Davito.capture.file=target/capture.bin - записывать трафик тестов в файл
+    public static final String CAPTURE_FILE_PROPERTY = "avito.capture.file";
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CaptureLogWriter writer;
+    private final long startNanos = System.nanoTime();
+
+    public TrafficCaptureFilter(CaptureLogWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Общий на прогон фильтр, если задано {@value #CAPTURE_FILE_PROPERTY}. Журнал закрывается при завершении JVM.
+     */
+    public static Optional<TrafficCaptureFilter> configured() {
+        return Optional.ofNullable(Holder.FILTER);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String path = requestSpec.getDerivedPath();
+        String endpoint = AvitoApiConfig.resolveEndpointTemplate(path);
+        long sentAt = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long latency = System.nanoTime() - sentAt;
+        writer.append(new CapturedExchange(sentAt - startNanos, requestSpec.getMethod(), endpoint,
+                CapturedExchange.extractPathParams(endpoint, path), bodyBytes(requestSpec.getBody()),
+                response.statusCode(), latency, response.asByteArray()));
+        return response;
+    }
+
+    private static byte[] bodyBytes(Object body) {
+        if (body == null) {
+            return EMPTY;
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Holder {
+        private static final TrafficCaptureFilter FILTER = create();
+
+        private static TrafficCaptureFilter create() {
+            String file = System.getProperty(CAPTURE_FILE_PROPERTY);
+            if (file == null || file.isBlank()) {
+                return null;
+            }
+            CaptureLogWriter writer = new CaptureLogWriter(Path.of(file));
+            Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "capture-log-close"));
+            return new TrafficCaptureFilter(writer);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.avito.api.replay;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.RawHttp;
+import com.example.avito.api.ids.UuidCodec;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.metrics.RequestTimer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Воспроизведение журнала {@link CaptureLogWriter} на стенде с проверкой ответов против записанных.
+ * <p>
+ * Режимы: {@code avito.replay.speed=1} - с исходными интервалами между запросами (2 - вдвое быстрее),
+ * {@code avito.replay.speed=0} - без пауз, насколько позволяет {@code avito.replay.concurrency}.
+ * ID объявлений, созданных во время записи, подменяются на ID, выданные стендом при воспроизведении:
+ * GET по такому ID ждёт ответа на соответствующий POST. Ответы сравниваются по коду и по телу после
+ * {@link ResponseNormalizer} (id, createdAt и UUID в сообщениях не сравниваются).
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.replay.TrafficReplayer -Davito.replay.file=target/capture.bin}
+ */
+public class TrafficReplayer {
+
+    private static final int MAX_DIFF_SAMPLES = 20;
+    // Запись попадает в журнал по окончании запроса, поэтому порядок в файле отличается от порядка отправки
+    // не больше чем на время самого долгого запроса
+    private static final long REORDER_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final String baseUrl;
+    private final double speed;
+    private final int concurrency;
+    private final HttpClient httpClient;
+    private final Map<String, CompletableFuture<String>> remappedIds = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Queue<String> diffSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger diffSampleCount = new AtomicInteger();
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+
+    public TrafficReplayer(String baseUrl, double speed, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        this.concurrency = concurrency;
+        this.httpClient = RawHttp.newClient(baseUrl);
+    }
+
+    public void replay(Iterable<CapturedExchange> exchanges) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CapturedExchange exchange : inSendOrder(exchanges)) {
+                if (speed > 0) {
+                    long intendedStart = start + (long) (exchange.offsetNanos() / speed);
+                    long now;
+                    while ((now = System.nanoTime()) < intendedStart) {
+                        LockSupport.parkNanos(intendedStart - now);
+                    }
+                }
+                inFlight.acquire();
+                if (speed > 0) {
+                    scheduleLag.record(Math.max(0, System.nanoTime() - start - (long) (exchange.offsetNanos() / speed)));
+                }
+                // Регистрируем подмену ID до отправки: последующие запросы журнала должны её увидеть
+                CompletableFuture<String> createdId = registerCreatedId(exchange);
+                executor.execute(() -> {
+                    try {
+                        replayOne(exchange, createdId);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Записи журнала в порядке отправки (offsetNanos), без чтения файла целиком: записи копятся в куче по offset,
+     * и голова выдаётся, когда прочитана запись, завершившаяся позже её отправки больше чем на окно.
+     * POST по-прежнему идёт раньше GET по выданному им ID - GET отправлен после ответа на POST.
+     */
+    static Iterable<CapturedExchange> inSendOrder(Iterable<CapturedExchange> exchanges) {
+        return () -> new Iterator<>() {
+            private final Iterator<CapturedExchange> source = exchanges.iterator();
+            private final PriorityQueue<CapturedExchange> pending =
+                    new PriorityQueue<>(Comparator.comparingLong(CapturedExchange::offsetNanos));
+            private long lastCompleted = Long.MIN_VALUE / 2;
+
+            @Override
+            public boolean hasNext() {
+                return !pending.isEmpty() || source.hasNext();
+            }
+
+            @Override
+            public CapturedExchange next() {
+                while (source.hasNext()
+                        && (pending.isEmpty() || pending.peek().offsetNanos() > lastCompleted - REORDER_WINDOW_NANOS)) {
+                    CapturedExchange exchange = source.next();
+                    pending.add(exchange);
+                    lastCompleted = Math.max(lastCompleted, exchange.offsetNanos() + exchange.latencyNanos());
+                }
+                if (pending.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                return pending.poll();
+            }
+        };
+    }
+
+    private CompletableFuture<String> registerCreatedId(CapturedExchange exchange) {
+        if (!isCreate(exchange)) {
+            return null;
+        }
+        String recordedId = extractId(exchange.responseBody());
+        if (recordedId == null) {
+            return null;
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        remappedIds.put(recordedId, future);
+        return future;
+    }
+
+    private void replayOne(CapturedExchange exchange, CompletableFuture<String> createdId) {
+        EndpointStats endpointStats = stats.computeIfAbsent(exchange.method() + " " + exchange.endpoint(),
+                key -> new EndpointStats());
+        endpointStats.recordedLatency.record(exchange.latencyNanos());
+        String path = exchange.expandPath(remapParams(exchange.pathParams()));
+        byte[] body = exchange.requestBody();
+        HttpRequest request = RawHttp.request(baseUrl, exchange.method(), path, body.length > 0 ? body : null);
+
+        RequestTimer timer = RequestTimer.start();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            timer.stop(exchange.method(), exchange.endpoint(), -1, exchange.requestBody().length, 0);
+            endpointStats.errors.increment();
+            addDiffSample(exchange, path, "ошибка транспорта: " + e);
+            if (createdId != null) {
+                createdId.complete(null);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        long latency = timer.stop(exchange.method(), exchange.endpoint(), response.statusCode(),
+                exchange.requestBody().length, response.body().length);
+        endpointStats.replayedLatency.record(latency);
+        endpointStats.replayed.increment();
+        if (createdId != null) {
+            createdId.complete(extractId(response.body()));
+        }
+        compare(exchange, path, response, endpointStats);
+    }
+
+    /**
+     * Записанные ID созданных объявлений заменяются на выданные при воспроизведении; остальные значения - как есть.
+     */
+    private Map<String, String> remapParams(Map<String, String> params) {
+        if (params.isEmpty()) {
+            return params;
+        }
+        Map<String, String> remapped = new LinkedHashMap<>(params);
+        for (Map.Entry<String, String> param : remapped.entrySet()) {
+            CompletableFuture<String> newId = remappedIds.get(param.getValue());
+            if (newId == null) {
+                continue;
+            }
+            try {
+                String id = newId.get(RawHttp.REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (id != null) {
+                    param.setValue(id);
+                }
+            } catch (Exception e) {
+                // Создание не ответило вовремя - отправляем исходный ID, расхождение попадёт в отчёт
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return remapped;
+    }
+
+    private void compare(CapturedExchange exchange, String path, HttpResponse<byte[]> response,
+                         EndpointStats endpointStats) {
+        if (response.statusCode() != exchange.status()) {
+            endpointStats.statusMismatches.increment();
+            addDiffSample(exchange, path, "код " + exchange.status() + " -> " + response.statusCode());
+            return;
+        }
+        JsonNode expected = ResponseNormalizer.normalize(exchange.responseBody());
+        JsonNode actual = ResponseNormalizer.normalize(response.body());
+        boolean same = expected != null && actual != null
+                ? expected.equals(actual)
+                : Arrays.equals(exchange.responseBody(), response.body());
+        if (!same) {
+            endpointStats.bodyMismatches.increment();
+            addDiffSample(exchange, path, "тело " + Objects.toString(expected, text(exchange.responseBody()))
+                    + " -> " + Objects.toString(actual, text(response.body())));
+        }
+    }
+
+    private void addDiffSample(CapturedExchange exchange, String path, String diff) {
+        if (diffSampleCount.getAndIncrement() < MAX_DIFF_SAMPLES) {
+            diffSamples.add(exchange.method() + " " + path + ": " + diff);
+        }
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        stats.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            EndpointStats endpointStats = entry.getValue();
+            report.append(String.format("%s%n  воспроизведено: %d, другой код: %d, другое тело: %d, ошибок: %d%n",
+                    entry.getKey(), endpointStats.replayed.sum(), endpointStats.statusMismatches.sum(),
+                    endpointStats.bodyMismatches.sum(), endpointStats.errors.sum()));
+            report.append("  при записи:         ").append(endpointStats.recordedLatency.formatSummary())
+                    .append(System.lineSeparator());
+            report.append("  при воспроизведении: ").append(endpointStats.replayedLatency.formatSummary())
+                    .append(System.lineSeparator());
+        });
+        if (scheduleLag.getTotalCount() > 0) {
+            report.append("Отставание от расписания: ").append(scheduleLag.formatSummary())
+                    .append(System.lineSeparator());
+        }
+        if (!diffSamples.isEmpty()) {
+            report.append(String.format("Расхождения (первые %d из %d):%n",
+                    diffSamples.size(), diffSampleCount.get()));
+            diffSamples.forEach(diff -> report.append("  ").append(diff).append(System.lineSeparator()));
+        }
+        return report.toString();
+    }
+
+    public long getMismatches() {
+        return stats.values().stream()
+                .mapToLong(s -> s.statusMismatches.sum() + s.bodyMismatches.sum() + s.errors.sum())
+                .sum();
+    }
+
+    private static boolean isCreate(CapturedExchange exchange) {
+        return exchange.method().equals("POST") && exchange.endpoint().equals(AvitoApiConfig.ITEM_ENDPOINT)
+                && exchange.status() == 200;
+    }
+
+    private static String extractId(byte[] body) {
+        return UuidCodec.extract(text(body));
+    }
+
+    private static String text(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Path file = Path.of(System.getProperty("avito.replay.file", "target/capture.bin"));
+        TrafficReplayer replayer = new TrafficReplayer(AvitoApiConfig.getBaseUrl(),
+                Double.parseDouble(System.getProperty("avito.replay.speed", "1")),
+                Integer.getInteger("avito.replay.concurrency", 64));
+        System.out.println("Воспроизведение " + file + " на " + replayer.baseUrl);
+        long start = System.nanoTime();
+        try (CaptureLogReader reader = new CaptureLogReader(file)) {
+            replayer.replay(reader);
+        }
+        System.out.printf("Завершено за %.1fs%n", (System.nanoTime() - start) / 1e9);
+        System.out.println(replayer.format());
+        System.exit(0);
+    }
+
+    private static final class EndpointStats {
+        private final LatencyHistogram recordedLatency = new LatencyHistogram();
+        private final LatencyHistogram replayedLatency = new LatencyHistogram();
+        private final LongAdder replayed = new LongAdder();
+        private final LongAdder statusMismatches = new LongAdder();
+        private final LongAdder bodyMismatches = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.avito.api.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Адаптивный лимит одновременных запросов без блокировок.
+ * <p>
+ * При успешных ответах лимит следует градиенту задержки: отношение долгосрочного среднего RTT к краткосрочному
+ * (с допуском 1.5). Пока задержка не растёт, лимит увеличивается на sqrt(limit) - аддитивный рост; когда стенд
+ * начинает ставить запросы в очередь и RTT растёт, лимит уменьшается пропорционально. Таймаут, 5xx или 429 -
+ * мультипликативное уменьшение (x0.9), не чаще одного раза за краткосрочный RTT, чтобы пачка одновременных
+ * ошибок не обрушила лимит до минимума.
+ * <p>
+ * Состояние - неизменяемый {@link State} в {@link AtomicReference}, обновляется CAS.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SHORT_RTT_WEIGHT = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.01;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private record State(double limit, double shortRtt, double longRtt, long lastDecreaseNanos) {
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicReference<State> state;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.state = new AtomicReference<>(new State(Math.max(minLimit, Math.min(maxLimit, initialLimit)), 0, 0, 0));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и учитывает результат запроса.
+     *
+     * @param rttNanos время запроса
+     * @param dropped  стенд перегружен: таймаут, 5xx или 429
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        while (true) {
+            State current = state.get();
+            State next = dropped ? onDrop(current, now) : onSuccess(current, rttNanos, inFlightBefore);
+            if (next == current || state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место без учёта результата (запрос не был отправлен).
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) state.get().limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private State onDrop(State current, long now) {
+        if (current.lastDecreaseNanos != 0 && now - current.lastDecreaseNanos < current.shortRtt) {
+            return current;
+        }
+        double limit = Math.max(minLimit, current.limit * BACKOFF_RATIO);
+        return new State(limit, current.shortRtt, current.longRtt, now);
+    }
+
+    private State onSuccess(State current, long rttNanos, int inFlightBefore) {
+        double shortRtt = current.shortRtt == 0 ? rttNanos : ewma(current.shortRtt, rttNanos, SHORT_RTT_WEIGHT);
+        double longRtt = current.longRtt == 0 ? rttNanos : ewma(current.longRtt, rttNanos, LONG_RTT_WEIGHT);
+        double limit = current.limit;
+        // Лимит растёт, только если он действительно используется, иначе он раздувается без проверки
+        if (inFlightBefore * 2 >= limit) {
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        }
+        return new State(limit, shortRtt, longRtt, current.lastDecreaseNanos);
+    }
+
+    private static double ewma(double average, double sample, double weight) {
+        return average + (sample - average) * weight;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.avito.api.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("Место в лимите: не больше limit одновременных запросов, освобождение возвращает место")
+    void testAcquireRelease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 10);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(3, limit.getInFlight());
+        limit.releaseWithoutSample();
+        assertEquals(3, limit.getLimit());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("При стабильной задержке и полной загрузке лимит растёт до maxLimit")
+    void testGrowth() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 50);
+        for (int i = 0; i < 500; i++) {
+            fill(limit);
+            limit.release(RTT, false);
+            drain(limit);
+        }
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Неиспользуемый лимит не растёт")
+    void testIdleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 50);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(RTT, false);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Рост задержки уменьшает лимит")
+    void testLatencyGradient() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 1, 40);
+        for (int i = 0; i < 200; i++) {
+            fill(limit);
+            limit.release(RTT, false);
+            drain(limit);
+        }
+        for (int i = 0; i < 50; i++) {
+            fill(limit);
+            limit.release(RTT * 10, false);
+            drain(limit);
+        }
+        assertTrue(limit.getLimit() < 30, "лимит " + limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Перегрузка: x0.9, не чаще раза за краткосрочный RTT, не ниже minLimit")
+    void testBackoff() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 50);
+        // Краткосрочный RTT 10 мс
+        assertTrue(limit.tryAcquire());
+        limit.release(RTT, false);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(RTT, true);
+        assertEquals(18, limit.getLimit());
+        // Пачка одновременных ошибок - одно уменьшение
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(RTT, true);
+        }
+        assertEquals(18, limit.getLimit());
+
+        for (int i = 0; i < 30; i++) {
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(RTT) + 1);
+            assertTrue(limit.tryAcquire());
+            limit.release(RTT, true);
+        }
+        assertEquals(5, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    private static void fill(AdaptiveConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // занимаем все места
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimit limit) {
+        while (limit.getInFlight() > 0) {
+            limit.releaseWithoutSample();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.avito.api.resilience;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Автомат защиты одной ручки без блокировок: состояние - неизменяемый {@link State} в {@link AtomicReference}.
+ * <ul>
+ *   <li>CLOSED - запросы проходят; если за окно набралось не меньше minRequests запросов и доля отказов
+ *   (5xx, 429, таймауты, транспортные ошибки) не меньше failureRate, цепь размыкается;</li>
+ *   <li>OPEN - запросы отклоняются сразу, не доходя до стенда, в течение openDuration;</li>
+ *   <li>HALF_OPEN - проходят до probes пробных запросов: все успешны - CLOSED, любой отказ - снова OPEN.
+ *   Если за probeTimeout с начала проб или последнего результата ни одна проба не ответила, пробы считаются потерянными
+ *   и начинается новый набор - иначе одна зависшая проба навсегда заклинила бы ручку.</li>
+ * </ul>
+ */
+public final class CircuitBreaker {
+
+    public enum Mode {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * @param windowStart   начало окна подсчёта (CLOSED), момент размыкания (OPEN) или начала проб (HALF_OPEN)
+     * @param requests      запросов в окне (CLOSED) или успешных проб (HALF_OPEN)
+     * @param failures      отказов в окне
+     * @param probesStarted начатых проб (HALF_OPEN)
+     */
+    private record State(Mode mode, long windowStart, int requests, int failures, int probesStarted) {
+    }
+
+    private final long windowNanos;
+    private final int minRequests;
+    private final double failureRate;
+    private final long openNanos;
+    private final int probes;
+    private final long probeTimeoutNanos;
+    private final AtomicReference<State> state;
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    public CircuitBreaker(long windowNanos, int minRequests, double failureRate, long openNanos, int probes,
+                          long probeTimeoutNanos) {
+        this.windowNanos = windowNanos;
+        this.minRequests = minRequests;
+        this.failureRate = failureRate;
+        this.openNanos = openNanos;
+        this.probes = probes;
+        this.probeTimeoutNanos = probeTimeoutNanos;
+        this.state = new AtomicReference<>(new State(Mode.CLOSED, System.nanoTime(), 0, 0, 0));
+    }
+
+    /**
+     * Можно ли отправить запрос. В HALF_OPEN занимает одну из пробных попыток.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            State current = state.get();
+            State next;
+            long now = System.nanoTime();
+            switch (current.mode) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - current.windowStart < openNanos) {
+                        rejections.increment();
+                        return false;
+                    }
+                    next = new State(Mode.HALF_OPEN, now, 0, 0, 1);
+                    break;
+                default:
+                    if (current.probesStarted < probes) {
+                        next = new State(Mode.HALF_OPEN, current.windowStart, current.requests, 0,
+                                current.probesStarted + 1);
+                    } else if (now - current.windowStart >= probeTimeoutNanos) {
+                        next = new State(Mode.HALF_OPEN, now, 0, 0, 1);
+                    } else {
+                        rejections.increment();
+                        return false;
+                    }
+            }
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public void onResult(boolean failure) {
+        long now = System.nanoTime();
+        while (true) {
+            State current = state.get();
+            State next = switch (current.mode) {
+                case CLOSED -> onClosedResult(current, failure, now);
+                case HALF_OPEN -> failure
+                        ? new State(Mode.OPEN, now, 0, 0, 0)
+                        : current.requests + 1 >= probes
+                        ? new State(Mode.CLOSED, now, 0, 0, 0)
+                        : new State(Mode.HALF_OPEN, now, current.requests + 1, 0, current.probesStarted);
+                // Ответы на запросы, начатые до размыкания, состояние не меняют
+                case OPEN -> current;
+            };
+            if (next == current || state.compareAndSet(current, next)) {
+                if (next.mode == Mode.OPEN && current.mode != Mode.OPEN) {
+                    openings.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Запрос завершился без результата для автомата (ошибка вызывающего кода): в HALF_OPEN проба возвращается.
+     */
+    public void onIgnored() {
+        while (true) {
+            State current = state.get();
+            if (current.mode != Mode.HALF_OPEN || current.probesStarted == 0) {
+                return;
+            }
+            State next = new State(Mode.HALF_OPEN, current.windowStart, current.requests, 0, current.probesStarted - 1);
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private State onClosedResult(State current, boolean failure, long now) {
+        if (now - current.windowStart > windowNanos) {
+            return new State(Mode.CLOSED, now, 1, failure ? 1 : 0, 0);
+        }
+        int requests = current.requests + 1;
+        int failures = current.failures + (failure ? 1 : 0);
+        if (requests >= minRequests && failures >= failureRate * requests) {
+            return new State(Mode.OPEN, now, 0, 0, 0);
+        }
+        return new State(Mode.CLOSED, current.windowStart, requests, failures, 0);
+    }
+
+    public Mode getMode() {
+        return state.get().mode;
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public long getOpenings() {
+        return openings.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.avito.api.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+    private static final long OPEN = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    @DisplayName("CLOSED -> OPEN -> HALF_OPEN -> CLOSED")
+    void testFullCycle() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(WINDOW, 4, 0.5, OPEN, 2, WINDOW);
+        // 1 отказ из 3 - меньше minRequests, цепь замкнута
+        for (boolean failure : new boolean[]{false, true, false}) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(failure);
+        }
+        assertEquals(CircuitBreaker.Mode.CLOSED, breaker.getMode());
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true);
+        assertEquals(CircuitBreaker.Mode.OPEN, breaker.getMode());
+        assertEquals(1, breaker.getOpenings());
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejections());
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(OPEN) + 5);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.Mode.HALF_OPEN, breaker.getMode());
+        assertTrue(breaker.tryAcquire());
+        // Все пробы заняты
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.Mode.HALF_OPEN, breaker.getMode());
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.Mode.CLOSED, breaker.getMode());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Отказ пробы снова размыкает цепь")
+    void testProbeFailureReopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(WINDOW);
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(OPEN) + 5);
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true);
+        assertEquals(CircuitBreaker.Mode.OPEN, breaker.getMode());
+        assertEquals(2, breaker.getOpenings());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Проба без результата не заклинивает HALF_OPEN: возврат пробы и срок ожидания")
+    void testLostProbes() throws InterruptedException {
+        long probeTimeout = TimeUnit.MILLISECONDS.toNanos(30);
+        CircuitBreaker breaker = openBreaker(probeTimeout);
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(OPEN) + 5);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        // Проба завершилась ошибкой вызывающего кода - её место снова доступно
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        // Проба потерялась совсем - после срока начинается новый набор проб
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(probeTimeout) + 5);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.Mode.HALF_OPEN, breaker.getMode());
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.Mode.CLOSED, breaker.getMode());
+    }
+
+    @Test
+    @DisplayName("onIgnored не меняет замкнутую и разомкнутую цепь")
+    void testIgnoredOutsideHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(WINDOW, 1, 0.5, WINDOW, 1, WINDOW);
+        breaker.onIgnored();
+        assertEquals(CircuitBreaker.Mode.CLOSED, breaker.getMode());
+        breaker.onResult(true);
+        breaker.onIgnored();
+        assertEquals(CircuitBreaker.Mode.OPEN, breaker.getMode());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private static CircuitBreaker openBreaker(long probeTimeout) {
+        CircuitBreaker breaker = new CircuitBreaker(WINDOW, 2, 0.5, OPEN, 1, probeTimeout);
+        breaker.onResult(true);
+        breaker.onResult(true);
+        assertEquals(CircuitBreaker.Mode.OPEN, breaker.getMode());
+        return breaker;
+    }
+}
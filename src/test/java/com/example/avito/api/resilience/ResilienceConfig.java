@@ -0,0 +1,63 @@
+package com.example.avito.api.resilience;
+
+import java.time.Duration;
+
+/**
+ * Настройки {@link ResilienceLayer}.
+ *
+ * @param initialLimit          стартовый лимит одновременных запросов
+ * @param minLimit              нижняя граница лимита
+ * @param maxLimit              верхняя граница лимита (не больше maxConcurrency клиента)
+ * @param maxQueueWait          сколько запрос ждёт места в лимите, прежде чем будет отклонён
+ * @param attemptTimeout        таймаут одной попытки
+ * @param maxAttempts           попыток на запрос, включая первую
+ * @param retryBudgetRatio      доля повторов от исходных запросов
+ * @param retryBackoff          базовая пауза перед повтором, растёт экспоненциально со случайным разбросом
+ * @param maxRetryBackoff       верхняя граница паузы перед повтором
+ * @param breakerWindow         окно подсчёта отказов ручки
+ * @param breakerMinRequests    минимум запросов в окне для размыкания
+ * @param breakerFailureRate    доля отказов для размыкания
+ * @param breakerOpenDuration   сколько цепь остаётся разомкнутой
+ * @param breakerProbes         пробных запросов в полуоткрытом состоянии
+ */
+public record ResilienceConfig(int initialLimit, int minLimit, int maxLimit, Duration maxQueueWait,
+                               Duration attemptTimeout, int maxAttempts, double retryBudgetRatio,
+                               Duration retryBackoff, Duration maxRetryBackoff, Duration breakerWindow,
+                               int breakerMinRequests, double breakerFailureRate, Duration breakerOpenDuration,
+                               int breakerProbes) {
+
+    // -Davito.resilience.enabled=false - клиент без адаптивного лимита, повторов и автоматов защиты
+    public static final String ENABLED_PROPERTY = "avito.resilience.enabled";
+
+    public static ResilienceConfig defaults(int maxConcurrency) {
+        return new ResilienceConfig(Math.min(16, maxConcurrency), 1, maxConcurrency, Duration.ofSeconds(10),
+                Duration.ofSeconds(10), 3, 0.1, Duration.ofMillis(50), Duration.ofSeconds(2),
+                Duration.ofSeconds(10), 20, 0.5, Duration.ofSeconds(5), 3);
+    }
+
+    /**
+     * Конфигурация по умолчанию с переопределениями из -Davito.resilience.* или null, если слой выключен.
+     */
+    public static ResilienceConfig fromSystemProperties(int maxConcurrency) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        ResilienceConfig defaults = defaults(maxConcurrency);
+        return new ResilienceConfig(
+                Integer.getInteger("avito.resilience.initialLimit", defaults.initialLimit()),
+                defaults.minLimit(),
+                defaults.maxLimit(),
+                Duration.ofMillis(Long.getLong("avito.resilience.maxQueueWaitMs", defaults.maxQueueWait().toMillis())),
+                Duration.ofMillis(Long.getLong("avito.resilience.timeoutMs", defaults.attemptTimeout().toMillis())),
+                Integer.getInteger("avito.resilience.maxAttempts", defaults.maxAttempts()),
+                Double.parseDouble(System.getProperty("avito.resilience.retryBudgetRatio",
+                        String.valueOf(defaults.retryBudgetRatio()))),
+                defaults.retryBackoff(),
+                defaults.maxRetryBackoff(),
+                defaults.breakerWindow(),
+                Integer.getInteger("avito.resilience.breakerMinRequests", defaults.breakerMinRequests()),
+                defaults.breakerFailureRate(),
+                Duration.ofMillis(Long.getLong("avito.resilience.breakerOpenMs", defaults.breakerOpenDuration().toMillis())),
+                defaults.breakerProbes());
+    }
+}
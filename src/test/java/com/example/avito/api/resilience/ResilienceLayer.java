@@ -0,0 +1,254 @@
+package com.example.avito.api.resilience;
+
+import com.example.avito.api.client.AvitoApiException;
+import com.example.avito.api.metrics.ApiMetrics;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Защита вызовов API: адаптивный лимит одновременных запросов ({@link AdaptiveConcurrencyLimit}),
+ * повторы с экспоненциальной паузой и случайным разбросом в пределах {@link RetryBudget} и
+ * {@link CircuitBreaker} на каждую ручку. На пути запроса нет блокировок - только CAS; ожидание места
+ * в лимите - парковка виртуального потока.
+ * <p>
+ * Отказом считаются 5xx, 429, таймауты и транспортные ошибки; 4xx (400, 404) - нормальные ответы.
+ * POST повторяется, только если запрос заведомо не дошёл до стенда (ошибка соединения, 429),
+ * иначе повтор мог бы создать второе объявление. Любое другое исключение или Error из попытки - ошибка
+ * вызывающего кода: оно пробрасывается без повторов и не влияет ни на лимит, ни на автомат защиты.
+ */
+public class ResilienceLayer implements AutoCloseable {
+
+    // Открытые слои - источник метрик для снимка ApiMetrics
+    private static final Set<ResilienceLayer> ACTIVE = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    static {
+        ApiMetrics.global().addGaugeSource(ResilienceLayer::toPrometheusText);
+    }
+
+    public enum RetryMode {
+        // Идемпотентный запрос: повтор при любом отказе
+        ANY_FAILURE,
+        // Неидемпотентный запрос: повтор, только если стенд его не обработал
+        NOT_PROCESSED,
+        // Без повторов (например, потоковое чтение, часть которого уже передана потребителю)
+        NEVER
+    }
+
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T execute();
+    }
+
+    private final int id = NEXT_ID.incrementAndGet();
+    private final ResilienceConfig config;
+    private final AdaptiveConcurrencyLimit limit;
+    private final RetryBudget retryBudget;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retryBudgetExhausted = new LongAdder();
+    private final LongAdder limitRejections = new LongAdder();
+
+    public ResilienceLayer(ResilienceConfig config) {
+        this.config = config;
+        this.limit = new AdaptiveConcurrencyLimit(config.initialLimit(), config.minLimit(), config.maxLimit());
+        this.retryBudget = new RetryBudget(config.retryBudgetRatio(), Math.max(10, config.maxLimit()));
+        ACTIVE.add(this);
+    }
+
+    @Override
+    public void close() {
+        ACTIVE.remove(this);
+    }
+
+    public ResilienceConfig getConfig() {
+        return config;
+    }
+
+    public <T> T call(String method, String endpoint, RetryMode retryMode, Attempt<T> attempt) {
+        CircuitBreaker breaker = breakers.computeIfAbsent(method + ' ' + endpoint, key -> newBreaker());
+        retryBudget.onRequest();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            acquireLimit(method, endpoint);
+            if (!breaker.tryAcquire()) {
+                limit.releaseWithoutSample();
+                throw new AvitoApiException("Автомат защиты разомкнут для " + method + " " + endpoint
+                        + ": запрос не отправлен");
+            }
+            long start = System.nanoTime();
+            AvitoApiException failure;
+            try {
+                T result = attempt.execute();
+                limit.release(System.nanoTime() - start, false);
+                breaker.onResult(false);
+                return result;
+            } catch (AvitoApiException e) {
+                failure = e;
+            } catch (Throwable e) {
+                // Исключение не от стенда, а из кода вызывающего (например, проверка в consumer потокового
+                // чтения): место в лимите и пробу автомата возвращаем, но ни перегрузкой, ни отказом не считаем
+                limit.releaseWithoutSample();
+                breaker.onIgnored();
+                throw e;
+            }
+
+            Outcome outcome = classify(failure);
+            limit.release(System.nanoTime() - start, outcome.overload);
+            breaker.onResult(outcome.failure);
+            if (!isRetryable(outcome, retryMode) || attemptNumber >= config.maxAttempts()) {
+                throw failure;
+            }
+            if (!retryBudget.tryWithdraw()) {
+                retryBudgetExhausted.increment();
+                throw failure;
+            }
+            retries.increment();
+            LockSupport.parkNanos(backoffNanos(attemptNumber));
+        }
+    }
+
+    private void acquireLimit(String method, String endpoint) {
+        if (limit.tryAcquire()) {
+            return;
+        }
+        long deadline = System.nanoTime() + config.maxQueueWait().toNanos();
+        long pause = 100_000;
+        while (!limit.tryAcquire()) {
+            if (System.nanoTime() - deadline > 0) {
+                limitRejections.increment();
+                throw new AvitoApiException("Нет места в лимите одновременных запросов (" + limit.getLimit()
+                        + ") для " + method + " " + endpoint + " за " + config.maxQueueWait().toMillis() + " мс");
+            }
+            LockSupport.parkNanos(pause);
+            pause = Math.min(pause * 2, 10_000_000);
+        }
+    }
+
+    /**
+     * Пауза "full jitter": случайная в [0, min(max, base * 2^(n-1))].
+     */
+    private long backoffNanos(int attemptNumber) {
+        long ceiling = Math.min(config.maxRetryBackoff().toNanos(),
+                config.retryBackoff().toNanos() << Math.min(20, attemptNumber - 1));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker(config.breakerWindow().toNanos(), config.breakerMinRequests(),
+                config.breakerFailureRate(), config.breakerOpenDuration().toNanos(), config.breakerProbes(),
+                config.attemptTimeout().toNanos());
+    }
+
+    private static boolean isRetryable(Outcome outcome, RetryMode retryMode) {
+        return switch (retryMode) {
+            case ANY_FAILURE -> outcome.failure;
+            case NOT_PROCESSED -> outcome.notProcessed;
+            case NEVER -> false;
+        };
+    }
+
+    /**
+     * @param failure      отказ для автомата защиты
+     * @param overload     признак перегрузки для лимита
+     * @param notProcessed стенд заведомо не обработал запрос
+     */
+    private record Outcome(boolean failure, boolean overload, boolean notProcessed) {
+    }
+
+    private static Outcome classify(AvitoApiException e) {
+        int status = e.getStatusCode();
+        if (status == 429) {
+            return new Outcome(true, true, true);
+        }
+        if (status >= 500) {
+            return new Outcome(true, true, false);
+        }
+        if (status > 0) {
+            return new Outcome(false, false, false);
+        }
+        Throwable cause = e.getCause();
+        if (cause instanceof HttpConnectTimeoutException || cause instanceof ConnectException) {
+            return new Outcome(true, true, true);
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return new Outcome(true, true, false);
+        }
+        if (cause instanceof IOException) {
+            return new Outcome(true, false, false);
+        }
+        // Исключение без ответа и без причины - отклонение самим слоем или ошибка разбора
+        return new Outcome(false, false, false);
+    }
+
+    public AdaptiveConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    public CircuitBreaker.Mode getBreakerMode(String method, String endpoint) {
+        CircuitBreaker breaker = breakers.get(method + ' ' + endpoint);
+        return breaker == null ? CircuitBreaker.Mode.CLOSED : breaker.getMode();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Состояние всех открытых слоёв в формате Prometheus text, метка client различает клиентов.
+     */
+    static String toPrometheusText() {
+        StringBuilder out = new StringBuilder();
+        gauge(out, "avito_api_concurrency_limit", "gauge", "Adaptive limit of concurrent requests",
+                layer -> layer.limit.getLimit());
+        gauge(out, "avito_api_in_flight", "gauge", "Requests in flight", layer -> layer.limit.getInFlight());
+        gauge(out, "avito_api_limit_rejections_total", "counter",
+                "Requests rejected after waiting for the concurrency limit", layer -> layer.limitRejections.sum());
+        gauge(out, "avito_api_retries_total", "counter", "Retried attempts", layer -> layer.retries.sum());
+        gauge(out, "avito_api_retry_budget_exhausted_total", "counter",
+                "Retries skipped because the retry budget was empty", layer -> layer.retryBudgetExhausted.sum());
+        gauge(out, "avito_api_retry_budget_available", "gauge", "Retries currently available in the budget",
+                layer -> layer.retryBudget.getAvailable());
+
+        out.append("# HELP avito_api_circuit_state Circuit breaker state (0 - closed, 1 - half-open, 2 - open)\n");
+        out.append("# TYPE avito_api_circuit_state gauge\n");
+        for (ResilienceLayer layer : ACTIVE) {
+            layer.breakers.forEach((key, breaker) -> out.append("avito_api_circuit_state{").append(layer.labels(key))
+                    .append("} ").append(breaker.getMode().ordinal()).append('\n'));
+        }
+        out.append("# HELP avito_api_circuit_rejections_total Requests rejected by an open circuit\n");
+        out.append("# TYPE avito_api_circuit_rejections_total counter\n");
+        for (ResilienceLayer layer : ACTIVE) {
+            layer.breakers.forEach((key, breaker) -> out.append("avito_api_circuit_rejections_total{")
+                    .append(layer.labels(key)).append("} ").append(breaker.getRejections()).append('\n'));
+        }
+        return out.toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, String type, String help,
+                              ToDoubleFunction<ResilienceLayer> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (ResilienceLayer layer : ACTIVE) {
+            out.append(name).append("{client=\"").append(layer.id).append("\"} ")
+                    .append(String.format(Locale.ROOT, "%.1f", value.applyAsDouble(layer))).append('\n');
+        }
+    }
+
+    private String labels(String key) {
+        int space = key.indexOf(' ');
+        return "client=\"" + id + "\",method=\"" + key.substring(0, space) + "\",endpoint=\""
+                + key.substring(space + 1) + '"';
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.avito.api.resilience;
+
+import com.example.avito.api.client.AvitoApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResilienceLayerTest {
+
+    @Test
+    @DisplayName("Error из кода вызывающего не занимает место в лимите и не размыкает цепь")
+    void testCallerErrorsAreNotFailures() {
+        ResilienceConfig config = new ResilienceConfig(2, 1, 2, Duration.ofMillis(50), Duration.ofSeconds(1), 3,
+                0.1, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(60), 2, 0.5,
+                Duration.ofSeconds(60), 1);
+        try (ResilienceLayer layer = new ResilienceLayer(config)) {
+            for (int i = 0; i < 10; i++) {
+                assertThrows(AssertionError.class, () -> layer.call("GET", "/x", ResilienceLayer.RetryMode.ANY_FAILURE,
+                        () -> {
+                            throw new AssertionError("проверка в consumer");
+                        }));
+                assertThrows(IllegalStateException.class, () -> layer.call("GET", "/x",
+                        ResilienceLayer.RetryMode.ANY_FAILURE, () -> {
+                            throw new IllegalStateException();
+                        }));
+            }
+            assertEquals(0, layer.getLimit().getInFlight());
+            assertEquals(CircuitBreaker.Mode.CLOSED, layer.getBreakerMode("GET", "/x"));
+            assertEquals(0, layer.getRetries());
+
+            // Отказы стенда по-прежнему размыкают цепь
+            for (int i = 0; i < 2; i++) {
+                assertThrows(AvitoApiException.class, () -> layer.call("GET", "/x", ResilienceLayer.RetryMode.NEVER,
+                        () -> {
+                            throw new AvitoApiException("GET /x", 503, "");
+                        }));
+            }
+            assertEquals(CircuitBreaker.Mode.OPEN, layer.getBreakerMode("GET", "/x"));
+            assertEquals(0, layer.getLimit().getInFlight());
+        }
+    }
+}
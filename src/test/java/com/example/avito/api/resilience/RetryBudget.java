@@ -0,0 +1,50 @@
+package com.example.avito.api.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бюджет повторов: каждый исходный запрос пополняет бюджет на {@code ratio} повтора, каждый повтор
+ * тратит один. При массовых отказах стенда повторов не больше ratio от исходного трафика (плюс
+ * небольшой стартовый запас), и клиент не умножает нагрузку на больной сервер.
+ */
+public final class RetryBudget {
+
+    private static final long UNIT = 1000;
+
+    private final long depositPerRequest;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    /**
+     * @param ratio      доля повторов от исходных запросов, например 0.1
+     * @param maxRetries запас повторов (и стартовое значение)
+     */
+    public RetryBudget(double ratio, int maxRetries) {
+        this.depositPerRequest = (long) (ratio * UNIT);
+        this.maxTokens = maxRetries * UNIT;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    public void onRequest() {
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + depositPerRequest));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = tokens.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Доступное число повторов.
+     */
+    public double getAvailable() {
+        return (double) tokens.get() / UNIT;
+    }
+}
@@ -0,0 +1,421 @@
+package com.example.avito.api.scenario;
+
+import com.example.avito.api.load.Pacing;
+import com.example.avito.api.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link WorkloadSpec}, подготовленный к запуску. Все ошибки описания (неизвестная операция или поле, ссылка на
+ * переменную, которую ещё никто не сохранил, пустая смесь) выявляются здесь, до первого запроса.
+ * <p>
+ * Имена переменных заменяются номерами ячеек в массиве итерации, аргументы - готовыми ссылками, смесь сценариев -
+ * расписанием с равномерным чередованием по весам, паузы - генераторами. Пользователь на каждом шаге только
+ * читает ячейки и пишет в статистику шага своей фазы, без поиска по строкам и без блокировок.
+ */
+public final class CompiledWorkload {
+
+    private static final String POOL_PREFIX = "pool.";
+    private static final int POOL_SIZE = 4096;
+
+    /**
+     * Операции сценария: обязательные и необязательные аргументы и поля результата, которые можно сохранить.
+     */
+    public enum Operation {
+        CREATE_ITEM("createItem", Set.of(), Set.of("sellerId"), List.of("id", "sellerId")),
+        GET_ITEM("getItem", Set.of("id"), Set.of(), List.of("sellerId")),
+        GET_SELLER_ITEMS("getSellerItems", Set.of("sellerId"), Set.of(), List.of("id", "count")),
+        GET_STATISTIC("getStatistic", Set.of("id"), Set.of(), List.of("likes", "viewCount", "contacts"));
+
+        private final String key;
+        private final Set<String> required;
+        private final Set<String> optional;
+        private final List<String> outputs;
+
+        Operation(String key, Set<String> required, Set<String> optional, List<String> outputs) {
+            this.key = key;
+            this.required = required;
+            this.optional = optional;
+            this.outputs = outputs;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Неизвестная операция: " + key);
+        }
+    }
+
+    private final List<Phase> phases;
+    private final List<Scenario> scenarios;
+    private final Scenario[] schedule;
+    private final int maxUsers;
+
+    private CompiledWorkload(List<Phase> phases, List<Scenario> scenarios, Scenario[] schedule) {
+        this.phases = phases;
+        this.scenarios = scenarios;
+        this.schedule = schedule;
+        this.maxUsers = phases.stream().mapToInt(phase -> Math.max(phase.from(), phase.to())).max().orElse(0);
+    }
+
+    public List<Phase> phases() {
+        return phases;
+    }
+
+    public List<Scenario> scenarios() {
+        return scenarios;
+    }
+
+    public int maxUsers() {
+        return maxUsers;
+    }
+
+    /**
+     * Сценарий для итерации с порядковым номером {@code iteration}: за каждые sum(weight) итераций каждый
+     * сценарий выполняется ровно weight раз.
+     */
+    public Scenario scenarioFor(long iteration) {
+        return schedule[(int) (iteration % schedule.length)];
+    }
+
+    public static CompiledWorkload compile(WorkloadSpec spec) {
+        if (spec.phases() == null || spec.phases().isEmpty()) {
+            throw new IllegalArgumentException("Не задано ни одной фазы нагрузки");
+        }
+        if (spec.scenarios() == null || spec.scenarios().isEmpty()) {
+            throw new IllegalArgumentException("Не задано ни одного сценария");
+        }
+        List<Phase> phases = compilePhases(spec.phases());
+        ThinkSampler defaultThink = compileThink(spec.think());
+
+        Map<String, ValuePool> pools = new HashMap<>();
+        List<PendingPoolRef> poolRefs = new ArrayList<>();
+        List<Scenario> scenarios = new ArrayList<>();
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        for (WorkloadSpec.Scenario scenarioSpec : spec.scenarios()) {
+            if (scenarioSpec.weight() <= 0) {
+                continue;
+            }
+            Scenario scenario = compileScenario(scenarioSpec, phases.size(), defaultThink, pools, poolRefs);
+            scenarios.add(scenario);
+            weights.put(scenario, scenarioSpec.weight());
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("У всех сценариев нулевой вес");
+        }
+        for (PendingPoolRef ref : poolRefs) {
+            ValuePool pool = pools.get(ref.name());
+            if (pool == null) {
+                throw new IllegalArgumentException(ref.where() + ": ни один шаг не сохраняет переменную '"
+                        + ref.name() + "' для ${" + POOL_PREFIX + ref.name() + "}");
+            }
+            ref.target().pool = pool;
+        }
+        return new CompiledWorkload(List.copyOf(phases), List.copyOf(scenarios),
+                Pacing.interleave(weights, Scenario[]::new));
+    }
+
+    private static List<Phase> compilePhases(List<WorkloadSpec.Phase> specs) {
+        List<Phase> phases = new ArrayList<>();
+        int previousUsers = 0;
+        for (int i = 0; i < specs.size(); i++) {
+            WorkloadSpec.Phase spec = specs.get(i);
+            String name = spec.name() != null ? spec.name() : "phase-" + (i + 1);
+            if (spec.duration() <= 0) {
+                throw new IllegalArgumentException("Фаза " + name + ": длительность должна быть больше нуля");
+            }
+            int from = spec.from() != null ? spec.from() : spec.users() != null ? spec.users() : previousUsers;
+            int to = spec.to() != null ? spec.to() : spec.users() != null ? spec.users() : from;
+            if (from < 0 || to < 0) {
+                throw new IllegalArgumentException("Фаза " + name + ": отрицательное число пользователей");
+            }
+            phases.add(new Phase(i, name, spec.duration() * 1_000_000_000L, from, to));
+            previousUsers = to;
+        }
+        return phases;
+    }
+
+    private static Scenario compileScenario(WorkloadSpec.Scenario spec, int phaseCount, ThinkSampler defaultThink,
+                                            Map<String, ValuePool> pools, List<PendingPoolRef> poolRefs) {
+        if (spec.name() == null || spec.steps() == null || spec.steps().isEmpty()) {
+            throw new IllegalArgumentException("У сценария должны быть имя и хотя бы один шаг: " + spec);
+        }
+        Map<String, Integer> slots = new HashMap<>();
+        List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < spec.steps().size(); i++) {
+            WorkloadSpec.Step stepSpec = spec.steps().get(i);
+            String stepName = stepSpec.name() != null ? stepSpec.name() : stepSpec.op() + "-" + (i + 1);
+            String where = spec.name() + "/" + stepName;
+            Operation operation;
+            try {
+                operation = Operation.of(stepSpec.op());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(where + ": " + e.getMessage());
+            }
+
+            Map<String, String> args = stepSpec.args() != null ? stepSpec.args() : Map.of();
+            for (String arg : args.keySet()) {
+                if (!operation.required.contains(arg) && !operation.optional.contains(arg)) {
+                    throw new IllegalArgumentException(where + ": у " + operation.key + " нет аргумента " + arg);
+                }
+            }
+            for (String arg : operation.required) {
+                if (!args.containsKey(arg)) {
+                    throw new IllegalArgumentException(where + ": не задан аргумент " + arg);
+                }
+            }
+            ValueRef id = compileRef(args.get("id"), where, slots, poolRefs);
+            ValueRef sellerId = compileRef(args.get("sellerId"), where, slots, poolRefs);
+            if (sellerId != null && sellerId.literal != null) {
+                parseSellerId(sellerId.literal, where);
+            }
+
+            // Ячейки сохранения назначаются после разбора аргументов: шаг не может сослаться на свой же результат
+            Map<String, String> save = stepSpec.save() != null ? stepSpec.save() : Map.of();
+            int[] saveSlots = new int[operation.outputs.size()];
+            ValuePool[] savePools = new ValuePool[operation.outputs.size()];
+            Arrays.fill(saveSlots, -1);
+            for (Map.Entry<String, String> entry : save.entrySet()) {
+                int output = operation.outputs.indexOf(entry.getKey());
+                if (output < 0) {
+                    throw new IllegalArgumentException(where + ": у " + operation.key + " нет результата "
+                            + entry.getKey() + ", доступны " + operation.outputs);
+                }
+                String variable = entry.getValue();
+                if (variable == null || variable.isBlank() || variable.startsWith(POOL_PREFIX)) {
+                    throw new IllegalArgumentException(where + ": недопустимое имя переменной '" + variable + "'");
+                }
+                saveSlots[output] = slots.computeIfAbsent(variable, name -> slots.size());
+                savePools[output] = pools.computeIfAbsent(variable, name -> new ValuePool());
+            }
+
+            ThinkSampler think = stepSpec.think() != null ? compileThink(stepSpec.think()) : defaultThink;
+            StepStats[] stats = new StepStats[phaseCount];
+            for (int phase = 0; phase < phaseCount; phase++) {
+                stats[phase] = new StepStats();
+            }
+            steps.add(new Step(stepName, operation, id, sellerId, saveSlots, savePools, think, stats));
+        }
+        return new Scenario(spec.name(), steps.toArray(Step[]::new), slots.size());
+    }
+
+    private static ValueRef compileRef(String value, String where, Map<String, Integer> slots,
+                                       List<PendingPoolRef> poolRefs) {
+        if (value == null) {
+            return null;
+        }
+        if (!value.startsWith("${") || !value.endsWith("}")) {
+            return new ValueRef(value, -1);
+        }
+        String name = value.substring(2, value.length() - 1).trim();
+        if (name.startsWith(POOL_PREFIX)) {
+            ValueRef ref = new ValueRef(null, -1);
+            poolRefs.add(new PendingPoolRef(name.substring(POOL_PREFIX.length()), where, ref));
+            return ref;
+        }
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            throw new IllegalArgumentException(where + ": переменная '" + name
+                    + "' не сохраняется ни одним предыдущим шагом сценария");
+        }
+        return new ValueRef(null, slot);
+    }
+
+    static int parseSellerId(String value, String where) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(where + ": sellerId должен быть целым числом: " + value);
+        }
+    }
+
+    static ThinkSampler compileThink(WorkloadSpec.ThinkTime spec) {
+        if (spec == null || spec.distribution() == null || spec.distribution().equals("none")) {
+            return random -> 0;
+        }
+        double max = spec.max() != null ? spec.max() : Double.MAX_VALUE;
+        return switch (spec.distribution()) {
+            case "constant" -> {
+                long nanos = millisToNanos(require(spec.mean(), "mean", spec));
+                yield random -> nanos;
+            }
+            case "uniform" -> {
+                double min = require(spec.min(), "min", spec);
+                double upper = require(spec.max(), "max", spec);
+                if (upper < min) {
+                    throw new IllegalArgumentException("Пауза uniform: max меньше min: " + spec);
+                }
+                yield random -> millisToNanos(min + random.nextDouble() * (upper - min));
+            }
+            case "exponential" -> {
+                double mean = require(spec.mean(), "mean", spec);
+                yield random -> millisToNanos(Math.min(max, random.nextExponential() * mean));
+            }
+            case "lognormal" -> {
+                double median = require(spec.mean(), "mean", spec);
+                double sigma = require(spec.sigma(), "sigma", spec);
+                yield random -> millisToNanos(Math.min(max, median * Math.exp(sigma * random.nextGaussian())));
+            }
+            default -> throw new IllegalArgumentException("Неизвестное распределение паузы: " + spec.distribution());
+        };
+    }
+
+    private static double require(Double value, String field, WorkloadSpec.ThinkTime spec) {
+        if (value == null || value < 0) {
+            throw new IllegalArgumentException("Пауза " + spec.distribution() + ": не задано " + field + ": " + spec);
+        }
+        return value;
+    }
+
+    private static long millisToNanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+
+    /**
+     * Фаза с линейным изменением числа пользователей.
+     */
+    public record Phase(int index, String name, long durationNanos, int from, int to) {
+
+        public int usersAt(long elapsedInPhaseNanos) {
+            double progress = Math.min(1.0, (double) elapsedInPhaseNanos / durationNanos);
+            return (int) Math.round(from + (to - from) * progress);
+        }
+    }
+
+    /**
+     * Сценарий: шаги и число ячеек переменных одной итерации.
+     */
+    public record Scenario(String name, Step[] steps, int slots) {
+    }
+
+    /**
+     * Шаг: операция, ссылки на аргументы, ячейки и пулы для сохранения результатов (по номеру поля результата
+     * операции, -1 - не сохраняется), пауза после шага и статистика по фазам.
+     */
+    public record Step(String name, Operation operation, ValueRef id, ValueRef sellerId, int[] saveSlots,
+                       ValuePool[] savePools, ThinkSampler think, StepStats[] stats) {
+
+        void save(String[] variables, String[] outputs) {
+            for (int i = 0; i < saveSlots.length; i++) {
+                if (saveSlots[i] >= 0 && outputs[i] != null) {
+                    variables[saveSlots[i]] = outputs[i];
+                    savePools[i].add(outputs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Значение аргумента: литерал, ячейка переменной итерации или пул значений всех пользователей.
+     * {@link #resolve} возвращает null, если значение ещё не получено - шаг тогда пропускается.
+     */
+    public static final class ValueRef {
+        private final String literal;
+        private final int slot;
+        private ValuePool pool;
+
+        private ValueRef(String literal, int slot) {
+            this.literal = literal;
+            this.slot = slot;
+        }
+
+        String resolve(String[] variables, SplittableRandom random) {
+            if (literal != null) {
+                return literal;
+            }
+            if (pool != null) {
+                return pool.random(random);
+            }
+            return variables[slot];
+        }
+    }
+
+    /**
+     * Недавние значения переменной от всех пользователей; кольцевой буфер, чтобы набор не рос за время прогона.
+     */
+    static final class ValuePool {
+        private final AtomicReferenceArray<String> values = new AtomicReferenceArray<>(POOL_SIZE);
+        private final AtomicLong count = new AtomicLong();
+
+        void add(String value) {
+            long index = count.getAndIncrement();
+            values.set((int) (index % POOL_SIZE), value);
+        }
+
+        String random(SplittableRandom random) {
+            int known = (int) Math.min(count.get(), POOL_SIZE);
+            // Ячейка могла быть занята, но ещё не записана - это тоже "значения пока нет"
+            return known == 0 ? null : values.get(random.nextInt(known));
+        }
+    }
+
+    /**
+     * Генератор паузы в наносекундах.
+     */
+    @FunctionalInterface
+    public interface ThinkSampler {
+        long sampleNanos(SplittableRandom random);
+    }
+
+    /**
+     * Результаты шага за фазу: время ответа успешных вызовов, ошибки по кодам ответа (-1 - без ответа)
+     * и пропуски из-за отсутствующих данных от предыдущих шагов.
+     */
+    public static final class StepStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+        private final LongAdder skipped = new LongAdder();
+
+        void recordSuccess(long latencyNanos) {
+            latency.record(latencyNanos);
+        }
+
+        void recordError(int statusCode) {
+            errors.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        }
+
+        void recordSkipped() {
+            skipped.increment();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrors() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        public Map<Integer, Long> getErrorsByStatus() {
+            Map<Integer, Long> result = new TreeMap<>();
+            errors.forEach((status, count) -> result.put(status, count.sum()));
+            return result;
+        }
+
+        public long getSkipped() {
+            return skipped.sum();
+        }
+    }
+
+    private record PendingPoolRef(String name, String where, ValueRef target) {
+    }
+}
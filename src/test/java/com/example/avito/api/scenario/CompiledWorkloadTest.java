@@ -0,0 +1,93 @@
+package com.example.avito.api.scenario;
+
+import com.example.avito.api.scenario.CompiledWorkload.Scenario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledWorkloadTest {
+
+    private static final List<WorkloadSpec.Phase> PHASES = List.of(new WorkloadSpec.Phase("steady", 10, 5, null, null));
+
+    @Test
+    @DisplayName("Описание из ресурсов компилируется, расписание чередует сценарии по весам")
+    void testMarketplaceSchedule() {
+        CompiledWorkload workload = CompiledWorkload.compile(WorkloadSpec.load("scenarios/marketplace.json"));
+        assertEquals(40, workload.maxUsers());
+
+        Map<String, Integer> counts = new HashMap<>();
+        Scenario previous = null;
+        int repeats = 0;
+        for (long iteration = 0; iteration < 10; iteration++) {
+            Scenario scenario = workload.scenarioFor(iteration);
+            counts.merge(scenario.name(), 1, Integer::sum);
+            if (scenario == previous) {
+                repeats++;
+            }
+            previous = scenario;
+        }
+        assertEquals(Map.of("seller", 1, "buyer", 6, "stats", 3), counts);
+        // Самый тяжёлый сценарий (6 из 10) неизбежно идёт подряд, но не длинными сериями
+        assertTrue(repeats <= 2, "повторов подряд: " + repeats);
+        assertNotEquals(workload.scenarioFor(0), workload.scenarioFor(1));
+    }
+
+    @Test
+    @DisplayName("Неизвестная операция - ошибка с местом шага")
+    void testUnknownOperation() {
+        IllegalArgumentException error = assertCompileError(scenario("s",
+                step("create", "createItem", null, Map.of("id", "item")),
+                step("delete", "deleteItem", Map.of("id", "${item}"), null)));
+        assertTrue(error.getMessage().contains("s/delete"), error.getMessage());
+        assertTrue(error.getMessage().contains("deleteItem"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Ссылка на переменную, которую сохраняет только следующий шаг или сам шаг, - ошибка")
+    void testForwardReference() {
+        IllegalArgumentException forward = assertCompileError(scenario("s",
+                step("open", "getItem", Map.of("id", "${item}"), null),
+                step("create", "createItem", null, Map.of("id", "item"))));
+        assertTrue(forward.getMessage().contains("s/open"), forward.getMessage());
+        assertTrue(forward.getMessage().contains("'item'"), forward.getMessage());
+
+        IllegalArgumentException self = assertCompileError(scenario("s",
+                step("open", "getItem", Map.of("id", "${seller}"), Map.of("sellerId", "seller"))));
+        assertTrue(self.getMessage().contains("'seller'"), self.getMessage());
+    }
+
+    @Test
+    @DisplayName("${pool.x} без шага, сохраняющего x, - ошибка; сохранение в другом сценарии - допустимо")
+    void testPoolProducer() {
+        WorkloadSpec.Scenario reader = scenario("reader", step("open", "getItem", Map.of("id", "${pool.item}"), null));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> CompiledWorkload.compile(new WorkloadSpec(null, PHASES, List.of(reader))));
+        assertTrue(error.getMessage().contains("reader/open"), error.getMessage());
+        assertTrue(error.getMessage().contains("${pool.item}"), error.getMessage());
+
+        WorkloadSpec.Scenario writer = scenario("writer", step("create", "createItem", null, Map.of("id", "item")));
+        CompiledWorkload workload = CompiledWorkload.compile(new WorkloadSpec(null, PHASES, List.of(reader, writer)));
+        assertEquals(2, workload.scenarios().size());
+    }
+
+    private static IllegalArgumentException assertCompileError(WorkloadSpec.Scenario scenario) {
+        return assertThrows(IllegalArgumentException.class,
+                () -> CompiledWorkload.compile(new WorkloadSpec(null, PHASES, List.of(scenario))));
+    }
+
+    private static WorkloadSpec.Scenario scenario(String name, WorkloadSpec.Step... steps) {
+        return new WorkloadSpec.Scenario(name, 1, List.of(steps));
+    }
+
+    private static WorkloadSpec.Step step(String name, String op, Map<String, String> args, Map<String, String> save) {
+        return new WorkloadSpec.Step(name, op, args, save, null);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.avito.api.scenario;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.client.AvitoApiException;
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.models.ItemResponse;
+import com.example.avito.api.models.Statistics;
+import com.example.avito.api.scenario.CompiledWorkload.Phase;
+import com.example.avito.api.scenario.CompiledWorkload.Scenario;
+import com.example.avito.api.scenario.CompiledWorkload.Step;
+import com.example.avito.api.scenario.CompiledWorkload.StepStats;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Прогон нагрузки, описанной сценариями ({@link WorkloadSpec}): закрытая модель, каждый виртуальный пользователь -
+ * виртуальный поток, который выполняет итерации сценариев по очереди из смеси и делает паузы между шагами.
+ * <p>
+ * Управляющий поток раз в {@value #CONTROL_INTERVAL_MILLIS} мс пересчитывает число пользователей по текущей фазе:
+ * недостающие запускаются, лишние завершаются на ближайшей границе шага (или прерывают паузу). Результаты копятся
+ * по шагам сценариев отдельно для каждой фазы - время ответа, ошибки по кодам и пропуски шагов, которым не хватило
+ * данных от предыдущих (например, чтение без успешного создания).
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.scenario.ScenarioRunner -Davito.scenario.file=scenarios/marketplace.json}
+ */
+public class ScenarioRunner {
+
+    private static final long CONTROL_INTERVAL_MILLIS = 100;
+    private static final long CONTROL_INTERVAL_NANOS = CONTROL_INTERVAL_MILLIS * 1_000_000;
+    private static final long PROGRESS_INTERVAL_NANOS = 10_000_000_000L;
+
+    private final CompiledWorkload workload;
+    private final AvitoApiClient client;
+    private final long seed;
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final Map<Scenario, LongAdder> completedIterations = new IdentityHashMap<>();
+    private volatile int targetUsers;
+    private volatile int phaseIndex;
+    private volatile boolean running = true;
+
+    public ScenarioRunner(CompiledWorkload workload, AvitoApiClient client, long seed) {
+        this.workload = workload;
+        this.client = client;
+        this.seed = seed;
+        for (Scenario scenario : workload.scenarios()) {
+            completedIterations.put(scenario, new LongAdder());
+        }
+    }
+
+    public void run() throws InterruptedException {
+        Thread[] users = new Thread[workload.maxUsers()];
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long phaseStart = start;
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+        for (Phase phase : workload.phases()) {
+            phaseIndex = phase.index();
+            long phaseEnd = phaseStart + phase.durationNanos();
+            System.out.printf("[%6.1fs] фаза %s: %d -> %d пользователей, %ds%n", (phaseStart - start) / 1e9,
+                    phase.name(), phase.from(), phase.to(), phase.durationNanos() / 1_000_000_000L);
+            long now;
+            while ((now = System.nanoTime()) < phaseEnd) {
+                int target = phase.usersAt(now - phaseStart);
+                targetUsers = target;
+                for (int slot = 0; slot < target; slot++) {
+                    if (users[slot] == null || !users[slot].isAlive()) {
+                        int userSlot = slot;
+                        SplittableRandom userRandom = random.split();
+                        users[slot] = Thread.ofVirtual().name("scenario-user-" + slot)
+                                .start(() -> runUser(userSlot, userRandom));
+                    }
+                }
+                if (now >= nextProgress) {
+                    System.out.printf("[%6.1fs] %s: пользователей %d/%d, итераций начато %d%n", (now - start) / 1e9,
+                            phase.name(), activeUsers.get(), target, iterations.get());
+                    nextProgress += PROGRESS_INTERVAL_NANOS;
+                }
+                LockSupport.parkNanos(Math.min(CONTROL_INTERVAL_NANOS, phaseEnd - now));
+            }
+            phaseStart = phaseEnd;
+        }
+        running = false;
+        targetUsers = 0;
+        for (Thread user : users) {
+            if (user != null) {
+                user.join();
+            }
+        }
+    }
+
+    private void runUser(int slot, SplittableRandom random) {
+        activeUsers.incrementAndGet();
+        try {
+            while (isActive(slot)) {
+                Scenario scenario = workload.scenarioFor(iterations.getAndIncrement());
+                String[] variables = new String[scenario.slots()];
+                for (Step step : scenario.steps()) {
+                    if (!isActive(slot)) {
+                        return;
+                    }
+                    execute(step, variables, random);
+                    think(step.think().sampleNanos(random), slot);
+                }
+                completedIterations.get(scenario).increment();
+            }
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    private boolean isActive(int slot) {
+        return running && slot < targetUsers;
+    }
+
+    /**
+     * Пауза частями, чтобы пользователь, ставший лишним на спаде нагрузки, не досыпал длинную паузу до конца.
+     */
+    private void think(long nanos, int slot) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && isActive(slot)) {
+            LockSupport.parkNanos(Math.min(remaining, CONTROL_INTERVAL_NANOS));
+        }
+    }
+
+    private void execute(Step step, String[] variables, SplittableRandom random) {
+        // Шаг засчитывается в фазу, в которой начался
+        StepStats stats = step.stats()[phaseIndex];
+        String id = step.id() == null ? null : step.id().resolve(variables, random);
+        String sellerId = step.sellerId() == null ? null : step.sellerId().resolve(variables, random);
+        if ((step.id() != null && id == null) || (step.sellerId() != null && sellerId == null)) {
+            stats.recordSkipped();
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            String[] outputs = switch (step.operation()) {
+                case CREATE_ITEM -> {
+                    int seller = sellerId != null ? Integer.parseInt(sellerId) : ItemFixtures.uniqueSellerId();
+                    yield new String[]{client.createItem(ItemFixtures.newItem(seller)), String.valueOf(seller)};
+                }
+                case GET_ITEM -> {
+                    ItemResponse item = client.getItem(id);
+                    yield new String[]{item.getSellerId() == null ? null : String.valueOf(item.getSellerId())};
+                }
+                case GET_SELLER_ITEMS -> {
+                    List<ItemResponse> items = client.getSellerItems(Integer.parseInt(sellerId));
+                    String picked = items.isEmpty() ? null : items.get(random.nextInt(items.size())).getId();
+                    yield new String[]{picked, String.valueOf(items.size())};
+                }
+                case GET_STATISTIC -> {
+                    Statistics statistic = client.getStatistic(id);
+                    yield statistic == null ? new String[3] : new String[]{Objects.toString(statistic.getLikes(), null),
+                            Objects.toString(statistic.getViewCount(), null),
+                            Objects.toString(statistic.getContacts(), null)};
+                }
+            };
+            stats.recordSuccess(System.nanoTime() - started);
+            step.save(variables, outputs);
+        } catch (AvitoApiException e) {
+            stats.recordError(e.getStatusCode());
+        } catch (RuntimeException e) {
+            stats.recordError(-1);
+        }
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        for (Phase phase : workload.phases()) {
+            double seconds = phase.durationNanos() / 1e9;
+            report.append(String.format("Фаза %s (%.0fs, %d -> %d пользователей):%n", phase.name(), seconds,
+                    phase.from(), phase.to()));
+            for (Scenario scenario : workload.scenarios()) {
+                for (Step step : scenario.steps()) {
+                    appendStep(report, scenario, step, new StepStats[]{step.stats()[phase.index()]}, seconds);
+                }
+            }
+        }
+
+        double totalSeconds = workload.phases().stream().mapToLong(Phase::durationNanos).sum() / 1e9;
+        report.append(String.format("Итого за %.0fs:%n", totalSeconds));
+        for (Scenario scenario : workload.scenarios()) {
+            report.append(String.format("  сценарий %s: итераций завершено %d%n", scenario.name(),
+                    completedIterations.get(scenario).sum()));
+            for (Step step : scenario.steps()) {
+                appendStep(report, scenario, step, step.stats(), totalSeconds);
+            }
+        }
+        return report.toString();
+    }
+
+    private static void appendStep(StringBuilder report, Scenario scenario, Step step, StepStats[] phases,
+                                   double seconds) {
+        LatencyHistogram latency = new LatencyHistogram();
+        long errors = 0;
+        long skipped = 0;
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        for (StepStats stats : phases) {
+            latency.add(stats.getLatency());
+            errors += stats.getErrors();
+            skipped += stats.getSkipped();
+            stats.getErrorsByStatus().forEach((status, count) -> byStatus.merge(status, count, Long::sum));
+        }
+        report.append(String.format("  %-28s %7.1f/s ошибок: %d%s, пропущено: %d%n",
+                scenario.name() + "/" + step.name(), latency.getTotalCount() / seconds, errors,
+                byStatus.isEmpty() ? "" : " " + byStatus, skipped));
+        report.append("  ").append(" ".repeat(28)).append(' ').append(latency.formatSummary())
+                .append(System.lineSeparator());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String location = System.getProperty("avito.scenario.file", "scenarios/marketplace.json");
+        CompiledWorkload workload = CompiledWorkload.compile(WorkloadSpec.load(location));
+        long seed = Long.getLong("avito.seed", System.nanoTime());
+        String baseUrl = AvitoApiConfig.getBaseUrl();
+        try (AvitoApiClient client = new AvitoApiClient(baseUrl,
+                Math.max(AvitoApiClient.DEFAULT_MAX_CONCURRENCY, workload.maxUsers()))) {
+            System.out.printf("Сценарии %s на %s: %d сценариев, до %d пользователей, seed=%d%n", location, baseUrl,
+                    workload.scenarios().size(), workload.maxUsers(), seed);
+            ScenarioRunner runner = new ScenarioRunner(workload, client, seed);
+            runner.run();
+            System.out.println(runner.format());
+        }
+        System.exit(0);
+    }
+}
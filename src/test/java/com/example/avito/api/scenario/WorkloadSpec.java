@@ -0,0 +1,91 @@
+package com.example.avito.api.scenario;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Описание нагрузки в JSON: фазы (число виртуальных пользователей от и до), сценарии с весами и шаги сценариев.
+ * Это только разобранный файл - проверка ссылок и подготовка к запуску делаются в {@link CompiledWorkload}.
+ * <pre>
+ * {
+ *   "think": {"distribution": "exponential", "mean": 500, "max": 3000},
+ *   "phases": [
+ *     {"name": "ramp-up", "duration": 30, "from": 0, "to": 50},
+ *     {"name": "steady", "duration": 300, "users": 50},
+ *     {"name": "ramp-down", "duration": 30, "to": 0}
+ *   ],
+ *   "scenarios": [
+ *     {"name": "seller", "weight": 1, "steps": [
+ *       {"name": "create", "op": "createItem", "save": {"id": "item", "sellerId": "seller"}},
+ *       {"name": "open", "op": "getItem", "args": {"id": "${item}"}},
+ *       {"name": "listing", "op": "getSellerItems", "args": {"sellerId": "${seller}"}}
+ *     ]},
+ *     {"name": "buyer", "weight": 9, "steps": [
+ *       {"name": "open", "op": "getItem", "args": {"id": "${pool.item}"}, "think": {"distribution": "constant", "mean": 200}}
+ *     ]}
+ *   ]
+ * }
+ * </pre>
+ * {@code ${name}} - значение, сохранённое раньше в той же итерации сценария, {@code ${pool.name}} - случайное
+ * из недавно сохранённых под этим именем любым пользователем. В файле допускаются комментарии.
+ */
+public record WorkloadSpec(ThinkTime think, List<Phase> phases, List<Scenario> scenarios) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+
+    /**
+     * Фаза нагрузки: число пользователей линейно меняется от {@code from} до {@code to} за {@code duration} секунд.
+     * {@code users} - короткая запись для постоянного числа; не указанное {@code from} берётся из конца прошлой фазы.
+     */
+    public record Phase(String name, long duration, Integer users, Integer from, Integer to) {
+    }
+
+    /**
+     * Сценарий - последовательность шагов одного пользователя; {@code weight} - доля итераций сценария в смеси.
+     */
+    public record Scenario(String name, int weight, List<Step> steps) {
+    }
+
+    /**
+     * Шаг сценария: операция {@code op} (createItem, getItem, getSellerItems, getStatistic), её аргументы,
+     * сохраняемые результаты ({@code save}: поле результата -> имя переменной) и пауза после шага.
+     */
+    public record Step(String name, String op, Map<String, String> args, Map<String, String> save, ThinkTime think) {
+    }
+
+    /**
+     * Пауза пользователя в миллисекундах: constant (mean), uniform (min..max), exponential (mean, не больше max),
+     * lognormal (медиана mean и sigma, не больше max).
+     */
+    public record ThinkTime(String distribution, Double mean, Double min, Double max, Double sigma) {
+    }
+
+    /**
+     * Читает файл с диска, а если его нет - ресурс из classpath (например, {@code scenarios/marketplace.json}).
+     */
+    public static WorkloadSpec load(String location) {
+        try {
+            Path path = Path.of(location);
+            if (Files.exists(path)) {
+                return MAPPER.readValue(path.toFile(), WorkloadSpec.class);
+            }
+            try (InputStream resource = WorkloadSpec.class.getClassLoader().getResourceAsStream(location)) {
+                if (resource == null) {
+                    throw new IllegalArgumentException("Файл сценариев не найден: " + location);
+                }
+                return MAPPER.readValue(resource, WorkloadSpec.class);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать сценарии " + location, e);
+        }
+    }
+}
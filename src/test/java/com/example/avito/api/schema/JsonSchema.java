@@ -0,0 +1,112 @@
+package com.example.avito.api.schema;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Описание формы JSON-ответа: тип значения, обязательные/необязательные поля объекта и элементы массива.
+ * Сама схема ничего не проверяет - перед использованием её компилируют в {@link SchemaValidator}.
+ * <pre>{@code
+ * JsonSchema statistics = JsonSchema.object()
+ *         .required("likes", JsonSchema.number())
+ *         .required("viewCount", JsonSchema.number());
+ * SchemaValidator validator = JsonSchema.arrayOf(statistics).minItems(1).compile();
+ * }</pre>
+ */
+public class JsonSchema {
+
+    private final JsonType type;
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    private JsonSchema items;
+    private int minItems;
+    private boolean nullable;
+
+    private JsonSchema(JsonType type) {
+        this.type = type;
+    }
+
+    public static JsonSchema string() {
+        return new JsonSchema(JsonType.STRING);
+    }
+
+    public static JsonSchema number() {
+        return new JsonSchema(JsonType.NUMBER);
+    }
+
+    public static JsonSchema integer() {
+        return new JsonSchema(JsonType.INTEGER);
+    }
+
+    public static JsonSchema bool() {
+        return new JsonSchema(JsonType.BOOLEAN);
+    }
+
+    public static JsonSchema object() {
+        return new JsonSchema(JsonType.OBJECT);
+    }
+
+    public static JsonSchema arrayOf(JsonSchema items) {
+        JsonSchema schema = new JsonSchema(JsonType.ARRAY);
+        schema.items = items;
+        return schema;
+    }
+
+    public JsonSchema required(String name, JsonSchema schema) {
+        return field(name, schema, true);
+    }
+
+    public JsonSchema optional(String name, JsonSchema schema) {
+        return field(name, schema, false);
+    }
+
+    public JsonSchema minItems(int minItems) {
+        requireType(JsonType.ARRAY, "minItems");
+        this.minItems = minItems;
+        return this;
+    }
+
+    public JsonSchema nullable() {
+        this.nullable = true;
+        return this;
+    }
+
+    public SchemaValidator compile() {
+        return new SchemaValidator(this);
+    }
+
+    JsonType getType() {
+        return type;
+    }
+
+    Map<String, Field> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+
+    JsonSchema getItems() {
+        return items;
+    }
+
+    int getMinItems() {
+        return minItems;
+    }
+
+    boolean isNullable() {
+        return nullable;
+    }
+
+    private JsonSchema field(String name, JsonSchema schema, boolean required) {
+        requireType(JsonType.OBJECT, "поля");
+        fields.put(name, new Field(schema, required));
+        return this;
+    }
+
+    private void requireType(JsonType expected, String what) {
+        if (type != expected) {
+            throw new IllegalStateException(what + " можно задать только для схемы типа " + expected + ", а не " + type);
+        }
+    }
+
+    record Field(JsonSchema schema, boolean required) {
+    }
+}
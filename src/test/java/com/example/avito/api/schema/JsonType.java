@@ -0,0 +1,13 @@
+package com.example.avito.api.schema;
+
+/**
+ * Тип JSON-значения в схеме ответа.
+ */
+public enum JsonType {
+    STRING,
+    NUMBER,
+    INTEGER,
+    BOOLEAN,
+    OBJECT,
+    ARRAY
+}
@@ -0,0 +1,37 @@
+package com.example.avito.api.schema;
+
+/**
+ * Схемы ответов API, скомпилированные один раз при загрузке класса.
+ */
+public final class ResponseSchemas {
+
+    private static final JsonSchema STATISTICS_SCHEMA = JsonSchema.object()
+            .required("viewCount", JsonSchema.number())
+            .required("likes", JsonSchema.number())
+            .required("contacts", JsonSchema.number());
+
+    private static final JsonSchema ITEM_SCHEMA = JsonSchema.object()
+            .required("id", JsonSchema.string())
+            .required("sellerId", JsonSchema.number())
+            .required("name", JsonSchema.string())
+            .required("price", JsonSchema.number())
+            .required("createdAt", JsonSchema.string())
+            .required("statistics", STATISTICS_SCHEMA);
+
+    // POST /api/1/item
+    public static final SchemaValidator CREATE_ITEM = JsonSchema.object()
+            .required("status", JsonSchema.string())
+            .compile();
+
+    // GET /api/1/item/{id} - массив из одного объявления
+    public static final SchemaValidator ITEM = JsonSchema.arrayOf(ITEM_SCHEMA).minItems(1).compile();
+
+    // GET /api/1/{sellerId}/item - массив объявлений, может быть пустым
+    public static final SchemaValidator SELLER_ITEMS = JsonSchema.arrayOf(ITEM_SCHEMA).compile();
+
+    // GET /api/1/statistic/{id}
+    public static final SchemaValidator STATISTIC = JsonSchema.arrayOf(STATISTICS_SCHEMA).minItems(1).compile();
+
+    private ResponseSchemas() {
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.avito.api.schema;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Скомпилированная {@link JsonSchema}: проверяет присутствие и тип всех полей за один проход по токенам
+ * {@link JsonParser}, без построения дерева и повторного разбора GPath-выражений, и собирает все нарушения сразу.
+ * Экземпляр неизменяем и потокобезопасен - компилируется один раз и переиспользуется тестами и нагрузочными прогонами.
+ */
+public class SchemaValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Node root;
+
+    SchemaValidator(JsonSchema schema) {
+        this.root = compile(schema);
+    }
+
+    public ValidationResult validate(byte[] json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return validate(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ValidationResult validate(String json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return validate(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ValidationResult validate(InputStream json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return validate(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ValidationResult validate(JsonParser parser) throws IOException {
+        List<String> violations = new ArrayList<>();
+        Path path = new Path();
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                violations.add("$: пустое тело ответа");
+            } else {
+                validateValue(parser, token, root, path, violations);
+            }
+        } catch (JsonProcessingException e) {
+            violations.add(path + ": некорректный JSON - " + e.getOriginalMessage());
+        }
+        return new ValidationResult(violations);
+    }
+
+    private static void validateValue(JsonParser parser, JsonToken token, Node node, Path path,
+                                      List<String> violations) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            if (!node.nullable) {
+                violations.add(path + ": null вместо " + node.type);
+            }
+            return;
+        }
+        boolean matches = switch (node.type) {
+            case STRING -> token == JsonToken.VALUE_STRING;
+            case NUMBER -> token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+            case INTEGER -> token == JsonToken.VALUE_NUMBER_INT;
+            case BOOLEAN -> token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+            case OBJECT -> token == JsonToken.START_OBJECT;
+            case ARRAY -> token == JsonToken.START_ARRAY;
+        };
+        if (!matches) {
+            violations.add(path + ": ожидался " + node.type + ", получено " + describe(token));
+            parser.skipChildren();
+        } else if (node.type == JsonType.OBJECT) {
+            validateObject(parser, node, path, violations);
+        } else if (node.type == JsonType.ARRAY) {
+            validateArray(parser, node, path, violations);
+        }
+    }
+
+    private static void validateObject(JsonParser parser, Node node, Path path, List<String> violations) throws IOException {
+        long seen = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Integer index = node.fieldIndex.get(parser.currentName());
+            JsonToken valueToken = parser.nextToken();
+            if (index == null) {
+                // Неописанные в схеме поля не проверяем, но их содержимое нужно пропустить
+                parser.skipChildren();
+                continue;
+            }
+            seen |= 1L << index;
+            path.push(node.fieldNames[index]);
+            validateValue(parser, valueToken, node.fieldNodes[index], path, violations);
+            path.pop();
+        }
+        long missing = node.requiredMask & ~seen;
+        while (missing != 0) {
+            int index = Long.numberOfTrailingZeros(missing);
+            path.push(node.fieldNames[index]);
+            violations.add(path + ": отсутствует обязательное поле");
+            path.pop();
+            missing &= missing - 1;
+        }
+    }
+
+    private static void validateArray(JsonParser parser, Node node, Path path, List<String> violations) throws IOException {
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            path.push(count);
+            validateValue(parser, token, node.items, path, violations);
+            path.pop();
+            count++;
+        }
+        if (count < node.minItems) {
+            violations.add(path + ": ожидалось не меньше " + node.minItems + " элементов, получено " + count);
+        }
+    }
+
+    private static String describe(JsonToken token) {
+        return switch (token) {
+            case START_OBJECT -> "OBJECT";
+            case START_ARRAY -> "ARRAY";
+            case VALUE_STRING -> "STRING";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "NUMBER";
+            case VALUE_TRUE, VALUE_FALSE -> "BOOLEAN";
+            default -> token.name();
+        };
+    }
+
+    private static Node compile(JsonSchema schema) {
+        Map<String, JsonSchema.Field> fields = schema.getFields();
+        if (fields.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Схема объекта поддерживает не больше " + Long.SIZE + " полей");
+        }
+        Map<String, Integer> fieldIndex = new HashMap<>();
+        String[] fieldNames = new String[fields.size()];
+        Node[] fieldNodes = new Node[fields.size()];
+        long requiredMask = 0;
+        int index = 0;
+        for (Map.Entry<String, JsonSchema.Field> field : fields.entrySet()) {
+            fieldIndex.put(field.getKey(), index);
+            fieldNames[index] = field.getKey();
+            fieldNodes[index] = compile(field.getValue().schema());
+            if (field.getValue().required()) {
+                requiredMask |= 1L << index;
+            }
+            index++;
+        }
+        Node items = schema.getItems() == null ? null : compile(schema.getItems());
+        return new Node(schema.getType(), schema.isNullable(), fieldIndex, fieldNames, fieldNodes, requiredMask,
+                items, schema.getMinItems());
+    }
+
+    private record Node(JsonType type, boolean nullable, Map<String, Integer> fieldIndex, String[] fieldNames,
+                        Node[] fieldNodes, long requiredMask, Node items, int minItems) {
+    }
+
+    /**
+     * Текущий путь в документе; строка "$[0].statistics.likes" собирается только при нарушении.
+     */
+    private static final class Path {
+        private Object[] segments = new Object[8];
+        private int depth;
+
+        void push(Object segment) {
+            if (depth == segments.length) {
+                segments = Arrays.copyOf(segments, depth * 2);
+            }
+            segments[depth++] = segment;
+        }
+
+        void pop() {
+            segments[--depth] = null;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder path = new StringBuilder("$");
+            for (int i = 0; i < depth; i++) {
+                if (segments[i] instanceof Integer index) {
+                    path.append('[').append(index).append(']');
+                } else {
+                    path.append('.').append(segments[i]);
+                }
+            }
+            return path.toString();
+        }
+    }
+}
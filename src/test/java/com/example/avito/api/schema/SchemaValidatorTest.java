@@ -0,0 +1,134 @@
+package com.example.avito.api.schema;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchemaValidatorTest {
+
+    private static final String STATISTICS = "{\"likes\":1,\"viewCount\":2,\"contacts\":3}";
+    private static final String ITEM = "{\"id\":\"b50a7d79-25bd-462b-9630-a2ad0b1b1e91\",\"sellerId\":345678,"
+            + "\"name\":\"n\",\"price\":100,\"createdAt\":\"2026-01-01\",\"statistics\":" + STATISTICS + "}";
+
+    @Test
+    @DisplayName("Корректные ответы проходят, неописанные поля пропускаются")
+    void testValid() {
+        assertValid(ResponseSchemas.ITEM, "[" + ITEM + "]");
+        assertValid(ResponseSchemas.SELLER_ITEMS, "[]");
+        assertValid(ResponseSchemas.SELLER_ITEMS, "[" + ITEM + "," + ITEM + "]");
+        assertValid(ResponseSchemas.STATISTIC, "[" + STATISTICS + "]");
+        assertValid(ResponseSchemas.CREATE_ITEM, "{\"status\":\"Сохранили\",\"extra\":{\"a\":[1,{\"b\":null}]}}");
+        // Три способа передать тело дают один результат
+        assertEquals(List.of(), ResponseSchemas.ITEM.validate(("[" + ITEM + "]").getBytes(StandardCharsets.UTF_8))
+                .getViolations());
+    }
+
+    @Test
+    @DisplayName("Отсутствующее обязательное поле")
+    void testMissingField() {
+        assertViolations(ResponseSchemas.ITEM, "[" + ITEM.replace("\"price\":100,", "") + "]",
+                "$[0].price: отсутствует обязательное поле");
+        // Необязательное поле может отсутствовать
+        SchemaValidator optional = JsonSchema.object().optional("note", JsonSchema.string()).compile();
+        assertValid(optional, "{}");
+    }
+
+    @Test
+    @DisplayName("Неверный тип значения")
+    void testWrongType() {
+        assertViolations(ResponseSchemas.ITEM, "[" + ITEM.replace("\"price\":100", "\"price\":\"100\"") + "]",
+                "$[0].price: ожидался NUMBER, получено STRING");
+        assertViolations(ResponseSchemas.ITEM, "{}", "$: ожидался ARRAY, получено OBJECT");
+        SchemaValidator integer = JsonSchema.object().required("count", JsonSchema.integer()).compile();
+        assertViolations(integer, "{\"count\":1.5}", "$.count: ожидался INTEGER, получено NUMBER");
+        SchemaValidator bool = JsonSchema.object().required("flag", JsonSchema.bool()).compile();
+        assertValid(bool, "{\"flag\":false}");
+        // Значение неверного типа пропускается целиком, проверка продолжается со следующего поля
+        assertViolations(bool, "{\"flag\":{\"flag\":[true]}}", "$.flag: ожидался BOOLEAN, получено OBJECT");
+    }
+
+    @Test
+    @DisplayName("null допустим только для nullable()")
+    void testNullable() {
+        SchemaValidator strict = JsonSchema.object().required("name", JsonSchema.string()).compile();
+        SchemaValidator nullable = JsonSchema.object().required("name", JsonSchema.string().nullable()).compile();
+        assertViolations(strict, "{\"name\":null}", "$.name: null вместо STRING");
+        assertValid(nullable, "{\"name\":null}");
+        // nullable не делает поле необязательным
+        assertViolations(nullable, "{}", "$.name: отсутствует обязательное поле");
+    }
+
+    @Test
+    @DisplayName("minItems")
+    void testMinItems() {
+        assertViolations(ResponseSchemas.ITEM, "[]", "$: ожидалось не меньше 1 элементов, получено 0");
+        SchemaValidator two = JsonSchema.arrayOf(JsonSchema.number()).minItems(2).compile();
+        assertViolations(two, "[1]", "$: ожидалось не меньше 2 элементов, получено 1");
+        assertValid(two, "[1,2,3]");
+        assertThrows(IllegalStateException.class, () -> JsonSchema.object().minItems(1));
+    }
+
+    @Test
+    @DisplayName("Ошибка во вложенном объекте statistics - с полным путём")
+    void testNestedStatistics() {
+        String item = ITEM.replace("\"likes\":1,", "").replace("\"contacts\":3", "\"contacts\":\"3\"");
+        assertViolations(ResponseSchemas.SELLER_ITEMS, "[" + ITEM + "," + item + "]",
+                "$[1].statistics.contacts: ожидался NUMBER, получено STRING",
+                "$[1].statistics.likes: отсутствует обязательное поле");
+        assertViolations(ResponseSchemas.ITEM, "[" + ITEM.replace(STATISTICS, "[]") + "]",
+                "$[0].statistics: ожидался OBJECT, получено ARRAY");
+    }
+
+    @Test
+    @DisplayName("Обрезанный и пустой JSON")
+    void testTruncatedJson() {
+        String truncated = "[" + ITEM.substring(0, ITEM.indexOf("\"likes\":1") + 8);
+        List<String> violations = ResponseSchemas.ITEM.validate(truncated).getViolations();
+        assertEquals(1, violations.size(), violations.toString());
+        assertTrue(violations.get(0).startsWith("$[0].statistics: некорректный JSON - "), violations.get(0));
+
+        violations = ResponseSchemas.ITEM.validate("[" + ITEM).getViolations();
+        assertEquals(1, violations.size(), violations.toString());
+        assertTrue(violations.get(0).startsWith("$: некорректный JSON - "), violations.get(0));
+
+        assertViolations(ResponseSchemas.ITEM, "", "$: пустое тело ответа");
+    }
+
+    @Test
+    @DisplayName("Все нарушения одного ответа перечисляются вместе, в порядке документа")
+    void testSeveralViolations() {
+        String item = "{\"id\":7,\"sellerId\":null,\"name\":\"n\",\"createdAt\":\"2026-01-01\","
+                + "\"statistics\":{\"likes\":true,\"viewCount\":2}}";
+        assertViolations(ResponseSchemas.ITEM, "[" + item + "]",
+                "$[0].id: ожидался STRING, получено NUMBER",
+                "$[0].sellerId: null вместо NUMBER",
+                "$[0].statistics.likes: ожидался NUMBER, получено BOOLEAN",
+                "$[0].statistics.contacts: отсутствует обязательное поле",
+                "$[0].price: отсутствует обязательное поле");
+
+        ValidationResult result = ResponseSchemas.ITEM.validate("[" + item + "]");
+        AssertionError error = assertThrows(AssertionError.class, result::assertValid);
+        assertTrue(error.getMessage().startsWith("Ответ не соответствует схеме (5):"), error.getMessage());
+        for (String violation : result.getViolations()) {
+            assertTrue(error.getMessage().contains(" - " + violation), violation);
+        }
+    }
+
+    private static void assertValid(SchemaValidator validator, String json) {
+        ValidationResult result = validator.validate(json);
+        assertTrue(result.isValid(), result.toString());
+        assertEquals("valid", result.toString());
+    }
+
+    private static void assertViolations(SchemaValidator validator, String json, String... expected) {
+        ValidationResult result = validator.validate(json);
+        assertEquals(List.of(expected), result.getViolations());
+        assertEquals(expected.length == 0, result.isValid());
+    }
+}
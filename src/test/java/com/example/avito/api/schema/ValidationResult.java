@@ -0,0 +1,38 @@
+package com.example.avito.api.schema;
+
+import java.util.List;
+
+/**
+ * Все нарушения схемы, найденные за один проход по ответу.
+ */
+public class ValidationResult {
+
+    private final List<String> violations;
+
+    ValidationResult(List<String> violations) {
+        this.violations = List.copyOf(violations);
+    }
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    /**
+     * Падает с перечислением всех нарушений сразу, а не только первого.
+     */
+    public void assertValid() {
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Ответ не соответствует схеме (" + violations.size() + "):"
+                    + System.lineSeparator() + " - " + String.join(System.lineSeparator() + " - ", violations));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "valid" : String.join("; ", violations);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.avito.api.slo;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет времени ответа ручки для теста. Тест выполняется {@link #warmup()} раз без замеров и
+ * {@link #repetitions()} раз с замерами всех запросов к ручке (через RestAssured с
+ * {@link com.example.avito.api.metrics.ApiMetricsFilter} и через AvitoApiClient); если перцентиль
+ * превышает бюджет, тест падает со сводкой гистограммы.
+ * <pre>{@code
+ * @LatencyBudget(endpoint = AvitoApiConfig.ITEM_BY_ID_ENDPOINT, method = "GET", p90 = "150ms")
+ * }</pre>
+ * Бюджеты задаются строкой с единицей: 500us, 150ms, 2s. Пустая строка - перцентиль не проверяется.
+ * Перцентиль проверяется только на достаточной выборке (p90 - от 10 замеров, p99 - от 100), иначе он равен
+ * максимуму и тест падает от единичного выброса; с меньшим числом замеров бюджет считается ошибкой настройки.
+ * <p>
+ * Повторы вызывают метод на том же экземпляре без @BeforeEach, поэтому аннотация - только для тестов,
+ * которые можно безопасно повторять: чтений общих фикстур. Тесты с созданием объявлений под бюджет не ставятся -
+ * каждый повтор создавал бы объявления на общем стенде тем же продавцом.
+ * На медленном стенде бюджеты масштабируются через {@code -Davito.slo.scale=3}, {@code -Davito.slo.enabled=false}
+ * выполняет тест один раз без проверок.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Repeatable(LatencyBudgets.class)
+@ExtendWith(LatencyBudgetExtension.class)
+public @interface LatencyBudget {
+
+    /**
+     * Шаблон ручки из {@link com.example.avito.api.AvitoApiConfig}, например ITEM_BY_ID_ENDPOINT.
+     */
+    String endpoint();
+
+    /**
+     * HTTP-метод; пустая строка - все методы ручки.
+     */
+    String method() default "";
+
+    String p50() default "";
+
+    String p90() default "";
+
+    String p99() default "";
+
+    int warmup() default 3;
+
+    int repetitions() default 10;
+}
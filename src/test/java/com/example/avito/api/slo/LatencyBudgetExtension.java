@@ -0,0 +1,137 @@
+package com.example.avito.api.slo;
+
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.metrics.ScopedLatency;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Выполняет тест с {@link LatencyBudget}: прогрев, повторы с замером запросов в {@link ScopedLatency}
+ * и проверка перцентилей. Последний повтор выполняется самим JUnit, предыдущие - повторным вызовом метода
+ * на том же экземпляре теста (без повторного @BeforeEach).
+ */
+public class LatencyBudgetExtension implements InvocationInterceptor {
+
+    // -Davito.slo.enabled=false - выполнять тесты один раз без проверки бюджетов
+    public static final String ENABLED_PROPERTY = "avito.slo.enabled";
+    // -Davito.slo.scale=3 - умножить все бюджеты (медленный стенд, отладка)
+    public static final String SCALE_PROPERTY = "avito.slo.scale";
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        List<LatencyBudget> budgets =
+                AnnotationSupport.findRepeatableAnnotations(invocationContext.getExecutable(), LatencyBudget.class);
+        if (budgets.isEmpty() || !Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            invocation.proceed();
+            return;
+        }
+        int warmup = 0;
+        int repetitions = 1;
+        for (LatencyBudget budget : budgets) {
+            warmup = Math.max(warmup, budget.warmup());
+            repetitions = Math.max(repetitions, budget.repetitions());
+        }
+
+        for (int i = 0; i < warmup; i++) {
+            invokeAgain(invocationContext);
+        }
+        try (ScopedLatency scope = ScopedLatency.open()) {
+            for (int i = 1; i < repetitions; i++) {
+                invokeAgain(invocationContext);
+            }
+            invocation.proceed();
+            verify(budgets, scope, extensionContext);
+        }
+    }
+
+    private static void invokeAgain(ReflectiveInvocationContext<Method> invocationContext) {
+        ReflectionSupport.invokeMethod(invocationContext.getExecutable(), invocationContext.getTarget().orElse(null),
+                invocationContext.getArguments().toArray());
+    }
+
+    private static void verify(List<LatencyBudget> budgets, ScopedLatency scope, ExtensionContext extensionContext) {
+        double scale = Double.parseDouble(System.getProperty(SCALE_PROPERTY, "1"));
+        List<String> violations = new ArrayList<>();
+        for (LatencyBudget budget : budgets) {
+            String method = budget.method().isEmpty() ? null : budget.method();
+            String name = (method == null ? "*" : method) + ' ' + budget.endpoint();
+            LatencyHistogram latency = scope.get(method, budget.endpoint());
+            if (latency.getTotalCount() == 0) {
+                violations.add(name + ": тест не выполнил ни одного запроса к ручке");
+                continue;
+            }
+            extensionContext.publishReportEntry("latency " + name, latency.formatSummary());
+            check(violations, name, latency, 50, budget.p50(), scale);
+            check(violations, name, latency, 90, budget.p90(), scale);
+            check(violations, name, latency, 99, budget.p99(), scale);
+        }
+        if (!violations.isEmpty()) {
+            fail("Превышен бюджет времени ответа:" + System.lineSeparator() + String.join(System.lineSeparator(), violations));
+        }
+    }
+
+    private static void check(List<String> violations, String name, LatencyHistogram latency, double percentile,
+                              String budget, double scale) {
+        if (budget.isEmpty()) {
+            return;
+        }
+        long required = minimumSamples(percentile);
+        if (latency.getTotalCount() < required) {
+            // При малой выборке высокий перцентиль - это максимум, и тест падает от одной паузы GC или сети
+            violations.add(String.format("%s: для p%s нужно не меньше %d замеров, а их %d - увеличьте repetitions "
+                    + "или проверяйте более низкий перцентиль", name, formatPercentile(percentile), required,
+                    latency.getTotalCount()));
+            return;
+        }
+        long limitNanos = (long) (parseNanos(budget) * scale);
+        long actualNanos = latency.getValueAtPercentile(percentile);
+        if (actualNanos > limitNanos) {
+            violations.add(String.format("%s: p%s = %.2fms > %.2fms%n    %s", name, formatPercentile(percentile),
+                    actualNanos / 1e6, limitNanos / 1e6, latency.formatSummary()));
+        }
+    }
+
+    /**
+     * Наименьшая выборка, в которой перцентиль не совпадает с максимумом: p50 - 2, p90 - 10, p99 - 100.
+     */
+    static long minimumSamples(double percentile) {
+        return (long) Math.ceil(100.0 / (100.0 - percentile) - 1e-9);
+    }
+
+    /**
+     * "500us", "150ms", "2s", "100ns" -> наносекунды.
+     */
+    static long parseNanos(String value) {
+        String trimmed = value.trim();
+        int unitStart = 0;
+        while (unitStart < trimmed.length()
+                && (Character.isDigit(trimmed.charAt(unitStart)) || trimmed.charAt(unitStart) == '.')) {
+            unitStart++;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("Некорректный бюджет времени: " + value);
+        }
+        double amount = Double.parseDouble(trimmed.substring(0, unitStart));
+        return switch (trimmed.substring(unitStart).trim()) {
+            case "ns" -> (long) amount;
+            case "us" -> (long) (amount * 1e3);
+            case "ms" -> (long) (amount * 1e6);
+            case "s" -> (long) (amount * 1e9);
+            default -> throw new IllegalArgumentException("Неизвестная единица бюджета времени: " + value);
+        };
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.avito.api.slo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LatencyBudgetExtensionTest {
+
+    @Test
+    @DisplayName("Минимальная выборка для перцентиля")
+    void testMinimumSamples() {
+        assertEquals(2, LatencyBudgetExtension.minimumSamples(50));
+        assertEquals(10, LatencyBudgetExtension.minimumSamples(90));
+        assertEquals(100, LatencyBudgetExtension.minimumSamples(99));
+        assertEquals(1000, LatencyBudgetExtension.minimumSamples(99.9));
+    }
+
+    @Test
+    @DisplayName("Разбор бюджета времени")
+    void testParseNanos() {
+        assertEquals(100, LatencyBudgetExtension.parseNanos("100ns"));
+        assertEquals(500_000, LatencyBudgetExtension.parseNanos("500us"));
+        assertEquals(150_000_000, LatencyBudgetExtension.parseNanos(" 150ms "));
+        assertEquals(1_500_000_000, LatencyBudgetExtension.parseNanos("1.5s"));
+        assertThrows(IllegalArgumentException.class, () -> LatencyBudgetExtension.parseNanos("ms"));
+        assertThrows(IllegalArgumentException.class, () -> LatencyBudgetExtension.parseNanos("10min"));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.avito.api.slo;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Контейнер для нескольких {@link LatencyBudget} на одном тесте.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@ExtendWith(LatencyBudgetExtension.class)
+public @interface LatencyBudgets {
+
+    LatencyBudget[] value();
+}
@@ -0,0 +1,138 @@
+package com.example.avito.api.soak;
+
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Состояние JVM клиента через JMX: паузы GC (по уведомлениям сборщиков), занятая куча после сборки,
+ * открытые сокеты и число потоков. {@link #sample()} возвращает значения за окно с прошлого вызова.
+ * <p>
+ * Для поиска утечек показательна нижняя граница кучи после GC за окно: после молодых сборок куча "пилит",
+ * а растущий от окна к окну минимум означает, что живые объекты накапливаются.
+ */
+public class JvmSampler implements AutoCloseable {
+
+    private static final Path PROC_FD = Path.of("/proc/self/fd");
+
+    private final Set<String> heapPools = new HashSet<>();
+    private final Map<NotificationEmitter, NotificationListener> listeners = new HashMap<>();
+    private final LatencyHistogram gcPauses = new LatencyHistogram();
+    private final AtomicLong minHeapAfterGc = new AtomicLong(Long.MAX_VALUE);
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    public JvmSampler() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                NotificationListener listener = (notification, handback) -> onGc(notification);
+                emitter.addNotificationListener(listener, notification -> notification.getType()
+                        .equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION), null);
+                listeners.put(emitter, listener);
+            }
+        }
+    }
+
+    private void onGc(Notification notification) {
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        // Циклы конкурентных сборщиков ("G1 Concurrent GC", "ZGC Cycles") идут параллельно с приложением - не паузы
+        String name = info.getGcName();
+        if (!name.contains("Concurrent") && !name.contains("Cycles")) {
+            gcPauses.record(info.getGcInfo().getDuration(), TimeUnit.MILLISECONDS);
+        }
+        long heapAfter = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                heapAfter += pool.getValue().getUsed();
+            }
+        }
+        minHeapAfterGc.accumulateAndGet(heapAfter, Math::min);
+    }
+
+    /**
+     * Значения за окно с прошлого вызова; паузы и минимум кучи после GC обнуляются.
+     */
+    public Sample sample() {
+        long heapAfterGc = minHeapAfterGc.getAndSet(Long.MAX_VALUE);
+        return new Sample(gcPauses.snapshotAndReset(),
+                heapAfterGc == Long.MAX_VALUE ? -1 : heapAfterGc,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                openSockets(),
+                threads.getThreadCount());
+    }
+
+    /**
+     * Число открытых сокетов процесса по /proc/self/fd; вне Linux - все открытые дескрипторы, если известны, иначе -1.
+     */
+    private long openSockets() {
+        if (Files.isDirectory(PROC_FD)) {
+            long sockets = 0;
+            try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(PROC_FD)) {
+                for (Path descriptor : descriptors) {
+                    try {
+                        if (Files.readSymbolicLink(descriptor).toString().startsWith("socket:")) {
+                            sockets++;
+                        }
+                    } catch (IOException e) {
+                        // Дескриптор закрылся, пока читали каталог
+                    }
+                }
+                return sockets;
+            } catch (IOException e) {
+                // Переходим к счётчику дескрипторов
+            }
+        }
+        return os instanceof UnixOperatingSystemMXBean unix ? unix.getOpenFileDescriptorCount() : -1;
+    }
+
+    @Override
+    public void close() {
+        listeners.forEach((emitter, listener) -> {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // Уже отписан
+            }
+        });
+        listeners.clear();
+    }
+
+    /**
+     * @param gcPauses    паузы GC за окно
+     * @param heapAfterGc минимум занятой кучи после сборки за окно, -1 - сборок не было
+     * @param heapUsed    занятая куча в момент снимка
+     * @param openSockets открытые сокеты процесса
+     * @param threads     живые платформенные потоки
+     */
+    public record Sample(LatencyHistogram gcPauses, long heapAfterGc, long heapUsed, long openSockets, int threads) {
+    }
+}
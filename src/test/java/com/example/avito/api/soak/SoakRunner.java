@@ -0,0 +1,523 @@
+package com.example.avito.api.soak;
+
+import com.example.avito.api.AvitoApiConfig;
+import com.example.avito.api.client.AvitoApiClient;
+import com.example.avito.api.fixtures.ItemFixtures;
+import com.example.avito.api.ids.UuidSet;
+import com.example.avito.api.load.Pacing;
+import com.example.avito.api.metrics.ApiMetricsFilter;
+import com.example.avito.api.metrics.LatencyHistogram;
+import com.example.avito.api.models.CompactItem;
+import com.example.avito.api.models.Item;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Длительный (часы) прогон смеси ручек с постоянной частотой для поиска медленных утечек - и на стенде,
+ * и в клиентском стеке (AvitoApiClient или RestAssured с фильтрами тестов, {@code avito.soak.stack}).
+ * <p>
+ * Запросы планируются с фиксированным шагом (открытая модель, как в {@link com.example.avito.api.load.LoadGenerator}),
+ * операции чередуются по весам {@code avito.soak.mix} равномерно, без случайных перекосов. Раз в
+ * {@code avito.soak.window} секунд оконные гистограммы времени ответа по ручкам и состояние JVM
+ * ({@link JvmSampler}: паузы GC, куча после GC, сокеты, потоки) пишутся строкой в CSV {@code avito.soak.output}
+ * для построения графиков. В конце - дрейф времени ответа и тренд кучи после GC за прогон.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.avito.api.soak.SoakRunner -Davito.soak.rate=50 -Davito.soak.duration=14400}
+ */
+public class SoakRunner {
+
+    private static final int KNOWN_ITEMS = 4096;
+
+    public enum Operation {
+        CREATE("create"),
+        ITEM("item"),
+        SELLER_ITEMS("seller"),
+        STATISTIC("statistic");
+
+        private final String column;
+
+        Operation(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Вызовы ручек через один из клиентских стеков; ошибка - исключение или AssertionError.
+     */
+    interface Stack extends AutoCloseable {
+        String createItem(Item item);
+
+        void getItem(String id);
+
+        void getSellerItems(int sellerId);
+
+        void getStatistic(String id);
+
+        /**
+         * Исполнитель запросов; по умолчанию - виртуальный поток на запрос.
+         */
+        default ExecutorService newExecutor(int maxInFlight) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+
+        @Override
+        default void close() {
+        }
+    }
+
+    private final Stack stack;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final Operation[] schedule;
+    private final Map<Operation, LatencyHistogram> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    // Недавно созданные объявления - цели чтений; кольцевой буфер, чтобы набор не рос за часы прогона
+    private final AtomicReferenceArray<CompactItem> knownItems = new AtomicReferenceArray<>(KNOWN_ITEMS);
+    private final AtomicLong createdCount = new AtomicLong();
+    // Все ID, выданные за прогон, - проверка уникальности на часах создания. Таблица вне кучи,
+    // чтобы её рост не попадал в тренд кучи после GC, по которому ищутся утечки
+    private final UuidSet createdIds = UuidSet.offHeap(65_536);
+    private final LongAdder duplicateIds = new LongAdder();
+    private final List<Window> windows = new ArrayList<>();
+
+    public SoakRunner(Stack stack, double ratePerSecond, int maxInFlight, Map<Operation, Integer> mix) {
+        this.stack = stack;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+        this.schedule = Pacing.interleave(mix, Operation[]::new);
+        for (Operation operation : Operation.values()) {
+            latency.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public List<Window> run(Duration duration, Duration window, JvmSampler sampler, BufferedWriter output)
+            throws IOException {
+        // Чтениям нужны цели с первого запроса
+        for (int i = 0; i < 16; i++) {
+            execute(Operation.CREATE);
+        }
+        resetWindow();
+        sampler.sample();
+        writeHeader(output);
+
+        long start = System.nanoTime();
+        ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Исключение из задачи scheduleAtFixedRate отменяет все следующие запуски - окно без записи в CSV
+        // не должно останавливать замеры до конца прогона
+        windowTimer.scheduleAtFixedRate(() -> {
+            try {
+                closeWindow(start, sampler, output);
+            } catch (RuntimeException e) {
+                System.err.println("Окно длительного прогона не записано: " + e);
+            }
+        }, window.toNanos(), window.toNanos(), TimeUnit.NANOSECONDS);
+
+        double intervalNanos = 1e9 / ratePerSecond;
+        long end = start + duration.toNanos();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try (ExecutorService executor = stack.newExecutor(maxInFlight)) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + (long) (i * intervalNanos);
+                if (intendedStart >= end) {
+                    break;
+                }
+                Pacing.parkUntil(intendedStart);
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                Operation operation = schedule[(int) (i % schedule.length)];
+                executor.execute(() -> {
+                    try {
+                        execute(operation);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            windowTimer.shutdownNow();
+        }
+        try {
+            // Таймер мог начать закрывать окно до shutdownNow - последнее окно закрывается после него
+            windowTimer.awaitTermination(window.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Остаток прогона после последнего полного окна
+        try {
+            closeWindow(start, sampler, output);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        synchronized (windows) {
+            return List.copyOf(windows);
+        }
+    }
+
+    private void execute(Operation operation) {
+        CompactItem target = operation == Operation.CREATE ? null : randomKnownItem();
+        if (operation != Operation.CREATE && target == null) {
+            // Цели пока нет - чтение пропускается, а не считается ошибкой стенда
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            switch (operation) {
+                case CREATE -> {
+                    Item item = ItemFixtures.newItem(ItemFixtures.uniqueSellerId());
+                    CompactItem created = CompactItem.of(stack.createItem(item), item);
+                    checkUnique(created);
+                    knownItems.set((int) (createdCount.getAndIncrement() % KNOWN_ITEMS), created);
+                }
+                case ITEM -> stack.getItem(target.id());
+                case SELLER_ITEMS -> stack.getSellerItems(target.sellerId());
+                case STATISTIC -> stack.getStatistic(target.id());
+            }
+            latency.get(operation).record(System.nanoTime() - started);
+        } catch (RuntimeException | AssertionError e) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private void checkUnique(CompactItem item) {
+        boolean added;
+        synchronized (createdIds) {
+            added = createdIds.add(item.idHigh(), item.idLow());
+        }
+        if (!added) {
+            duplicateIds.increment();
+        }
+    }
+
+    /**
+     * Итог проверки уникальности ID созданных объявлений.
+     */
+    public String formatCreatedIds() {
+        synchronized (createdIds) {
+            return String.format("Создано объявлений с уникальным ID: %d, повторных ID: %d, таблица ID вне кучи: %.1f MB",
+                    createdIds.size(), duplicateIds.sum(), createdIds.tableBytes() / (1024.0 * 1024.0));
+        }
+    }
+
+    /**
+     * Случайное из недавно созданных объявлений или null, если его ещё нет: прогрев не создал ни одного
+     * объявления либо выбранная ячейка уже занята счётчиком, но создающий поток ещё не записал её.
+     */
+    private CompactItem randomKnownItem() {
+        int known = (int) Math.min(createdCount.get(), KNOWN_ITEMS);
+        return known == 0 ? null : knownItems.get(ThreadLocalRandom.current().nextInt(known));
+    }
+
+    private void resetWindow() {
+        latency.values().forEach(LatencyHistogram::snapshotAndReset);
+        errors.values().forEach(LongAdder::reset);
+        dropped.reset();
+    }
+
+    private void closeWindow(long start, JvmSampler sampler, BufferedWriter output) {
+        Map<Operation, LatencyHistogram> windowLatency = new EnumMap<>(Operation.class);
+        long windowErrors = 0;
+        for (Operation operation : Operation.values()) {
+            windowLatency.put(operation, latency.get(operation).snapshotAndReset());
+            windowErrors += errors.get(operation).sumThenReset();
+        }
+        Window window = new Window((System.nanoTime() - start) / 1_000_000_000L, windowLatency, windowErrors,
+                dropped.sumThenReset(), sampler.sample());
+        synchronized (windows) {
+            windows.add(window);
+        }
+        try {
+            output.write(window.toCsv());
+            output.newLine();
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println(window.formatLine());
+    }
+
+    private static void writeHeader(BufferedWriter output) throws IOException {
+        StringBuilder header = new StringBuilder("elapsed_s,requests,errors,dropped");
+        for (Operation operation : Operation.values()) {
+            String column = operation.column;
+            header.append(',').append(column).append("_count,").append(column).append("_p50_ms,")
+                    .append(column).append("_p99_ms,").append(column).append("_max_ms");
+        }
+        header.append(",gc_pauses,gc_pause_total_ms,gc_pause_max_ms,heap_after_gc_mb,heap_used_mb,open_sockets,threads");
+        output.write(header.toString());
+        output.newLine();
+    }
+
+    /**
+     * Окно прогона: время ответа по ручкам, ошибки, отброшенные из-за maxInFlight запросы и состояние JVM.
+     */
+    public record Window(long elapsedSeconds, Map<Operation, LatencyHistogram> latency, long errors, long dropped,
+                         JvmSampler.Sample jvm) {
+
+        long requests() {
+            return latency.values().stream().mapToLong(LatencyHistogram::getTotalCount).sum() + errors;
+        }
+
+        String toCsv() {
+            StringBuilder line = new StringBuilder();
+            line.append(elapsedSeconds).append(',').append(requests()).append(',').append(errors)
+                    .append(',').append(dropped);
+            for (Operation operation : Operation.values()) {
+                LatencyHistogram histogram = latency.get(operation);
+                line.append(',').append(histogram.getTotalCount())
+                        .append(',').append(millis(histogram.getValueAtPercentile(50)))
+                        .append(',').append(millis(histogram.getValueAtPercentile(99)))
+                        .append(',').append(millis(histogram.getMax()));
+            }
+            line.append(',').append(jvm.gcPauses().getTotalCount())
+                    .append(',').append(millis((long) (jvm.gcPauses().getMean() * jvm.gcPauses().getTotalCount())))
+                    .append(',').append(millis(jvm.gcPauses().getMax()))
+                    .append(',').append(megabytes(jvm.heapAfterGc()))
+                    .append(',').append(megabytes(jvm.heapUsed()))
+                    .append(',').append(jvm.openSockets())
+                    .append(',').append(jvm.threads());
+            return line.toString();
+        }
+
+        String formatLine() {
+            StringBuilder line = new StringBuilder(String.format("[%6ds] запросов: %d, ошибок: %d, p99:",
+                    elapsedSeconds, requests(), errors));
+            for (Operation operation : Operation.values()) {
+                line.append(' ').append(operation.column).append(' ')
+                        .append(millis(latency.get(operation).getValueAtPercentile(99)));
+            }
+            line.append(String.format(" ms, куча после GC: %s MB, сокетов: %d, потоков: %d",
+                    megabytes(jvm.heapAfterGc()), jvm.openSockets(), jvm.threads()));
+            return line.toString();
+        }
+    }
+
+    /**
+     * Итог прогона: первое окно после прогрева против последнего и наклон кучи после GC (МБ в час).
+     */
+    public static String formatSummary(List<Window> windows, Duration warmup) {
+        List<Window> measured = windows.stream().filter(w -> w.elapsedSeconds() > warmup.toSeconds()).toList();
+        if (measured.size() < 2) {
+            return "Недостаточно окон после прогрева для оценки дрейфа";
+        }
+        Window first = measured.get(0);
+        Window last = measured.get(measured.size() - 1);
+        StringBuilder report = new StringBuilder();
+        long requests = measured.stream().mapToLong(Window::requests).sum();
+        report.append(String.format("Окон: %d, запросов: %d, ошибок: %d, отброшено: %d%n", measured.size(), requests,
+                measured.stream().mapToLong(Window::errors).sum(), measured.stream().mapToLong(Window::dropped).sum()));
+        report.append(String.format("Дрейф времени ответа (%ds -> %ds):%n", first.elapsedSeconds(), last.elapsedSeconds()));
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram from = first.latency().get(operation);
+            LatencyHistogram to = last.latency().get(operation);
+            double p99Slope = slopePerHour(measured, w -> w.latency().get(operation).getValueAtPercentile(99) / 1e6);
+            report.append(String.format("  %-10s p50 %s -> %s ms, p99 %s -> %s ms, наклон p99 %+.2f ms/ч%n",
+                    operation.column, millis(from.getValueAtPercentile(50)), millis(to.getValueAtPercentile(50)),
+                    millis(from.getValueAtPercentile(99)), millis(to.getValueAtPercentile(99)), p99Slope));
+        }
+        List<Window> withGc = measured.stream().filter(w -> w.jvm().heapAfterGc() >= 0).toList();
+        if (withGc.size() >= 2) {
+            report.append(String.format("Куча после GC: %s -> %s MB, наклон %+.2f MB/ч%n",
+                    megabytes(withGc.get(0).jvm().heapAfterGc()),
+                    megabytes(withGc.get(withGc.size() - 1).jvm().heapAfterGc()),
+                    slopePerHour(withGc, w -> w.jvm().heapAfterGc() / (1024.0 * 1024.0))));
+        }
+        report.append(String.format("Сокетов: %d -> %d, потоков: %d -> %d, пауз GC: %d, максимальная: %s ms%n",
+                first.jvm().openSockets(), last.jvm().openSockets(), first.jvm().threads(), last.jvm().threads(),
+                measured.stream().mapToLong(w -> w.jvm().gcPauses().getTotalCount()).sum(),
+                millis(measured.stream().mapToLong(w -> w.jvm().gcPauses().getMax()).max().orElse(0))));
+        return report.toString();
+    }
+
+    /**
+     * Наклон линейной регрессии (метод наименьших квадратов) значения по времени окна, в единицах значения за час.
+     */
+    private static double slopePerHour(List<Window> windows, ToDoubleFunction<Window> value) {
+        double meanX = 0;
+        double meanY = 0;
+        for (Window window : windows) {
+            meanX += window.elapsedSeconds() / 3600.0;
+            meanY += value.applyAsDouble(window);
+        }
+        meanX /= windows.size();
+        meanY /= windows.size();
+        double covariance = 0;
+        double variance = 0;
+        for (Window window : windows) {
+            double dx = window.elapsedSeconds() / 3600.0 - meanX;
+            covariance += dx * (value.applyAsDouble(window) - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.column.equals(entry[0].trim())) {
+                    operation = candidate;
+                }
+            }
+            if (operation == null || entry.length != 2) {
+                throw new IllegalArgumentException("Неверная смесь операций: " + mix);
+            }
+            weights.put(operation, Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1e6);
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "" : String.format(Locale.ROOT, "%.1f", bytes / (1024.0 * 1024.0));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String baseUrl = AvitoApiConfig.getBaseUrl();
+        String stackName = System.getProperty("avito.soak.stack", "client");
+        Duration duration = Duration.ofSeconds(Long.getLong("avito.soak.duration", 3600));
+        Duration window = Duration.ofSeconds(Long.getLong("avito.soak.window", 10));
+        Duration warmup = Duration.ofSeconds(Long.getLong("avito.soak.warmup", 60));
+        double rate = Double.parseDouble(System.getProperty("avito.soak.rate", "50"));
+        Path outputFile = Path.of(System.getProperty("avito.soak.output", "target/soak.csv"));
+        Files.createDirectories(outputFile.toAbsolutePath().getParent());
+
+        try (Stack stack = stackName.equals("restassured") ? new RestAssuredStack(baseUrl) : new ClientStack(baseUrl);
+             JvmSampler sampler = new JvmSampler();
+             BufferedWriter output = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+            SoakRunner runner = new SoakRunner(stack, rate, Integer.getInteger("avito.soak.maxInFlight", 256),
+                    parseMix(System.getProperty("avito.soak.mix", "create:1,item:4,seller:2,statistic:3")));
+            System.out.printf("Длительный прогон %s (%s): %.0f запросов/с, %ds, окно %ds, CSV - %s%n",
+                    baseUrl, stackName, rate, duration.toSeconds(), window.toSeconds(), outputFile);
+            List<Window> windows = runner.run(duration, window, sampler, output);
+            System.out.println(formatSummary(windows, warmup));
+            System.out.println(runner.formatCreatedIds());
+        }
+        System.exit(0);
+    }
+
+    private static final class ClientStack implements Stack {
+        private final AvitoApiClient client;
+
+        private ClientStack(String baseUrl) {
+            this.client = new AvitoApiClient(baseUrl);
+        }
+
+        @Override
+        public String createItem(Item item) {
+            return client.createItem(item);
+        }
+
+        @Override
+        public void getItem(String id) {
+            client.getItem(id);
+        }
+
+        @Override
+        public void getSellerItems(int sellerId) {
+            client.getSellerItems(sellerId);
+        }
+
+        @Override
+        public void getStatistic(String id) {
+            client.getStatistic(id);
+        }
+
+        @Override
+        public void close() {
+            client.close();
+        }
+    }
+
+    /**
+     * Тот же стек, что в тестах: RestAssured с ApiMetricsFilter, логированием при упавшей проверке и разбором GPath.
+     */
+    private static final class RestAssuredStack implements Stack {
+        private final RequestSpecification requestSpec;
+
+        private RestAssuredStack(String baseUrl) {
+            this.requestSpec = new RequestSpecBuilder()
+                    .setBaseUri(baseUrl)
+                    .setContentType(ContentType.JSON)
+                    .setConfig(ApiMetricsFilter.loggingIfValidationFails())
+                    .addFilter(ApiMetricsFilter.INSTANCE)
+                    .build();
+        }
+
+        @Override
+        public String createItem(Item item) {
+            String status = given(requestSpec).body(item)
+                    .when().post(AvitoApiConfig.getItemEndpoint())
+                    .then().statusCode(200).extract().path("status");
+            return ItemFixtures.extractItemIdFromStatus(status);
+        }
+
+        @Override
+        public void getItem(String id) {
+            given(requestSpec).when().get(AvitoApiConfig.ITEM_BY_ID_ENDPOINT, id)
+                    .then().statusCode(200).extract().path("[0].id");
+        }
+
+        @Override
+        public void getSellerItems(int sellerId) {
+            given(requestSpec).pathParam("sellerId", sellerId)
+                    .when().get(AvitoApiConfig.getSellerItemEndpoint())
+                    .then().statusCode(200).extract().jsonPath().getList("id");
+        }
+
+        @Override
+        public void getStatistic(String id) {
+            given(requestSpec).pathParam("id", id)
+                    .when().get(AvitoApiConfig.getStatisticEndpoint())
+                    .then().statusCode(200).extract().path("[0].viewCount");
+        }
+
+        /**
+         * Apache HttpClient под RestAssured синхронизируется через synchronized и закрепляет виртуальные потоки
+         * за носителями, поэтому запросы выполняет пул платформенных потоков по числу maxInFlight.
+         */
+        @Override
+        public ExecutorService newExecutor(int maxInFlight) {
+            return Executors.newFixedThreadPool(maxInFlight);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.avito.api.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Встраиваемая заглушка API Avito, поднимаемая внутри процесса на loopback-интерфейсе.
+ * Реализует четыре ручки из {@link com.example.avito.api.AvitoApiConfig}:
+ * <ul>
+ *     <li>POST /api/1/item</li>
+ *     <li>GET /api/1/item/{id}</li>
+ *     <li>GET /api/1/{sellerId}/item</li>
+ *     <li>GET /api/1/statistic/{id}</li>
+ * </ul>
+ * Заглушка реализует контракт из TESTCASES.md (с валидацией полей), а не баги боевого стенда из BUGS.md.
+ * Запросы обрабатываются на виртуальных потоках, данные лежат в {@link ItemStore}.
+ */
+public class AvitoStubServer implements AutoCloseable {
+
+    public static final String PORT_PROPERTY = "avito.stub.port";
+
+    static final int MAX_NAME_LENGTH = 1000;
+
+    private static final String API_PREFIX = "/api/1/";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static volatile AvitoStubServer shared;
+
+    static {
+        // Без TCP_NODELAY встроенный HttpServer упирается в Nagle + delayed ACK (~40 мс на запрос на loopback)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ItemStore store = new ItemStore();
+
+    private AvitoStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(API_PREFIX, this::handle);
+        server.start();
+    }
+
+    /**
+     * Запускает заглушку на указанном порту (0 - любой свободный).
+     */
+    public static AvitoStubServer start(int port) {
+        try {
+            return new AvitoStubServer(port);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось запустить заглушку API на порту " + port, e);
+        }
+    }
+
+    /**
+     * Общий экземпляр заглушки на процесс; поднимается при первом обращении и гасится при завершении JVM.
+     */
+    public static AvitoStubServer shared() {
+        AvitoStubServer instance = shared;
+        if (instance == null) {
+            synchronized (AvitoStubServer.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = start(Integer.getInteger(PORT_PROPERTY, 0));
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "avito-stub-shutdown"));
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public ItemStore getStore() {
+        return store;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        // catch внутри try-with-resources: после закрытия обмена ответ 500 уже не отправить
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, e.toString());
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String[] segments = exchange.getRequestURI().getPath().substring(API_PREFIX.length()).split("/");
+        String method = exchange.getRequestMethod();
+
+        if (segments.length == 1 && segments[0].equals("item") && method.equals("POST")) {
+            createItem(exchange);
+        } else if (segments.length == 2 && segments[0].equals("item") && method.equals("GET")) {
+            getItem(exchange, segments[1]);
+        } else if (segments.length == 2 && segments[1].equals("item") && method.equals("GET")) {
+            getSellerItems(exchange, segments[0]);
+        } else if (segments.length == 2 && segments[0].equals("statistic") && method.equals("GET")) {
+            getStatistic(exchange, segments[1]);
+        } else {
+            sendError(exchange, 404, "not found");
+        }
+    }
+
+    private void createItem(HttpExchange exchange) throws IOException {
+        JsonNode body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = MAPPER.readTree(in);
+        } catch (IOException e) {
+            sendError(exchange, 400, "передан некорректный json");
+            return;
+        }
+        if (body == null || !body.isObject()) {
+            sendError(exchange, 400, "передан некорректный json");
+            return;
+        }
+
+        JsonNode sellerId = body.get("sellerID") != null ? body.get("sellerID") : body.get("sellerId");
+        JsonNode name = body.get("name");
+        JsonNode price = body.get("price");
+
+        if (sellerId == null || !sellerId.canConvertToInt() || !sellerId.isIntegralNumber()) {
+            sendError(exchange, 400, "поле sellerID обязательно");
+        } else if (name == null || !name.isTextual() || name.asText().isBlank()) {
+            sendError(exchange, 400, "поле name обязательно");
+        } else if (name.asText().length() > MAX_NAME_LENGTH) {
+            sendError(exchange, 400, "поле name не может быть длиннее " + MAX_NAME_LENGTH + " символов");
+        } else if (price == null || !price.canConvertToInt() || !price.isIntegralNumber()) {
+            sendError(exchange, 400, "поле price обязательно");
+        } else if (price.intValue() < 0) {
+            sendError(exchange, 400, "Цена должна быть неотрицательной");
+        } else {
+            ItemStore.StoredItem item = store.create(sellerId.intValue(), name.asText(), price.intValue(),
+                    readStatistics(body.get("statistics")));
+            ObjectNode response = MAPPER.createObjectNode();
+            response.put("status", "Сохранили объявление - " + item.id());
+            send(exchange, 200, response);
+        }
+    }
+
+    private void getItem(HttpExchange exchange, String rawId) throws IOException {
+        UUID id = parseUuid(rawId);
+        if (id == null) {
+            sendError(exchange, 400, "передан некорректный идентификатор объявления");
+            return;
+        }
+        ItemStore.StoredItem item = store.get(id);
+        if (item == null) {
+            sendError(exchange, 404, "item " + rawId + " not found");
+            return;
+        }
+        ArrayNode response = MAPPER.createArrayNode();
+        response.add(toJson(item));
+        send(exchange, 200, response);
+    }
+
+    private void getSellerItems(HttpExchange exchange, String rawSellerId) throws IOException {
+        int sellerId;
+        try {
+            sellerId = Integer.parseInt(rawSellerId);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "передан некорректный идентификатор продавца");
+            return;
+        }
+        List<ItemStore.StoredItem> items = store.getBySeller(sellerId);
+        ArrayNode response = MAPPER.createArrayNode();
+        for (ItemStore.StoredItem item : items) {
+            response.add(toJson(item));
+        }
+        send(exchange, 200, response);
+    }
+
+    private void getStatistic(HttpExchange exchange, String rawId) throws IOException {
+        UUID id = parseUuid(rawId);
+        if (id == null) {
+            sendError(exchange, 400, "передан некорректный идентификатор объявления");
+            return;
+        }
+        ItemStore.StoredItem item = store.get(id);
+        if (item == null) {
+            sendError(exchange, 404, "statistic " + rawId + " not found");
+            return;
+        }
+        ArrayNode response = MAPPER.createArrayNode();
+        response.add(toJson(item.statistics()));
+        send(exchange, 200, response);
+    }
+
+    private static ItemStore.Statistics readStatistics(JsonNode statistics) {
+        if (statistics == null || !statistics.isObject()) {
+            return ItemStore.Statistics.EMPTY;
+        }
+        return new ItemStore.Statistics(
+                statistics.path("likes").asLong(),
+                statistics.path("viewCount").asLong(),
+                statistics.path("contacts").asLong());
+    }
+
+    private static UUID parseUuid(String rawId) {
+        // UUID.fromString пропускает укороченные группы, поэтому дополнительно сверяем каноническую форму
+        try {
+            UUID id = UUID.fromString(rawId);
+            return id.toString().equalsIgnoreCase(rawId) ? id : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ObjectNode toJson(ItemStore.StoredItem item) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("createdAt", item.createdAt());
+        node.put("id", item.id().toString());
+        node.put("name", item.name());
+        node.put("price", item.price());
+        node.put("sellerId", item.sellerId());
+        node.set("statistics", toJson(item.statistics()));
+        return node;
+    }
+
+    private static ObjectNode toJson(ItemStore.Statistics statistics) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("contacts", statistics.contacts());
+        node.put("likes", statistics.likes());
+        node.put("viewCount", statistics.viewCount());
+        return node;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        // Формат ошибки повторяет боевой API: {"result":{"message":"...","messages":{}},"status":"400"}
+        ObjectNode response = MAPPER.createObjectNode();
+        ObjectNode result = response.putObject("result");
+        result.put("message", message);
+        result.putObject("messages");
+        response.put("status", String.valueOf(status));
+        send(exchange, status, response);
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Запуск заглушки отдельным процессом: порт задаётся через -Davito.stub.port (по умолчанию 8080).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        AvitoStubServer stub = start(Integer.getInteger(PORT_PROPERTY, 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close, "avito-stub-shutdown"));
+        System.out.println("Заглушка API Avito запущена: " + stub.getBaseUrl());
+        Thread.currentThread().join();
+    }
+}
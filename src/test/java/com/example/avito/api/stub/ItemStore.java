@@ -0,0 +1,60 @@
+package com.example.avito.api.stub;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Потокобезопасное in-memory хранилище объявлений для {@link AvitoStubServer}.
+ * Помимо основного индекса по ID держит индекс sellerId -> объявления,
+ * чтобы выдача списка продавца не требовала полного перебора.
+ */
+public class ItemStore {
+
+    // Формат createdAt повторяет боевой API: "2025-02-15 17:26:52.640575 +0300 +0300"
+    private static final DateTimeFormatter CREATED_AT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS Z Z");
+
+    private final Map<UUID, StoredItem> items = new ConcurrentHashMap<>();
+    private final Map<Integer, Queue<StoredItem>> sellerIndex = new ConcurrentHashMap<>();
+
+    public StoredItem create(int sellerId, String name, int price, Statistics statistics) {
+        StoredItem item = new StoredItem(UUID.randomUUID(), sellerId, name, price,
+                OffsetDateTime.now().format(CREATED_AT_FORMAT), statistics);
+        items.put(item.id(), item);
+        // Индекс продавца обновляется после основного: объявление, видимое в списке, всегда доступно по ID
+        sellerIndex.computeIfAbsent(sellerId, key -> new ConcurrentLinkedQueue<>()).add(item);
+        return item;
+    }
+
+    public StoredItem get(UUID id) {
+        return items.get(id);
+    }
+
+    public List<StoredItem> getBySeller(int sellerId) {
+        Queue<StoredItem> sellerItems = sellerIndex.get(sellerId);
+        return sellerItems == null ? List.of() : new ArrayList<>(sellerItems);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public void clear() {
+        items.clear();
+        sellerIndex.clear();
+    }
+
+    public record Statistics(long likes, long viewCount, long contacts) {
+        public static final Statistics EMPTY = new Statistics(0, 0, 0);
+    }
+
+    public record StoredItem(UUID id, int sellerId, String name, int price, String createdAt, Statistics statistics) {
+    }
+}